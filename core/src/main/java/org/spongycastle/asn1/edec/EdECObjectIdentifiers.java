@@ -0,0 +1,17 @@
+package org.spongycastle.asn1.edec;
+
+import org.spongycastle.asn1.ASN1ObjectIdentifier;
+
+/**
+ * Edwards Elliptic Curve Object Identifiers (RFC 8410)
+ */
+public interface EdECObjectIdentifiers
+{
+    /** 1.3.101 */
+    public static final ASN1ObjectIdentifier id_edwards_curve_algs = new ASN1ObjectIdentifier("1.3.101");
+
+    /** 1.3.101.110 */
+    public static final ASN1ObjectIdentifier id_X25519 = id_edwards_curve_algs.branch("110");
+    /** 1.3.101.112 */
+    public static final ASN1ObjectIdentifier id_Ed25519 = id_edwards_curve_algs.branch("112");
+}
@@ -1,5 +1,8 @@
 package org.spongycastle.asn1.x9;
 
+import org.spongycastle.math.ec.ECCurve;
+import org.spongycastle.math.ec.ECPoint;
+
 public abstract class X9ECParametersHolder
 {
     private X9ECParameters params;
@@ -9,6 +12,14 @@ public X9ECParameters getParameters()
         if (params == null)
         {
             params = createParameters();
+
+            // Named Koblitz curves keep the WTNAF table of their generator apart from other points'
+            ECCurve curve = params.getCurve();
+            ECPoint G = params.getG();
+            if (curve instanceof ECCurve.F2m && ((ECCurve.F2m)curve).isKoblitz() && G.getCurve() == curve)
+            {
+                ((ECCurve.F2m)curve).setBasePoint(G);
+            }
         }
 
         return params;
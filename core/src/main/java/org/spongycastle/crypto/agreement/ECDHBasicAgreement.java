@@ -6,7 +6,10 @@
 import org.spongycastle.crypto.CipherParameters;
 import org.spongycastle.crypto.params.ECPrivateKeyParameters;
 import org.spongycastle.crypto.params.ECPublicKeyParameters;
+import org.spongycastle.math.ec.ECCurve;
+import org.spongycastle.math.ec.ECMultiplier;
 import org.spongycastle.math.ec.ECPoint;
+import org.spongycastle.math.ec.FixedPointCombMultiplier;
 
 /**
  * P1363 7.2.1 ECSVDP-DH
@@ -25,8 +28,29 @@
 public class ECDHBasicAgreement
     implements BasicAgreement
 {
+    private final ECMultiplier peerMultiplier;
+
     private ECPrivateKeyParameters key;
 
+    public ECDHBasicAgreement()
+    {
+        this(false);
+    }
+
+    /**
+     * @param staticPeers true if the public keys passed to {@link #calculateAgreement} are
+     * long-lived (e.g. a fixed recipient), in which case a comb table is built for each public
+     * point the first time it is used and kept with the point, making later agreements with the
+     * same ECPoint instance several times cheaper. A key decoded again is a new instance, whose
+     * table is built again, unless its curve was created with a point cache (see
+     * {@link ECCurve.Config#setPointCacheSize(int)}). The table costs about as much as a plain
+     * agreement to build.
+     */
+    public ECDHBasicAgreement(boolean staticPeers)
+    {
+        this.peerMultiplier = staticPeers ? new FixedPointCombMultiplier(false) : null;
+    }
+
     public void init(
         CipherParameters key)
     {
@@ -42,7 +66,15 @@ public BigInteger calculateAgreement(
         CipherParameters pubKey)
     {
         ECPublicKeyParameters pub = (ECPublicKeyParameters)pubKey;
-        ECPoint P = pub.getQ().multiply(key.getD()).normalize();
+        ECPoint P;
+        if (peerMultiplier == null || !isCombSuitable(pub.getQ().getCurve()))
+        {
+            P = pub.getQ().multiply(key.getD()).normalize();
+        }
+        else
+        {
+            P = peerMultiplier.multiply(pub.getQ(), key.getD()).normalize();
+        }
 
         if (P.isInfinity())
         {
@@ -51,4 +83,55 @@ public BigInteger calculateAgreement(
 
         return P.getAffineXCoord().toBigInteger();
     }
+
+    /**
+     * Calculate the agreement values of each of several private keys with the one public key, for
+     * instance when many ephemeral keys are used with a single recipient. The public point's comb
+     * table (or on Koblitz curves, its tau-adic table) is built or found once, and the resulting
+     * points are normalized together, with a single field inversion.
+     *
+     * @param keys the private keys.
+     * @param pubKey the public key they are all to agree with.
+     * @return the agreement values, in the same order as the keys.
+     */
+    public static BigInteger[] calculateAgreements(
+        ECPrivateKeyParameters[] keys,
+        ECPublicKeyParameters pubKey)
+    {
+        ECPoint Q = pubKey.getQ();
+        ECCurve c = Q.getCurve();
+        ECMultiplier multiplier = isCombSuitable(c) ? new FixedPointCombMultiplier(false) : c.getMultiplier();
+
+        ECPoint[] points = new ECPoint[keys.length];
+        for (int i = 0; i < keys.length; ++i)
+        {
+            points[i] = multiplier.multiply(Q, keys[i].getD());
+        }
+
+        c.normalizeAll(points);
+
+        BigInteger[] agreements = new BigInteger[keys.length];
+        for (int i = 0; i < keys.length; ++i)
+        {
+            ECPoint P = points[i];
+
+            if (P.isInfinity())
+            {
+                throw new IllegalStateException("Infinity is not a valid agreement value for ECDH");
+            }
+
+            agreements[i] = P.getAffineXCoord().toBigInteger();
+        }
+
+        return agreements;
+    }
+
+    /*
+     * Koblitz curves already get per-point tables from their default (tau-adic) multiplier, which
+     * beats the comb there.
+     */
+    private static boolean isCombSuitable(ECCurve c)
+    {
+        return !(c instanceof ECCurve.F2m && ((ECCurve.F2m)c).isKoblitz());
+    }
 }
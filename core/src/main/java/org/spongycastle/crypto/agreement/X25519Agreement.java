@@ -0,0 +1,55 @@
+package org.spongycastle.crypto.agreement;
+
+import java.math.BigInteger;
+
+import org.spongycastle.crypto.BasicAgreement;
+import org.spongycastle.crypto.CipherParameters;
+import org.spongycastle.crypto.params.X25519PrivateKeyParameters;
+import org.spongycastle.crypto.params.X25519PublicKeyParameters;
+
+/**
+ * X25519 key agreement, as in RFC 7748.
+ * <p>
+ * The shared secret is properly the 32 byte string written by
+ * {@link #calculateAgreement(CipherParameters, byte[], int)}. For use through
+ * {@link BasicAgreement} it is also available as the integer it encodes (little-endian), in the
+ * same way that ECDH returns its x-coordinate.
+ */
+public class X25519Agreement
+    implements BasicAgreement
+{
+    private X25519PrivateKeyParameters privateKey;
+
+    public void init(CipherParameters key)
+    {
+        this.privateKey = (X25519PrivateKeyParameters)key;
+    }
+
+    public int getFieldSize()
+    {
+        return X25519PrivateKeyParameters.SECRET_SIZE;
+    }
+
+    public BigInteger calculateAgreement(CipherParameters pubKey)
+    {
+        byte[] secret = new byte[X25519PrivateKeyParameters.SECRET_SIZE];
+        calculateAgreement(pubKey, secret, 0);
+
+        byte[] bigEndian = new byte[secret.length];
+        for (int i = 0; i < secret.length; ++i)
+        {
+            bigEndian[i] = secret[secret.length - 1 - i];
+        }
+        return new BigInteger(1, bigEndian);
+    }
+
+    /**
+     * Write the shared secret with the holder of <code>pubKey</code> into <code>buf</code>.
+     *
+     * @throws IllegalStateException if the public key is a point of small order.
+     */
+    public void calculateAgreement(CipherParameters pubKey, byte[] buf, int off)
+    {
+        privateKey.generateSecret((X25519PublicKeyParameters)pubKey, buf, off);
+    }
+}
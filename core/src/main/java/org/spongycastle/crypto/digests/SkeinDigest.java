@@ -1,5 +1,7 @@
 package org.spongycastle.crypto.digests;
 
+import java.util.concurrent.ExecutorService;
+
 import org.spongycastle.crypto.ExtendedDigest;
 import org.spongycastle.crypto.engines.ThreefishEngine;
 import org.spongycastle.crypto.params.SkeinParameters;
@@ -93,6 +95,19 @@ public void init(SkeinParameters params)
         engine.init(params);
     }
 
+    /**
+     * Sets the executor used to process the leaves and nodes of the hash tree concurrently, when
+     * the digest is initialised with {@link SkeinParameters.Builder#setTreeParameters(int, int, int)
+     * tree parameters}.
+     *
+     * @param executor the executor to use, or <code>null</code> to hash the tree in the calling thread.
+     * @see SkeinEngine#setExecutor(ExecutorService)
+     */
+    public void setExecutor(ExecutorService executor)
+    {
+        engine.setExecutor(executor);
+    }
+
     public void reset()
     {
         engine.reset();
@@ -1,8 +1,12 @@
 package org.spongycastle.crypto.digests;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Enumeration;
 import java.util.Hashtable;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.spongycastle.crypto.DataLengthException;
 import org.spongycastle.crypto.engines.ThreefishEngine;
@@ -33,12 +37,13 @@
  * <li>Parameters defined in the Skein specification, and arbitrary other pre and post message
  * parameters.</li>
  * <li>Arbitrary output size in 1 byte intervals.</li>
+ * <li>Tree hashing, with leaves and nodes optionally processed concurrently on a provided
+ * {@link #setExecutor(ExecutorService) executor}.</li>
  * </ul>
  * <p/>
  * Not implemented:
  * <ul>
  * <li>Sub-byte length input (bit padding).</li>
- * <li>Tree hashing.</li>
  * </ul>
  *
  * @see SkeinParameters
@@ -59,12 +64,16 @@
      */
     public static final int SKEIN_1024 = ThreefishEngine.BLOCKSIZE_1024;
 
-    // Minimal at present, but more complex when tree hashing is implemented
     private static class Configuration
     {
         private byte[] bytes = new byte[32];
 
         public Configuration(long outputSizeBits)
+        {
+            this(outputSizeBits, 0, 0, 0);
+        }
+
+        public Configuration(long outputSizeBits, int treeLeafSize, int treeFanOut, int treeMaxHeight)
         {
             // 0..3 = ASCII SHA3
             bytes[0] = (byte)'S';
@@ -78,6 +87,11 @@ public Configuration(long outputSizeBits)
 
             // 8..15 = output length
             ThreefishEngine.wordToBytes(outputSizeBits, bytes, 8);
+
+            // 16..18 = tree parameters
+            bytes[16] = (byte)treeLeafSize;
+            bytes[17] = (byte)treeFanOut;
+            bytes[18] = (byte)treeMaxHeight;
         }
 
         public byte[] getBytes()
@@ -130,6 +144,11 @@ public byte[] getValue()
      */
     private static final int PARAM_TYPE_OUTPUT = 63;
 
+    /**
+     * The largest leaf or node size supported in tree hashing mode.
+     */
+    private static final int MAX_TREE_NODE_BYTES = 1 << 24;
+
     /**
      * Precalculated UBI(CFG) states for common state/output combinations without key or other
      * pre-message params.
@@ -281,6 +300,24 @@ public int getType()
             return (int)((tweak[1] >>> 56) & 0x3FL);
         }
 
+        public void setTreeLevel(int level)
+        {
+            // Bits 112..118 = tree level
+            tweak[1] = (tweak[1] & ~(0x7FL << 48)) | ((level & 0x7FL) << 48);
+        }
+
+        /**
+         * Sets the starting position of a UBI invocation (used for the nodes of a hash tree).
+         */
+        public void setPosition(long position)
+        {
+            tweak[0] = position;
+            if (position > LOW_RANGE)
+            {
+                extendedPosition = true;
+            }
+        }
+
         public void setFirst(boolean first)
         {
             if (first)
@@ -460,6 +497,121 @@ public void doFinal(long[] output)
 
     }
 
+    /**
+     * Performs the complete UBI invocations for the leaves and nodes of a hash tree, using its own
+     * Threefish cipher so that multiple workers can run concurrently.
+     */
+    private static class TreeWorker
+    {
+        private final ThreefishEngine threefish;
+
+        private final UbiTweak tweak = new UbiTweak();
+
+        /**
+         * Buffer for a final partial block of node data
+         */
+        private final byte[] currentBlock;
+
+        /**
+         * Buffer for message words for feedback into encrypted block
+         */
+        private final long[] message;
+
+        /**
+         * The chaining value of the node being processed
+         */
+        private final long[] output;
+
+        public TreeWorker(int blockSize)
+        {
+            threefish = new ThreefishEngine(blockSize * 8);
+            currentBlock = new byte[blockSize];
+            message = new long[blockSize / 8];
+            output = new long[blockSize / 8];
+        }
+
+        /**
+         * Processes the nodes <code>from</code> (inclusive) to <code>to</code> (exclusive) of a
+         * level of the tree, writing the chaining output of node <code>i</code> to
+         * <code>out</code> at offset <code>i * blockSize</code>.
+         */
+        public void processNodes(long[] initialState, byte[] in, int len, int nodeSize, int level,
+                                 long firstNode, int from, int to, byte[] out)
+        {
+            for (int i = from; i < to; i++)
+            {
+                final int offset = i * nodeSize;
+                final int nodeLen = Math.min(nodeSize, len - offset);
+
+                ubi(initialState, level, (firstNode + i) * nodeSize, in, offset, nodeLen, out, i * currentBlock.length);
+            }
+        }
+
+        /**
+         * Performs a complete message UBI invocation over <code>in</code>, starting at the
+         * provided tree level and position.
+         */
+        public void ubi(long[] initialState, int level, long position, byte[] in, int inOff, int len, byte[] out,
+                        int outOff)
+        {
+            final int blockSize = currentBlock.length;
+
+            tweak.reset();
+            tweak.setType(PARAM_TYPE_MESSAGE);
+            tweak.setTreeLevel(level);
+            tweak.setPosition(position);
+            System.arraycopy(initialState, 0, output, 0, output.length);
+
+            int processed = 0;
+            do
+            {
+                final int toProcess = Math.min(blockSize, len - processed);
+                tweak.advancePosition(toProcess);
+                if (processed + toProcess == len)
+                {
+                    tweak.setFinal(true);
+                }
+
+                if (toProcess == blockSize)
+                {
+                    for (int i = 0; i < message.length; i++)
+                    {
+                        message[i] = ThreefishEngine.bytesToWord(in, inOff + processed + i * 8);
+                    }
+                }
+                else
+                {
+                    // Pad final block with zeroes
+                    System.arraycopy(in, inOff + processed, currentBlock, 0, toProcess);
+                    for (int i = toProcess; i < blockSize; i++)
+                    {
+                        currentBlock[i] = 0;
+                    }
+                    for (int i = 0; i < message.length; i++)
+                    {
+                        message[i] = ThreefishEngine.bytesToWord(currentBlock, i * 8);
+                    }
+                }
+
+                threefish.init(true, output, tweak.getWords());
+                threefish.processBlock(message, output);
+                for (int i = 0; i < output.length; i++)
+                {
+                    output[i] ^= message[i];
+                }
+
+                tweak.setFirst(false);
+                processed += toProcess;
+            }
+            while (processed < len);
+
+            for (int i = 0; i < output.length; i++)
+            {
+                ThreefishEngine.wordToBytes(output[i], out, outOff + i * 8);
+            }
+        }
+    }
+
     /**
      * Underlying Threefish tweakable block cipher
      */
@@ -505,6 +657,43 @@ public void doFinal(long[] output)
      */
     private final byte[] singleByte = new byte[1];
 
+    /**
+     * The encoded tree leaf size, fan out and maximum height (all zero for sequential hashing)
+     */
+    private int treeLeafSize;
+    private int treeFanOut;
+    private int treeMaxHeight;
+
+    /**
+     * The (optional) executor used to process tree leaves and nodes concurrently
+     */
+    private ExecutorService executor;
+
+    /**
+     * The tree workers, one per concurrently processed task
+     */
+    private TreeWorker[] workers;
+
+    /**
+     * Buffer for the message data of a batch of tree leaves
+     */
+    private byte[] leafBuffer;
+
+    /**
+     * Offset into the current batch of tree leaves
+     */
+    private int leafOffset;
+
+    /**
+     * The number of tree leaves processed so far
+     */
+    private long leafCount;
+
+    /**
+     * The chaining outputs of the tree leaves processed so far
+     */
+    private ByteArrayOutputStream leafOutputs;
+
     /**
      * Constructs a Skein engine.
      *
@@ -543,6 +732,21 @@ private void copyIn(SkeinEngine engine)
         this.key = Arrays.clone(engine.key, this.key);
         this.preMessageParameters = clone(engine.preMessageParameters, this.preMessageParameters);
         this.postMessageParameters = clone(engine.postMessageParameters, this.postMessageParameters);
+
+        this.treeLeafSize = engine.treeLeafSize;
+        this.treeFanOut = engine.treeFanOut;
+        this.treeMaxHeight = engine.treeMaxHeight;
+        this.executor = engine.executor;
+        this.workers = null;
+        if (engine.isTreeHashing())
+        {
+            this.leafBuffer = Arrays.clone(engine.leafBuffer, this.leafBuffer);
+            this.leafOffset = engine.leafOffset;
+            this.leafCount = engine.leafCount;
+            this.leafOutputs = new ByteArrayOutputStream();
+            byte[] outputs = engine.leafOutputs.toByteArray();
+            this.leafOutputs.write(outputs, 0, outputs.length);
+        }
     }
 
     private static Parameter[] clone(Parameter[] data, Parameter[] existing)
@@ -584,6 +788,20 @@ public int getBlockSize()
         return threefish.getBlockSize();
     }
 
+    /**
+     * Sets the executor used to process the leaves and nodes of a hash tree concurrently when this
+     * engine is initialised with {@link SkeinParameters#isTreeHashing() tree parameters}. Work is
+     * split across (at most) as many tasks as there are available processors.
+     *
+     * @param executor the executor to submit tree hashing tasks to, or <code>null</code> to process
+     *                 the tree sequentially in the calling thread.
+     */
+    public void setExecutor(ExecutorService executor)
+    {
+        this.executor = executor;
+        this.workers = null;
+    }
+
     /**
      * Initialises the Skein engine with the provided parameters. See {@link SkeinParameters} for
      * details on the parameterisation of the Skein hash function.
@@ -596,15 +814,19 @@ public void init(SkeinParameters params)
         this.key = null;
         this.preMessageParameters = null;
         this.postMessageParameters = null;
+        this.treeLeafSize = 0;
+        this.treeFanOut = 0;
+        this.treeMaxHeight = 0;
 
         if (params != null)
         {
             byte[] key = params.getKey();
-            if (key.length < 16)
+            if ((key != null) && (key.length < 16))
             {
                 throw new IllegalArgumentException("Skein key must be at least 128 bits.");
             }
             initParams(params.getParameters());
+            initTree(params);
         }
         createInitialState();
 
@@ -645,6 +867,35 @@ else if (type.intValue() < PARAM_TYPE_MESSAGE)
         sort(postMessageParameters);
     }
 
+    private void initTree(SkeinParameters params)
+    {
+        if (!params.isTreeHashing())
+        {
+            return;
+        }
+        if ((getLeafBytes(params.getTreeLeafSize()) > MAX_TREE_NODE_BYTES)
+            || (getLeafBytes(params.getTreeFanOut()) > MAX_TREE_NODE_BYTES))
+        {
+            throw new IllegalArgumentException("Skein tree leaf and node sizes must not exceed "
+                + MAX_TREE_NODE_BYTES + " bytes.");
+        }
+        this.treeLeafSize = params.getTreeLeafSize();
+        this.treeFanOut = params.getTreeFanOut();
+        this.treeMaxHeight = params.getTreeMaxHeight();
+        this.leafBuffer = null;
+        this.leafOutputs = new ByteArrayOutputStream();
+    }
+
+    private long getLeafBytes(int encodedSize)
+    {
+        return (encodedSize >= 32) ? Long.MAX_VALUE : ((long)getBlockSize() << encodedSize);
+    }
+
+    private boolean isTreeHashing()
+    {
+        return treeMaxHeight != 0;
+    }
+
     private static void sort(Parameter[] params)
     {
         if (params == null)
@@ -671,7 +922,7 @@ private static void sort(Parameter[] params)
     private void createInitialState()
     {
         long[] precalc = (long[])INITIAL_STATES.get(variantIdentifier(getBlockSize(), getOutputSize()));
-        if ((key == null) && (precalc != null))
+        if ((key == null) && (precalc != null) && !isTreeHashing())
         {
             // Precalculated UBI(CFG)
             chain = Arrays.clone(precalc);
@@ -688,7 +939,8 @@ private void createInitialState()
             }
 
             // Process configuration block
-            ubiComplete(PARAM_TYPE_CONFIG, new Configuration(outputSizeBytes * 8).getBytes());
+            ubiComplete(PARAM_TYPE_CONFIG,
+                new Configuration(outputSizeBytes * 8, treeLeafSize, treeFanOut, treeMaxHeight).getBytes());
         }
 
         // Process additional pre-message parameters
@@ -712,6 +964,13 @@ public void reset()
         System.arraycopy(initialState, 0, chain, 0, chain.length);
 
         ubiInit(PARAM_TYPE_MESSAGE);
+
+        if (isTreeHashing())
+        {
+            leafOffset = 0;
+            leafCount = 0;
+            leafOutputs.reset();
+        }
     }
 
     private void ubiComplete(int type, byte[] value)
@@ -748,7 +1007,182 @@ public void update(byte in)
     public void update(byte[] in, int inOff, int len)
     {
         checkInitialised();
-        ubi.update(in, inOff, len, chain);
+        if (isTreeHashing())
+        {
+            treeUpdate(in, inOff, len);
+        }
+        else
+        {
+            ubi.update(in, inOff, len, chain);
+        }
+    }
+
+    private void treeUpdate(byte[] in, int inOff, int len)
+    {
+        /*
+         * Leaves do not depend on any following data, so each batch of leaves is processed as soon
+         * as it is complete.
+         */
+        int copied = 0;
+        while (len > copied)
+        {
+            if (leafOffset == 0)
+            {
+                checkLeafBuffer();
+            }
+
+            int toCopy = Math.min((len - copied), leafBuffer.length - leafOffset);
+            System.arraycopy(in, inOff + copied, leafBuffer, leafOffset, toCopy);
+            copied += toCopy;
+            leafOffset += toCopy;
+
+            if (leafOffset == leafBuffer.length)
+            {
+                processLeaves();
+            }
+        }
+    }
+
+    /**
+     * Sizes the leaf buffer to hold a batch of one leaf per tree worker.
+     */
+    private void checkLeafBuffer()
+    {
+        int batchBytes = getWorkers().length * (getBlockSize() << treeLeafSize);
+        if ((leafBuffer == null) || (leafBuffer.length != batchBytes))
+        {
+            leafBuffer = new byte[batchBytes];
+        }
+    }
+
+    private void processLeaves()
+    {
+        final int leafBytes = getBlockSize() << treeLeafSize;
+        final int leaves = Math.max(1, (leafOffset + leafBytes - 1) / leafBytes);
+
+        byte[] outputs = new byte[leaves * getBlockSize()];
+        processNodes(leafBuffer, leafOffset, leafBytes, 1, leafCount, outputs);
+        leafOutputs.write(outputs, 0, outputs.length);
+
+        leafCount += leaves;
+        leafOffset = 0;
+    }
+
+    /**
+     * Computes the root of the hash tree from the leaf outputs, leaving it in the chaining state.
+     */
+    private void treeFinal()
+    {
+        if ((leafOffset > 0) || (leafCount == 0))
+        {
+            if (leafOffset == 0)
+            {
+                checkLeafBuffer();
+            }
+            processLeaves();
+        }
+
+        final int blockSize = getBlockSize();
+        final int nodeBytes = blockSize << treeFanOut;
+
+        byte[] levelOutputs = leafOutputs.toByteArray();
+        int level = 1;
+        while (levelOutputs.length > blockSize)
+        {
+            if (level == treeMaxHeight - 1)
+            {
+                // Maximum height reached: the remainder of the tree is processed as a single node
+                byte[] root = new byte[blockSize];
+                getWorkers()[0].ubi(initialState, treeMaxHeight, 0, levelOutputs, 0, levelOutputs.length, root, 0);
+                levelOutputs = root;
+                break;
+            }
+
+            final int nodes = (levelOutputs.length + nodeBytes - 1) / nodeBytes;
+            byte[] nextOutputs = new byte[nodes * blockSize];
+            processNodes(levelOutputs, levelOutputs.length, nodeBytes, level + 1, 0, nextOutputs);
+            levelOutputs = nextOutputs;
+            level++;
+        }
+
+        for (int i = 0; i < chain.length; i++)
+        {
+            chain[i] = ThreefishEngine.bytesToWord(levelOutputs, i * 8);
+        }
+    }
+
+    /**
+     * Processes all the nodes of <code>nodeSize</code> bytes in <code>in</code>, spreading them
+     * across the tree workers when an executor is available.
+     */
+    private void processNodes(final byte[] in, final int len, final int nodeSize, final int level,
+                              final long firstNode, final byte[] out)
+    {
+        final int nodes = Math.max(1, (len + nodeSize - 1) / nodeSize);
+        final TreeWorker[] workers = getWorkers();
+        final int tasks = Math.min(workers.length, nodes);
+
+        if ((executor == null) || (tasks == 1))
+        {
+            workers[0].processNodes(initialState, in, len, nodeSize, level, firstNode, 0, nodes, out);
+            return;
+        }
+
+        Future[] results = new Future[tasks];
+        for (int t = 0; t < tasks; t++)
+        {
+            final TreeWorker worker = workers[t];
+            final int from = (int)((long)nodes * t / tasks);
+            final int to = (int)((long)nodes * (t + 1) / tasks);
+
+            results[t] = executor.submit(new Runnable()
+            {
+                public void run()
+                {
+                    worker.processNodes(initialState, in, len, nodeSize, level, firstNode, from, to, out);
+                }
+            });
+        }
+
+        for (int t = 0; t < tasks; t++)
+        {
+            try
+            {
+                results[t].get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Skein tree hashing interrupted");
+            }
+            catch (ExecutionException e)
+            {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                {
+                    throw (RuntimeException)cause;
+                }
+                if (cause instanceof Error)
+                {
+                    throw (Error)cause;
+                }
+                throw new IllegalStateException("Skein tree hashing failed: " + cause.getMessage());
+            }
+        }
+    }
+
+    private TreeWorker[] getWorkers()
+    {
+        if (workers == null)
+        {
+            int count = (executor == null) ? 1 : Math.max(1, Runtime.getRuntime().availableProcessors());
+            workers = new TreeWorker[count];
+            for (int i = 0; i < count; i++)
+            {
+                workers[i] = new TreeWorker(getBlockSize());
+            }
+        }
+        return workers;
     }
 
     public int doFinal(byte[] out, int outOff)
@@ -760,7 +1194,14 @@ public int doFinal(byte[] out, int outOff)
         }
 
         // Finalise message block
-        ubiFinal();
+        if (isTreeHashing())
+        {
+            treeFinal();
+        }
+        else
+        {
+            ubiFinal();
+        }
 
         // Process additional post-message parameters
         if (postMessageParameters != null)
@@ -19,10 +19,19 @@
 {
     private static final BigInteger ONE = BigInteger.valueOf(1);
 
+    /*
+     * How many times a blinding pair is updated by squaring before a fresh random one is drawn
+     */
+    private static final int BLINDING_REFRESH = 32;
+
     private RSACoreEngine    core = new RSACoreEngine();
     private RSAKeyParameters key;
     private SecureRandom     random;
 
+    // The current blinding pair (r^e mod m, r^-1 mod m) for key, and the uses left before a refresh
+    private BigInteger       blindingFactor, unblindingFactor;
+    private int              blindingUses;
+
     /**
      * initialise the RSA engine.
      *
@@ -35,6 +44,8 @@ public void init(
     {
         core.init(forEncryption, param);
 
+        RSAKeyParameters oldKey = key;
+
         if (param instanceof ParametersWithRandom)
         {
             ParametersWithRandom    rParam = (ParametersWithRandom)param;
@@ -47,6 +58,13 @@ public void init(
             key = (RSAKeyParameters)param;
             random = new SecureRandom();
         }
+
+        // A blinding pair is only kept across re-initialisation with the same key
+        if (key != oldKey)
+        {
+            blindingFactor = null;
+            unblindingFactor = null;
+        }
     }
 
     /**
@@ -103,13 +121,12 @@ public byte[] processBlock(
             if (e != null)   // can't do blinding without a public exponent
             {
                 BigInteger m = k.getModulus();
-                BigInteger r = BigIntegers.createRandomInRange(ONE, m.subtract(ONE), random);
+                updateBlinding(e, m);
 
-                BigInteger blindedInput = r.modPow(e, m).multiply(input).mod(m);
+                BigInteger blindedInput = blindingFactor.multiply(input).mod(m);
                 BigInteger blindedResult = core.processBlock(blindedInput);
 
-                BigInteger rInv = r.modInverse(m);
-                result = blindedResult.multiply(rInv).mod(m);
+                result = blindedResult.multiply(unblindingFactor).mod(m);
             }
             else
             {
@@ -123,4 +140,26 @@ public byte[] processBlock(
 
         return core.convertOutput(result);
     }
+
+    /*
+     * Move to the next blinding pair. Squaring both halves of (r^e, r^-1) gives the pair for r^2
+     * at the cost of two modular multiplications, rather than an exponentiation and an inversion;
+     * every BLINDING_REFRESH uses the pair is drawn afresh from the random source.
+     */
+    private void updateBlinding(BigInteger e, BigInteger m)
+    {
+        if (blindingFactor == null || --blindingUses <= 0)
+        {
+            BigInteger r = BigIntegers.createRandomInRange(ONE, m.subtract(ONE), random);
+
+            blindingFactor = r.modPow(e, m);
+            unblindingFactor = r.modInverse(m);
+            blindingUses = BLINDING_REFRESH;
+        }
+        else
+        {
+            blindingFactor = blindingFactor.multiply(blindingFactor).mod(m);
+            unblindingFactor = unblindingFactor.multiply(unblindingFactor).mod(m);
+        }
+    }
 }
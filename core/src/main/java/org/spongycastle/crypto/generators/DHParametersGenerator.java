@@ -4,6 +4,7 @@
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
 
 public class DHParametersGenerator
 {
@@ -11,8 +12,27 @@
     private int             certainty;
     private SecureRandom    random;
 
+    private final ExecutorService executor;
+
     private static final BigInteger TWO = BigInteger.valueOf(2);
 
+    public DHParametersGenerator()
+    {
+        this(null);
+    }
+
+    /**
+     * Create a generator that searches for the safe prime over the threads of the given executor.
+     * The parameters generated still depend only on the output of the SecureRandom passed to
+     * init, but are not the same as those of a generator without an executor.
+     *
+     * @param executor the executor to run the search on, or null to search in the calling thread.
+     */
+    public DHParametersGenerator(ExecutorService executor)
+    {
+        this.executor = executor;
+    }
+
     /**
      * Initialise the parameters generator.
      * 
@@ -41,7 +61,9 @@ public DHParameters generateParameters()
         //
         // find a safe prime p where p = 2*q + 1, where p and q are prime.
         //
-        BigInteger[] safePrimes = DHParametersHelper.generateSafePrimes(size, certainty, random);
+        BigInteger[] safePrimes = (executor == null)
+            ? DHParametersHelper.generateSafePrimes(size, certainty, random)
+            : DHParametersHelper.generateSafePrimes(size, certainty, random, executor);
 
         BigInteger p = safePrimes[0];
         BigInteger q = safePrimes[1];
@@ -2,6 +2,7 @@
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
 
 import org.spongycastle.util.BigIntegers;
 
@@ -36,6 +37,35 @@ static BigInteger[] generateSafePrimes(int size, int certainty, SecureRandom ran
         return new BigInteger[] { p, q };
     }
 
+    /*
+     * As generateSafePrimes(int, int, SecureRandom), but searching for q over the threads of
+     * executor, with q and 2q + 1 both sieved against small primes before the probable prime tests
+     */
+    static BigInteger[] generateSafePrimes(int size, int certainty, SecureRandom random, ExecutorService executor)
+    {
+        final int c = certainty;
+
+        ParallelPrimeSearch search = new ParallelPrimeSearch(executor)
+        {
+            protected boolean sieve(int prime, int residue)
+            {
+                // rejects q and 2q + 1 divisible by prime
+                return residue != 0 && residue != (prime >>> 1);
+            }
+
+            protected boolean isAcceptable(BigInteger q)
+            {
+                BigInteger p = q.shiftLeft(1).add(ONE);
+
+                return p.isProbablePrime(c) && q.isProbablePrime(c);
+            }
+        };
+
+        BigInteger q = search.search(size - 1, random);
+
+        return new BigInteger[] { q.shiftLeft(1).add(ONE), q };
+    }
+
     /*
      * Select a high order element of the multiplicative group Zp*
      * 
@@ -36,7 +36,7 @@ public AsymmetricCipherKeyPair generateKeyPair()
         DSAParameters dsaParams = param.getParameters();
 
         BigInteger x = generatePrivateKey(dsaParams.getQ(), param.getRandom());
-        BigInteger y = calculatePublicKey(dsaParams.getP(), dsaParams.getG(), x);
+        BigInteger y = calculatePublicKey(dsaParams, x);
 
         return new AsymmetricCipherKeyPair(
             new DSAPublicKeyParameters(y, dsaParams),
@@ -54,8 +54,8 @@ private static BigInteger generatePrivateKey(BigInteger q, SecureRandom random)
         return BigIntegers.createRandomInRange(ONE, q.subtract(ONE), random);
     }
 
-    private static BigInteger calculatePublicKey(BigInteger p, BigInteger g, BigInteger x)
+    private static BigInteger calculatePublicKey(DSAParameters dsaParams, BigInteger x)
     {
-        return g.modPow(x, p);
+        return dsaParams.modPowG(x);
     }
 }
@@ -11,7 +11,9 @@
 import org.spongycastle.crypto.params.ECPrivateKeyParameters;
 import org.spongycastle.crypto.params.ECPublicKeyParameters;
 import org.spongycastle.math.ec.ECConstants;
+import org.spongycastle.math.ec.ECMultiplier;
 import org.spongycastle.math.ec.ECPoint;
+import org.spongycastle.math.ec.FixedPointCombMultiplier;
 
 public class ECKeyPairGenerator
     implements AsymmetricCipherKeyPairGenerator, ECConstants
@@ -38,6 +40,52 @@ public void init(
      * pair in accordance with X9.62 section 5.2.1 pages 26, 27.
      */
     public AsymmetricCipherKeyPair generateKeyPair()
+    {
+        BigInteger d = generatePrivateValue();
+
+        ECPoint Q = createBasePointMultiplier().multiply(params.getG(), d);
+
+        return new AsymmetricCipherKeyPair(
+            new ECPublicKeyParameters(Q, params),
+            new ECPrivateKeyParameters(d, params));
+    }
+
+    /**
+     * Generate <code>count</code> key pairs, as for {@link #generateKeyPair()}. The public
+     * points are normalized together, sharing a single field inversion, which makes this
+     * noticeably cheaper than the same number of separate calls.
+     */
+    public AsymmetricCipherKeyPair[] generateKeyPairs(int count)
+    {
+        ECMultiplier basePointMultiplier = createBasePointMultiplier();
+        ECPoint G = params.getG();
+
+        BigInteger[] ds = new BigInteger[count];
+        ECPoint[] Qs = new ECPoint[count];
+        for (int i = 0; i < count; ++i)
+        {
+            ds[i] = generatePrivateValue();
+            Qs[i] = basePointMultiplier.multiply(G, ds[i]);
+        }
+
+        params.getCurve().normalizeAll(Qs);
+
+        AsymmetricCipherKeyPair[] pairs = new AsymmetricCipherKeyPair[count];
+        for (int i = 0; i < count; ++i)
+        {
+            pairs[i] = new AsymmetricCipherKeyPair(
+                new ECPublicKeyParameters(Qs[i], params),
+                new ECPrivateKeyParameters(ds[i], params));
+        }
+        return pairs;
+    }
+
+    protected ECMultiplier createBasePointMultiplier()
+    {
+        return new FixedPointCombMultiplier();
+    }
+
+    private BigInteger generatePrivateValue()
     {
         BigInteger n = params.getN();
         int        nBitLength = n.bitLength();
@@ -49,10 +97,6 @@ public AsymmetricCipherKeyPair generateKeyPair()
         }
         while (d.equals(ZERO)  || (d.compareTo(n) >= 0));
 
-        ECPoint Q = params.getG().multiply(d);
-
-        return new AsymmetricCipherKeyPair(
-            new ECPublicKeyParameters(Q, params),
-            new ECPrivateKeyParameters(d, params));
+        return d;
     }
 }
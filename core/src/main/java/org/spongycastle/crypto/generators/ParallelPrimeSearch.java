@@ -0,0 +1,194 @@
+package org.spongycastle.crypto.generators;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A search for primes of a given bit length that spreads the work over an {@link ExecutorService}.
+ * <p>
+ * Each round the calling thread draws WINDOWS_PER_ROUND random odd starting points from the
+ * SecureRandom, and each window of WINDOW_SIZE odd numbers from a starting point is searched by
+ * its own task: candidates are first sieved against the small primes, cheaply tracking the
+ * residues as the window is walked, and only the survivors go on to {@link #isAcceptable}. The
+ * result is the first acceptable number of the first window (in drawing order) to have one, so
+ * it depends only on the output of the SecureRandom, not on the number of threads or on how
+ * the tasks happen to be scheduled.
+ */
+abstract class ParallelPrimeSearch
+{
+    static final int WINDOWS_PER_ROUND = 16;
+    static final int WINDOW_SIZE = 1024;
+
+    private static final int[] SMALL_PRIMES = findSmallPrimes(2000);
+
+    private final ExecutorService executor;
+
+    ParallelPrimeSearch(ExecutorService executor)
+    {
+        this.executor = executor;
+    }
+
+    /**
+     * Sieve on the residue of a candidate x modulo one of the small (odd) primes.
+     *
+     * @return false if x should be rejected without further testing.
+     */
+    protected abstract boolean sieve(int prime, int residue);
+
+    /**
+     * The full test for a candidate that has passed the sieve, e.g. a probable prime test.
+     */
+    protected abstract boolean isAcceptable(BigInteger x);
+
+    BigInteger search(int bitLength, SecureRandom random)
+    {
+        List<Future<BigInteger>> windows = new ArrayList<Future<BigInteger>>(WINDOWS_PER_ROUND);
+
+        for (;;)
+        {
+            windows.clear();
+            for (int i = 0; i < WINDOWS_PER_ROUND; ++i)
+            {
+                BigInteger start = new BigInteger(bitLength, random).setBit(bitLength - 1).setBit(0);
+                windows.add(executor.submit(new WindowTask(start, bitLength)));
+            }
+
+            BigInteger result = null;
+            for (int i = 0; i < windows.size(); ++i)
+            {
+                Future<BigInteger> window = windows.get(i);
+                if (result == null)
+                {
+                    result = getResult(window);
+                }
+                else
+                {
+                    window.cancel(true);
+                }
+            }
+
+            if (result != null)
+            {
+                return result;
+            }
+        }
+    }
+
+    private static BigInteger getResult(Future<BigInteger> window)
+    {
+        try
+        {
+            return window.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("prime search interrupted");
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException)cause;
+            }
+            throw new IllegalStateException("prime search failed: " + cause);
+        }
+    }
+
+    private static int[] findSmallPrimes(int limit)
+    {
+        boolean[] composite = new boolean[limit];
+        int count = 0;
+        for (int i = 3; i < limit; i += 2)
+        {
+            if (!composite[i])
+            {
+                ++count;
+                for (int j = i * i; j < limit; j += 2 * i)
+                {
+                    composite[j] = true;
+                }
+            }
+        }
+
+        int[] result = new int[count];
+        for (int i = 3, pos = 0; i < limit; i += 2)
+        {
+            if (!composite[i])
+            {
+                result[pos++] = i;
+            }
+        }
+        return result;
+    }
+
+    private class WindowTask
+        implements Callable<BigInteger>
+    {
+        private final BigInteger start;
+        private final int bitLength;
+
+        WindowTask(BigInteger start, int bitLength)
+        {
+            this.start = start;
+            this.bitLength = bitLength;
+        }
+
+        public BigInteger call()
+        {
+            // Only sieve with primes below 2^(bitLength - 1), which are smaller than any candidate
+            int count = 0;
+            while (count < SMALL_PRIMES.length && 32 - Integer.numberOfLeadingZeros(SMALL_PRIMES[count]) < bitLength)
+            {
+                ++count;
+            }
+
+            int[] residues = new int[count];
+            for (int j = 0; j < count; ++j)
+            {
+                residues[j] = start.mod(BigInteger.valueOf(SMALL_PRIMES[j])).intValue();
+            }
+
+            for (int i = 0; i < WINDOW_SIZE; ++i)
+            {
+                if (Thread.currentThread().isInterrupted())
+                {
+                    return null;
+                }
+
+                // residues[] track start + 2.i
+                boolean passed = true;
+                for (int j = 0; j < count; ++j)
+                {
+                    int prime = SMALL_PRIMES[j], residue = residues[j];
+                    passed &= sieve(prime, residue);
+
+                    residue += 2;
+                    residues[j] = residue >= prime ? residue - prime : residue;
+                }
+
+                if (passed)
+                {
+                    BigInteger x = start.add(BigInteger.valueOf(2L * i));
+                    if (x.bitLength() != bitLength)
+                    {
+                        return null;
+                    }
+                    if (isAcceptable(x))
+                    {
+                        return x;
+                    }
+                }
+            }
+
+            return null;
+        }
+    }
+}
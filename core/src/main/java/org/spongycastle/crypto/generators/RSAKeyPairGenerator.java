@@ -8,6 +8,7 @@
 import org.spongycastle.crypto.params.RSAPrivateCrtKeyParameters;
 
 import java.math.BigInteger;
+import java.util.concurrent.ExecutorService;
 
 /**
  * an RSA key pair generator.
@@ -17,8 +18,28 @@
 {
     private static final BigInteger ONE = BigInteger.valueOf(1);
 
+    private final ExecutorService executor;
+
     private RSAKeyGenerationParameters param;
 
+    public RSAKeyPairGenerator()
+    {
+        this(null);
+    }
+
+    /**
+     * Create a generator that searches for the primes over the threads of the given executor,
+     * sieving candidates against small primes before the probable prime tests. The keys generated
+     * still depend only on the output of the SecureRandom in the generation parameters, but are
+     * not the same as those of a generator without an executor.
+     *
+     * @param executor the executor to run the search on, or null to search in the calling thread.
+     */
+    public RSAKeyPairGenerator(ExecutorService executor)
+    {
+        this.executor = executor;
+    }
+
     public void init(
         KeyGenerationParameters param)
     {
@@ -45,25 +66,7 @@ public AsymmetricCipherKeyPair generateKeyPair()
         //
         // generate p, prime and (p-1) relatively prime to e
         //
-        for (;;)
-        {
-            p = new BigInteger(pbitlength, 1, param.getRandom());
-            
-            if (p.mod(e).equals(ONE))
-            {
-                continue;
-            }
-            
-            if (!p.isProbablePrime(param.getCertainty()))
-            {
-                continue;
-            }
-            
-            if (e.gcd(p.subtract(ONE)).equals(ONE)) 
-            {
-                break;
-            }
-        }
+        p = chooseRandomPrime(pbitlength, e, null, 0);
 
         //
         // generate a modulus of the required length
@@ -73,30 +76,7 @@ public AsymmetricCipherKeyPair generateKeyPair()
             // generate q, prime and (q-1) relatively prime to e,
             // and not equal to p
             //
-            for (;;)
-            {
-                q = new BigInteger(qbitlength, 1, param.getRandom());
-
-                if (q.subtract(p).abs().bitLength() < mindiffbits)
-                {
-                    continue;
-                }
-                
-                if (q.mod(e).equals(ONE))
-                {
-                    continue;
-                }
-            
-                if (!q.isProbablePrime(param.getCertainty()))
-                {
-                    continue;
-                }
-            
-                if (e.gcd(q.subtract(ONE)).equals(ONE)) 
-                {
-                    break;
-                } 
-            }
+            q = chooseRandomPrime(qbitlength, e, p, mindiffbits);
 
             //
             // calculate the modulus
@@ -144,4 +124,66 @@ public AsymmetricCipherKeyPair generateKeyPair()
                 new RSAKeyParameters(false, n, e),
                 new RSAPrivateCrtKeyParameters(n, e, d, p, q, dP, dQ, qInv));
     }
+
+    /**
+     * Choose a random prime value for use with RSA
+     *
+     * @param bitlength the bit-length of the returned prime
+     * @param e the RSA public exponent
+     * @param p the prime already chosen, or null
+     * @param mindiffbits the minimum bit-length of the difference from p, if any
+     * @return a prime r, with (r-1) relatively prime to e
+     */
+    private BigInteger chooseRandomPrime(int bitlength, final BigInteger e, final BigInteger p, final int mindiffbits)
+    {
+        final int certainty = param.getCertainty();
+
+        if (executor != null)
+        {
+            ParallelPrimeSearch search = new ParallelPrimeSearch(executor)
+            {
+                protected boolean sieve(int prime, int residue)
+                {
+                    return residue != 0;
+                }
+
+                protected boolean isAcceptable(BigInteger x)
+                {
+                    return isSuitablePrime(x, e, p, mindiffbits, certainty);
+                }
+            };
+
+            return search.search(bitlength, param.getRandom());
+        }
+
+        for (;;)
+        {
+            BigInteger x = new BigInteger(bitlength, 1, param.getRandom());
+
+            if (isSuitablePrime(x, e, p, mindiffbits, certainty))
+            {
+                return x;
+            }
+        }
+    }
+
+    private static boolean isSuitablePrime(BigInteger x, BigInteger e, BigInteger p, int mindiffbits, int certainty)
+    {
+        if (p != null && x.subtract(p).abs().bitLength() < mindiffbits)
+        {
+            return false;
+        }
+
+        if (x.mod(e).equals(ONE))
+        {
+            return false;
+        }
+
+        if (!x.isProbablePrime(certainty))
+        {
+            return false;
+        }
+
+        return e.gcd(x.subtract(ONE)).equals(ONE);
+    }
 }
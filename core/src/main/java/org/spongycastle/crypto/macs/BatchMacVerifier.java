@@ -0,0 +1,123 @@
+package org.spongycastle.crypto.macs;
+
+import java.util.BitSet;
+
+import org.spongycastle.crypto.CipherParameters;
+import org.spongycastle.crypto.DataLengthException;
+import org.spongycastle.crypto.Mac;
+
+/**
+ * Verifies a batch of (message, tag) pairs under a single key.
+ * <p/>
+ * The MAC is initialised once, so any key processing the MAC does (the HMAC pad states, the CMAC
+ * subkeys, etc.) is shared across the whole batch and each message only costs the MAC calculation
+ * itself. Tags are compared in constant time, and a failing tag does not end the batch early.
+ * <p/>
+ * Note: one-time authenticators such as {@link Poly1305} must never be used to verify more than
+ * one message under the same key - for those the batch is only meaningful if every message was
+ * genuinely authenticated with the same key by the protocol in use.
+ */
+public class BatchMacVerifier
+{
+    private final Mac mac;
+    private final byte[] macBuf;
+
+    /**
+     * Base constructor.
+     *
+     * @param mac the MAC to verify tags with.
+     */
+    public BatchMacVerifier(
+        Mac mac)
+    {
+        this.mac = mac;
+        this.macBuf = new byte[mac.getMacSize()];
+    }
+
+    /**
+     * Initialise the verifier with the key the batch is to be verified under.
+     *
+     * @param params the key parameters for the underlying MAC.
+     */
+    public void init(
+        CipherParameters params)
+    {
+        mac.init(params);
+    }
+
+    public Mac getUnderlyingMac()
+    {
+        return mac;
+    }
+
+    /**
+     * Verify a single message, leaving the MAC ready for the next one.
+     *
+     * @param message the buffer containing the message.
+     * @param msgOff the offset of the message.
+     * @param msgLen the length of the message.
+     * @param tag the buffer containing the tag.
+     * @param tagOff the offset of the tag.
+     * @param tagLen the length of the tag - must match the MAC size.
+     * @return true if the tag is valid, false otherwise.
+     */
+    public boolean verify(
+        byte[] message,
+        int    msgOff,
+        int    msgLen,
+        byte[] tag,
+        int    tagOff,
+        int    tagLen)
+    {
+        if (tagOff + tagLen > tag.length)
+        {
+            throw new DataLengthException("tag buffer too short");
+        }
+
+        mac.update(message, msgOff, msgLen);
+        mac.doFinal(macBuf, 0);
+
+        if (tagLen != macBuf.length)
+        {
+            return false;
+        }
+
+        int nonEqual = 0;
+
+        for (int i = 0; i != macBuf.length; i++)
+        {
+            nonEqual |= (macBuf[i] ^ tag[tagOff + i]);
+        }
+
+        return nonEqual == 0;
+    }
+
+    /**
+     * Verify a batch of messages against their tags.
+     *
+     * @param messages the messages to verify.
+     * @param tags the tags, tags[i] being the tag for messages[i].
+     * @return a BitSet with bit i set if, and only if, tags[i] is valid for messages[i].
+     */
+    public BitSet verify(
+        byte[][] messages,
+        byte[][] tags)
+    {
+        if (messages.length != tags.length)
+        {
+            throw new IllegalArgumentException("number of messages and tags must be the same");
+        }
+
+        BitSet results = new BitSet(messages.length);
+
+        for (int i = 0; i != messages.length; i++)
+        {
+            if (verify(messages[i], 0, messages[i].length, tags[i], 0, tags[i].length))
+            {
+                results.set(i);
+            }
+        }
+
+        return results;
+    }
+}
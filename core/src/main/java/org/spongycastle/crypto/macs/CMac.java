@@ -3,9 +3,9 @@
 import org.spongycastle.crypto.BlockCipher;
 import org.spongycastle.crypto.CipherParameters;
 import org.spongycastle.crypto.Mac;
-import org.spongycastle.crypto.modes.CBCBlockCipher;
 import org.spongycastle.crypto.paddings.ISO7816d4Padding;
 import org.spongycastle.crypto.params.KeyParameter;
+import org.spongycastle.crypto.util.Pack;
 
 /**
  * CMAC - as specified at www.nuee.nagoya-u.ac.jp/labs/tiwata/omac/omac.html
@@ -24,16 +24,21 @@
  * It supports 128- or 64-bits block ciphers, with any key size, and returns
  * a MAC with dimension less or equal to the block size of the underlying 
  * cipher.
+ * </p><p>
+ * The CBC chaining is done directly on the underlying cipher, complete blocks are
+ * processed straight from the input, and the subkeys are only derived again when
+ * init is given a different KeyParameter (no copy of the key itself is kept).
  * </p>
  */
 public class CMac implements Mac
 {
-    private static final byte CONSTANT_128 = (byte)0x87;
-    private static final byte CONSTANT_64 = (byte)0x1b;
+    private static final int CONSTANT_128 = 0x87;
+    private static final int CONSTANT_64 = 0x1b;
 
     private byte[] ZEROES;
 
     private byte[] mac;
+    private byte[] cbcOut;
 
     private byte[] buf;
     private int bufOff;
@@ -41,7 +46,8 @@ public class CMac implements Mac
 
     private int macSize;
 
-    private byte[] L, Lu, Lu2;
+    private KeyParameter keyParameter;
+    private byte[] Lu, Lu2;
 
     /**
      * create a standard MAC based on a CBC block cipher (64 or 128 bit block).
@@ -87,10 +93,11 @@ public CMac(BlockCipher cipher, int macSizeInBits)
                 "Block size must be either 64 or 128 bits");
         }
 
-        this.cipher = new CBCBlockCipher(cipher);
+        this.cipher = cipher;
         this.macSize = macSizeInBits / 8;
 
         mac = new byte[cipher.getBlockSize()];
+        cbcOut = new byte[cipher.getBlockSize()];
 
         buf = new byte[cipher.getBlockSize()];
 
@@ -101,34 +108,27 @@ public CMac(BlockCipher cipher, int macSizeInBits)
 
     public String getAlgorithmName()
     {
-        return cipher.getAlgorithmName();
+        return cipher.getAlgorithmName() + "/CBC";
     }
 
-    private static int shiftLeft(byte[] block, byte[] output)
+    private static byte[] doubleLu(byte[] in)
     {
-        int i = block.length;
-        int bit = 0;
-        while (--i >= 0)
+        int[] words = new int[in.length / 4];
+        Pack.bigEndianToInt(in, 0, words);
+
+        int carry = words[0] >>> 31;
+        for (int i = 0; i < words.length - 1; i++)
         {
-            int b = block[i] & 0xff;
-            output[i] = (byte)((b << 1) | bit);
-            bit = (b >>> 7) & 1;
+            words[i] = (words[i] << 1) | (words[i + 1] >>> 31);
         }
-        return bit;
-    }
-
-    private static byte[] doubleLu(byte[] in)
-    {
-        byte[] ret = new byte[in.length];
-        int carry = shiftLeft(in, ret);
-        int xor = 0xff & (in.length == 16 ? CONSTANT_128 : CONSTANT_64);
 
         /*
          * NOTE: This construction is an attempt at a constant-time implementation.
          */
-        ret[in.length - 1] ^= (xor >>> ((1 - carry) << 3));
+        words[words.length - 1] = (words[words.length - 1] << 1)
+            ^ ((in.length == 16 ? CONSTANT_128 : CONSTANT_64) & -carry);
 
-        return ret;
+        return Pack.intToBigEndian(words);
     }
 
     public void init(CipherParameters params)
@@ -136,12 +136,17 @@ public void init(CipherParameters params)
         if (params instanceof KeyParameter)
         {
             cipher.init(true, params);
-    
-            //initializes the L, Lu, Lu2 numbers
-            L = new byte[ZEROES.length];
-            cipher.processBlock(ZEROES, 0, L, 0);
-            Lu = doubleLu(L);
-            Lu2 = doubleLu(Lu);
+
+            // the subkeys are kept while the same KeyParameter is passed in again
+            if (params != keyParameter)
+            {
+                //initializes the L, Lu, Lu2 numbers
+                byte[] L = new byte[ZEROES.length];
+                cipher.processBlock(ZEROES, 0, L, 0);
+                Lu = doubleLu(L);
+                Lu2 = doubleLu(Lu);
+                keyParameter = (KeyParameter)params;
+            }
         } else if (params != null)
         {
             // CMAC mode does not permit IV to underlying CBC mode
@@ -160,7 +165,7 @@ public void update(byte in)
     {
         if (bufOff == buf.length)
         {
-            cipher.processBlock(buf, 0, mac, 0);
+            processBlock(buf, 0);
             bufOff = 0;
         }
 
@@ -175,22 +180,23 @@ public void update(byte[] in, int inOff, int len)
                 "Can't have a negative input length!");
         }
 
-        int blockSize = cipher.getBlockSize();
+        int blockSize = buf.length;
         int gapLen = blockSize - bufOff;
 
         if (len > gapLen)
         {
             System.arraycopy(in, inOff, buf, bufOff, gapLen);
 
-            cipher.processBlock(buf, 0, mac, 0);
+            processBlock(buf, 0);
 
             bufOff = 0;
             len -= gapLen;
             inOff += gapLen;
 
+            // the last block is always held back for doFinal()
             while (len > blockSize)
             {
-                cipher.processBlock(in, inOff, mac, 0);
+                processBlock(in, inOff);
 
                 len -= blockSize;
                 inOff += blockSize;
@@ -202,9 +208,26 @@ public void update(byte[] in, int inOff, int len)
         bufOff += len;
     }
 
+    /**
+     * CBC encrypt a block of input into the chaining value.
+     */
+    private void processBlock(byte[] in, int inOff)
+    {
+        for (int i = 0; i < mac.length; i++)
+        {
+            mac[i] ^= in[inOff + i];
+        }
+
+        cipher.processBlock(mac, 0, cbcOut, 0);
+
+        byte[] tmp = mac;
+        mac = cbcOut;
+        cbcOut = tmp;
+    }
+
     public int doFinal(byte[] out, int outOff)
     {
-        int blockSize = cipher.getBlockSize();
+        int blockSize = buf.length;
 
         byte[] lu;
         if (bufOff == blockSize)
@@ -222,7 +245,7 @@ public int doFinal(byte[] out, int outOff)
             buf[i] ^= lu[i];
         }
 
-        cipher.processBlock(buf, 0, mac, 0);
+        processBlock(buf, 0);
 
         System.arraycopy(mac, 0, out, outOff, macSize);
 
@@ -247,8 +270,13 @@ public void reset()
         bufOff = 0;
 
         /*
-         * reset the underlying cipher.
+         * reset the chaining value and the underlying cipher.
          */
+        for (int i = 0; i < mac.length; i++)
+        {
+            mac[i] = 0;
+        }
+
         cipher.reset();
     }
 }
@@ -24,8 +24,9 @@
     private Digest digest;
     private int digestSize;
     private int blockLength;
-    private Memoable ipadState;
-    private Memoable opadState;
+    Memoable ipadState;
+    Memoable opadState;
+    private boolean statesShared;
 
     private byte[] inputPad;
     private byte[] outputBuf;
@@ -106,9 +107,21 @@ public Digest getUnderlyingDigest()
         return digest;
     }
 
+    /**
+     * Initialise the mac with either a {@link KeyParameter}, or a pre-processed {@link HMacKey}
+     * prepared with the same kind of digest.
+     *
+     * @param params the key to use.
+     */
     public void init(
         CipherParameters params)
     {
+        if (params instanceof HMacKey)
+        {
+            init((HMacKey)params);
+            return;
+        }
+
         digest.reset();
 
         byte[] key = ((KeyParameter)params).getKey();
@@ -138,7 +151,7 @@ public void init(
 
         if (digest instanceof Memoable)
         {
-            opadState = ((Memoable)digest).copy();
+            opadState = saveState(opadState);
 
             ((Digest)opadState).update(outputBuf, 0, blockLength);
         }
@@ -147,8 +160,31 @@ public void init(
 
         if (digest instanceof Memoable)
         {
-            ipadState = ((Memoable)digest).copy();
+            ipadState = saveState(ipadState);
+        }
+
+        statesShared = false;
+    }
+
+    private void init(
+        HMacKey key)
+    {
+        if (!digest.getAlgorithmName().equals(key.getAlgorithmName()))
+        {
+            throw new IllegalArgumentException("HMacKey prepared for " + key.getAlgorithmName() + " cannot be used with " + digest.getAlgorithmName());
+        }
+
+        // the key states are never modified here, only copied from, so they can be shared
+        ipadState = key.ipadState;
+        opadState = key.opadState;
+        statesShared = true;
+
+        for (int i = 0; i < inputPad.length; i++)
+        {
+            inputPad[i] = 0;
         }
+
+        ((Memoable)digest).reset(ipadState);
     }
 
     public int getMacSize()
@@ -210,6 +246,12 @@ public int doFinal(
      */
     public void reset()
     {
+        if (ipadState != null)
+        {
+            ((Memoable)digest).reset(ipadState);
+            return;
+        }
+
         /*
          * reset the underlying digest.
          */
@@ -221,6 +263,22 @@ public void reset()
         digest.update(inputPad, 0, inputPad.length);
     }
 
+    /*
+     * Return a copy of the digest's current state, written into the old state object when that
+     * belongs to this HMac, so that re-keying does not allocate.
+     */
+    private Memoable saveState(Memoable state)
+    {
+        if (state == null || statesShared)
+        {
+            return ((Memoable)digest).copy();
+        }
+
+        state.reset((Memoable)digest);
+
+        return state;
+    }
+
     private static void xorPad(byte[] pad, int len, byte n)
     {
         for (int i = 0; i < len; ++i)
@@ -0,0 +1,87 @@
+package org.spongycastle.crypto.macs;
+
+import org.spongycastle.crypto.CipherParameters;
+import org.spongycastle.crypto.Digest;
+import org.spongycastle.crypto.params.KeyParameter;
+import org.spongycastle.util.Memoable;
+
+/**
+ * A pre-processed HMAC key, holding the digest states reached after absorbing the inner and outer
+ * key pads.
+ * <p/>
+ * Once constructed a HMacKey is never modified, so a single instance can be shared between
+ * threads and used to {@link #createMac() create}, or {@link HMac#init(CipherParameters)
+ * initialise}, any number of independent {@link HMac} instances without repeating the key
+ * processing.
+ * <p/>
+ * The underlying digest must implement {@link Memoable}.
+ */
+public class HMacKey
+    implements CipherParameters
+{
+    private final String algorithmName;
+    private final int macSize;
+    final Memoable ipadState;
+    final Memoable opadState;
+
+    /**
+     * Base constructor.
+     *
+     * @param digest the digest to use, which is reset as a side effect of key processing.
+     * @param key the HMAC key.
+     */
+    public HMacKey(
+        Digest digest,
+        byte[] key)
+    {
+        if (!(digest instanceof Memoable))
+        {
+            throw new IllegalArgumentException("digest must implement Memoable: " + digest.getAlgorithmName());
+        }
+
+        HMac hmac = new HMac(digest);
+
+        hmac.init(new KeyParameter(key));
+
+        this.algorithmName = digest.getAlgorithmName();
+        this.macSize = hmac.getMacSize();
+        this.ipadState = hmac.ipadState;
+        this.opadState = hmac.opadState;
+
+        digest.reset();
+    }
+
+    /**
+     * Return the name of the digest this key was prepared with.
+     *
+     * @return the digest algorithm name.
+     */
+    public String getAlgorithmName()
+    {
+        return algorithmName;
+    }
+
+    /**
+     * Return the size of the MACs produced under this key.
+     *
+     * @return the MAC size in bytes.
+     */
+    public int getMacSize()
+    {
+        return macSize;
+    }
+
+    /**
+     * Create a new HMac, initialised with this key, that is independent of any other created.
+     *
+     * @return a new keyed HMac.
+     */
+    public HMac createMac()
+    {
+        HMac hmac = new HMac((Digest)ipadState.copy());
+
+        hmac.init(this);
+
+        return hmac;
+    }
+}
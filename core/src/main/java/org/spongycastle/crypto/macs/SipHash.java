@@ -15,6 +15,9 @@
  * compression rounds and the number of finalization rounds. A compression round is identical to a
  * finalization round and this round function is called SipRound. Given a 128-bit key k and a
  * (possibly empty) byte string m, SipHash-c-d returns a 64-bit value..."
+ * <p/>
+ * Besides the {@link Mac} interface, static methods are provided to calculate SipHash-2-4 directly
+ * from a key given as two longs, for use as a keyed hash function in hash tables.
  */
 public class SipHash
     implements Mac
@@ -97,8 +100,27 @@ public void update(byte[] input, int offset, int length)
         throws DataLengthException,
         IllegalStateException
     {
+        int i = 0;
+
+        // fill any partial word first
+        while (bufPos != 0 && i < length)
+        {
+            update(input[offset + i++]);
+        }
+
+        // then process whole words straight from the input
+        int fullWords = (length - i) & ~7;
+        if (fullWords > 0)
+        {
+            int end = offset + i + fullWords;
+            for (int pos = offset + i; pos < end; pos += 8)
+            {
+                processMessageWord(Pack.littleEndianToLong(input, pos));
+            }
+            i += fullWords;
+        }
 
-        for (int i = 0; i < length; ++i)
+        for (; i < length; ++i)
         {
             buf[bufPos] = input[offset + i];
             if (++bufPos == buf.length)
@@ -156,9 +178,12 @@ public void reset()
 
     protected void processMessageWord()
     {
+        processMessageWord(Pack.littleEndianToLong(buf, 0));
+    }
 
+    protected void processMessageWord(long m)
+    {
         ++wordCount;
-        long m = Pack.littleEndianToLong(buf, 0);
         v3 ^= m;
         applySipRounds(c);
         v0 ^= m;
@@ -185,6 +210,120 @@ protected void applySipRounds(int n)
         }
     }
 
+    /**
+     * Calculate SipHash-2-4 of a byte string.
+     *
+     * @param k0 the first (little-endian) half of the key.
+     * @param k1 the second (little-endian) half of the key.
+     * @param data the buffer holding the data to hash.
+     * @param off the offset of the data.
+     * @param len the length of the data.
+     * @return the 64-bit hash value.
+     */
+    public static long hash(long k0, long k1, byte[] data, int off, int len)
+    {
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+
+        int end = off + (len & ~7);
+        for (int pos = off; pos < end; pos += 8)
+        {
+            long m = Pack.littleEndianToLong(data, pos);
+            v3 ^= m;
+            for (int r = 0; r < 2; ++r)
+            {
+                v0 += v1; v2 += v3; v1 = rotateLeft(v1, 13); v3 = rotateLeft(v3, 16);
+                v1 ^= v0; v3 ^= v2; v0 = rotateLeft(v0, 32);
+                v2 += v1; v0 += v3; v1 = rotateLeft(v1, 17); v3 = rotateLeft(v3, 21);
+                v1 ^= v2; v3 ^= v0; v2 = rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+
+        long last = ((long)len & 0xffL) << 56;
+        for (int i = 0; i < (len & 7); ++i)
+        {
+            last |= ((long)data[end + i] & 0xffL) << (i << 3);
+        }
+
+        return finish(v0, v1, v2, v3, last);
+    }
+
+    /**
+     * Calculate SipHash-2-4 of a long, taken as its 8 byte little-endian encoding.
+     *
+     * @param k0 the first (little-endian) half of the key.
+     * @param k1 the second (little-endian) half of the key.
+     * @param value the value to hash.
+     * @return the 64-bit hash value.
+     */
+    public static long hash(long k0, long k1, long value)
+    {
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+
+        v3 ^= value;
+        for (int r = 0; r < 2; ++r)
+        {
+            v0 += v1; v2 += v3; v1 = rotateLeft(v1, 13); v3 = rotateLeft(v3, 16);
+            v1 ^= v0; v3 ^= v2; v0 = rotateLeft(v0, 32);
+            v2 += v1; v0 += v3; v1 = rotateLeft(v1, 17); v3 = rotateLeft(v3, 21);
+            v1 ^= v2; v3 ^= v0; v2 = rotateLeft(v2, 32);
+        }
+        v0 ^= value;
+
+        return finish(v0, v1, v2, v3, 8L << 56);
+    }
+
+    /**
+     * Calculate SipHash-2-4 of an int, taken as its 4 byte little-endian encoding.
+     *
+     * @param k0 the first (little-endian) half of the key.
+     * @param k1 the second (little-endian) half of the key.
+     * @param value the value to hash.
+     * @return the 64-bit hash value.
+     */
+    public static long hash(long k0, long k1, int value)
+    {
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+
+        return finish(v0, v1, v2, v3, (4L << 56) | (value & 0xffffffffL));
+    }
+
+    /**
+     * Process the final (length carrying) message word and apply the SipHash-2-4 finalization.
+     */
+    private static long finish(long v0, long v1, long v2, long v3, long last)
+    {
+        v3 ^= last;
+        for (int r = 0; r < 2; ++r)
+        {
+            v0 += v1; v2 += v3; v1 = rotateLeft(v1, 13); v3 = rotateLeft(v3, 16);
+            v1 ^= v0; v3 ^= v2; v0 = rotateLeft(v0, 32);
+            v2 += v1; v0 += v3; v1 = rotateLeft(v1, 17); v3 = rotateLeft(v3, 21);
+            v1 ^= v2; v3 ^= v0; v2 = rotateLeft(v2, 32);
+        }
+        v0 ^= last;
+
+        v2 ^= 0xffL;
+        for (int r = 0; r < 4; ++r)
+        {
+            v0 += v1; v2 += v3; v1 = rotateLeft(v1, 13); v3 = rotateLeft(v3, 16);
+            v1 ^= v0; v3 ^= v2; v0 = rotateLeft(v0, 32);
+            v2 += v1; v0 += v3; v1 = rotateLeft(v1, 17); v3 = rotateLeft(v3, 21);
+            v1 ^= v2; v3 ^= v0; v2 = rotateLeft(v2, 32);
+        }
+
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
     protected static long rotateLeft(long x, int n)
     {
         return (x << n) | (x >>> (64 - n));
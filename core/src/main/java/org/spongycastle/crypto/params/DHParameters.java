@@ -3,12 +3,16 @@
 import java.math.BigInteger;
 
 import org.spongycastle.crypto.CipherParameters;
+import org.spongycastle.math.FixedBaseModPow;
 
 public class DHParameters
     implements CipherParameters
 {
     private static final int DEFAULT_MINIMUM_LENGTH = 160;
 
+    // Calls to modPowG before the fixed-base table is built, so one-off parameters don't pay for it
+    private static final int G_TABLE_THRESHOLD = 8;
+
     // not final due to compiler bug in "simpler" JDKs
     private BigInteger              g;
     private BigInteger              p;
@@ -18,6 +22,9 @@
     private int                     l;
     private DHValidationParameters  validation;
 
+    private volatile FixedBaseModPow gTable;
+    private int                     gTableCountdown = G_TABLE_THRESHOLD;
+
     private static int getDefaultMParam(
         int lParam)
     {
@@ -154,6 +161,28 @@ public DHValidationParameters getValidationParameters()
         return validation;
     }
 
+    /**
+     * Return g^x mod p. After the first few calls a fixed-base table for g is built and kept with
+     * these parameters, and used for exponents no longer than {@link #getQ() q} (or the private
+     * value length, if there is no q), at about twice the speed of {@link BigInteger#modPow}.
+     */
+    public BigInteger modPowG(BigInteger x)
+    {
+        FixedBaseModPow table = gTable;
+        if (table == null)
+        {
+            int maxBits = (q != null) ? q.bitLength() : l;
+            if (maxBits == 0 || --gTableCountdown >= 0)
+            {
+                return g.modPow(x, p);
+            }
+
+            // a race may build the table more than once, but the instances are equivalent
+            gTable = table = new FixedBaseModPow(g, p, maxBits);
+        }
+        return table.modPow(x);
+    }
+
     public boolean equals(
         Object  obj)
     {
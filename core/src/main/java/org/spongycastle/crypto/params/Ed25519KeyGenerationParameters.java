@@ -0,0 +1,14 @@
+package org.spongycastle.crypto.params;
+
+import java.security.SecureRandom;
+
+import org.spongycastle.crypto.KeyGenerationParameters;
+
+public class Ed25519KeyGenerationParameters
+    extends KeyGenerationParameters
+{
+    public Ed25519KeyGenerationParameters(SecureRandom random)
+    {
+        super(random, 255);
+    }
+}
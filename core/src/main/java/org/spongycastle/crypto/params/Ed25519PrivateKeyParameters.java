@@ -0,0 +1,68 @@
+package org.spongycastle.crypto.params;
+
+import java.security.SecureRandom;
+
+import org.spongycastle.math.ec.rfc8032.Ed25519;
+import org.spongycastle.util.Arrays;
+
+/**
+ * An Ed25519 private key: the 32 byte seed of RFC 8032, from which the signing scalar and the
+ * nonce prefix are derived.
+ */
+public class Ed25519PrivateKeyParameters
+    extends AsymmetricKeyParameter
+{
+    public static final int KEY_SIZE = Ed25519.SECRET_KEY_SIZE;
+    public static final int SIGNATURE_SIZE = Ed25519.SIGNATURE_SIZE;
+
+    private final byte[] data = new byte[KEY_SIZE];
+
+    private Ed25519PublicKeyParameters cachedPublicKey;
+
+    public Ed25519PrivateKeyParameters(SecureRandom random)
+    {
+        super(true);
+
+        Ed25519.generatePrivateKey(random, data);
+    }
+
+    public Ed25519PrivateKeyParameters(byte[] buf, int off)
+    {
+        super(true);
+
+        System.arraycopy(buf, off, data, 0, KEY_SIZE);
+    }
+
+    public void encode(byte[] buf, int off)
+    {
+        System.arraycopy(data, 0, buf, off, KEY_SIZE);
+    }
+
+    public byte[] getEncoded()
+    {
+        return Arrays.clone(data);
+    }
+
+    public synchronized Ed25519PublicKeyParameters generatePublicKey()
+    {
+        if (null == cachedPublicKey)
+        {
+            byte[] publicKey = new byte[Ed25519.PUBLIC_KEY_SIZE];
+            Ed25519.generatePublicKey(data, 0, publicKey, 0);
+            cachedPublicKey = new Ed25519PublicKeyParameters(publicKey, 0);
+        }
+
+        return cachedPublicKey;
+    }
+
+    /**
+     * Sign a message, writing {@link #SIGNATURE_SIZE} bytes into <code>sig</code>.
+     */
+    public void sign(byte[] msg, int msgOff, int msgLen, byte[] sig, int sigOff)
+    {
+        byte[] pk = new byte[Ed25519.PUBLIC_KEY_SIZE];
+        generatePublicKey().encode(pk, 0);
+
+        Ed25519.sign(data, 0, pk, 0, msg, msgOff, msgLen, sig, sigOff);
+    }
+}
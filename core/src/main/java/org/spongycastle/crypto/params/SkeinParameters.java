@@ -30,6 +30,9 @@
  * {@link SkeinParameters.Builder#setPersonalisation(Date, String, String) recommended format} or
  * {@link SkeinParameters.Builder#setPersonalisation(byte[]) arbitrary} personalisation string.</li>
  * </ul>
+ * <p/>
+ * The {@link SkeinParameters.Builder#setTreeParameters(int, int, int) tree parameters} can also be
+ * set to switch the hash function from sequential processing to the tree hashing mode.
  *
  * @see SkeinEngine
  * @see SkeinDigest
@@ -79,16 +82,28 @@
      */
     public static final int PARAM_TYPE_OUTPUT = 63;
 
+    /**
+     * The maximum value of the tree leaf size and fan out encodings: {@value #MAX_TREE_SIZE}.
+     */
+    public static final int MAX_TREE_SIZE = 255;
+
     private Hashtable parameters;
 
+    private int treeLeafSize;
+    private int treeFanOut;
+    private int treeMaxHeight;
+
     public SkeinParameters()
     {
-        this(new Hashtable());
+        this(new Hashtable(), 0, 0, 0);
     }
 
-    private SkeinParameters(final Hashtable parameters)
+    private SkeinParameters(final Hashtable parameters, int treeLeafSize, int treeFanOut, int treeMaxHeight)
     {
         this.parameters = parameters;
+        this.treeLeafSize = treeLeafSize;
+        this.treeFanOut = treeFanOut;
+        this.treeMaxHeight = treeMaxHeight;
     }
 
     /**
@@ -144,12 +159,50 @@ public byte[] getNonce()
         return (byte[])parameters.get(Integers.valueOf(PARAM_TYPE_NONCE));
     }
 
+    /**
+     * Obtains the encoded tree leaf size (Y<sub>l</sub>), or <code>0</code> if tree hashing is not
+     * used.
+     */
+    public int getTreeLeafSize()
+    {
+        return treeLeafSize;
+    }
+
+    /**
+     * Obtains the encoded tree fan out (Y<sub>f</sub>), or <code>0</code> if tree hashing is not
+     * used.
+     */
+    public int getTreeFanOut()
+    {
+        return treeFanOut;
+    }
+
+    /**
+     * Obtains the maximum tree height (Y<sub>m</sub>), or <code>0</code> if tree hashing is not
+     * used.
+     */
+    public int getTreeMaxHeight()
+    {
+        return treeMaxHeight;
+    }
+
+    /**
+     * Determines whether these parameters select the tree hashing mode.
+     */
+    public boolean isTreeHashing()
+    {
+        return treeMaxHeight != 0;
+    }
+
     /**
      * A builder for {@link SkeinParameters}.
      */
     public static class Builder
     {
         private Hashtable parameters = new Hashtable();
+        private int treeLeafSize;
+        private int treeFanOut;
+        private int treeMaxHeight;
 
         public Builder()
         {
@@ -173,6 +226,9 @@ public Builder(SkeinParameters params)
                 Integer key = (Integer)keys.nextElement();
                 parameters.put(key, params.parameters.get(key));
             }
+            this.treeLeafSize = params.treeLeafSize;
+            this.treeFanOut = params.treeFanOut;
+            this.treeMaxHeight = params.treeMaxHeight;
         }
 
         /**
@@ -281,13 +337,48 @@ public Builder setNonce(byte[] nonce)
             return set(PARAM_TYPE_NONCE, nonce);
         }
 
+        /**
+         * Sets the tree hashing parameters defined in Section 3.5.6 of the Skein 1.3 specification.
+         * <p/>
+         * Message data is split into leaves of <code>blockSize * 2^leafSize</code> bytes, each
+         * leaf is hashed independently, and the leaf outputs are then combined by nodes of
+         * <code>2^fanOut</code> children until a single output remains, or the maximum tree height
+         * is reached.
+         * <p/>
+         * Setting all parameters to <code>0</code> selects the default sequential mode.
+         *
+         * @param leafSize  the encoded leaf size Y<sub>l</sub>, in the range 1..{@value SkeinParameters#MAX_TREE_SIZE}.
+         * @param fanOut    the encoded fan out Y<sub>f</sub>, in the range 1..{@value SkeinParameters#MAX_TREE_SIZE}.
+         * @param maxHeight the maximum tree height Y<sub>m</sub>, in the range 2..255.
+         * @return
+         */
+        public Builder setTreeParameters(int leafSize, int fanOut, int maxHeight)
+        {
+            if ((leafSize == 0) && (fanOut == 0) && (maxHeight == 0))
+            {
+                // Sequential processing
+            }
+            else if ((leafSize < 1) || (leafSize > MAX_TREE_SIZE) || (fanOut < 1) || (fanOut > MAX_TREE_SIZE))
+            {
+                throw new IllegalArgumentException("Tree leaf size and fan out must be in the range 1.." + MAX_TREE_SIZE + ".");
+            }
+            else if ((maxHeight < 2) || (maxHeight > 255))
+            {
+                throw new IllegalArgumentException("Tree maximum height must be in the range 2..255.");
+            }
+            this.treeLeafSize = leafSize;
+            this.treeFanOut = fanOut;
+            this.treeMaxHeight = maxHeight;
+            return this;
+        }
+
         /**
          * Constructs a new {@link SkeinParameters} instance with the parameters provided to this
          * builder.
          */
         public SkeinParameters build()
         {
-            return new SkeinParameters(parameters);
+            return new SkeinParameters(parameters, treeLeafSize, treeFanOut, treeMaxHeight);
         }
     }
 }
@@ -0,0 +1,14 @@
+package org.spongycastle.crypto.params;
+
+import java.security.SecureRandom;
+
+import org.spongycastle.crypto.KeyGenerationParameters;
+
+public class X25519KeyGenerationParameters
+    extends KeyGenerationParameters
+{
+    public X25519KeyGenerationParameters(SecureRandom random)
+    {
+        super(random, 255);
+    }
+}
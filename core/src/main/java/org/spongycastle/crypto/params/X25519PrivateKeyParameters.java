@@ -0,0 +1,65 @@
+package org.spongycastle.crypto.params;
+
+import java.security.SecureRandom;
+
+import org.spongycastle.math.ec.rfc7748.X25519;
+import org.spongycastle.util.Arrays;
+
+/**
+ * An X25519 private key: a 32 byte scalar, clamped as RFC 7748 specifies whenever it is used.
+ */
+public class X25519PrivateKeyParameters
+    extends AsymmetricKeyParameter
+{
+    public static final int KEY_SIZE = X25519.SCALAR_SIZE;
+    public static final int SECRET_SIZE = X25519.POINT_SIZE;
+
+    private final byte[] data = new byte[KEY_SIZE];
+
+    public X25519PrivateKeyParameters(SecureRandom random)
+    {
+        super(true);
+
+        random.nextBytes(data);
+    }
+
+    public X25519PrivateKeyParameters(byte[] buf, int off)
+    {
+        super(true);
+
+        System.arraycopy(buf, off, data, 0, KEY_SIZE);
+    }
+
+    public void encode(byte[] buf, int off)
+    {
+        System.arraycopy(data, 0, buf, off, KEY_SIZE);
+    }
+
+    public byte[] getEncoded()
+    {
+        return Arrays.clone(data);
+    }
+
+    public X25519PublicKeyParameters generatePublicKey()
+    {
+        byte[] publicKey = new byte[X25519.POINT_SIZE];
+        X25519.scalarMultBase(data, 0, publicKey, 0);
+        return new X25519PublicKeyParameters(publicKey, 0);
+    }
+
+    /**
+     * Calculate the shared secret with the holder of <code>publicKey</code>, writing
+     * {@link #SECRET_SIZE} bytes into <code>buf</code>.
+     *
+     * @throws IllegalStateException if the public key is a point of small order.
+     */
+    public void generateSecret(X25519PublicKeyParameters publicKey, byte[] buf, int off)
+    {
+        byte[] encoded = new byte[X25519.POINT_SIZE];
+        publicKey.encode(encoded, 0);
+        if (!X25519.calculateAgreement(data, 0, encoded, 0, buf, off))
+        {
+            throw new IllegalStateException("X25519 agreement failed");
+        }
+    }
+}
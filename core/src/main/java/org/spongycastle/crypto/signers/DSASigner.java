@@ -90,7 +90,7 @@ public BigInteger[] generateSignature(
 
         BigInteger  k = kCalculator.nextK();
 
-        BigInteger  r = params.getG().modPow(k, params.getP()).mod(params.getQ());
+        BigInteger  r = params.modPowG(k).mod(params.getQ());
 
         k = k.modInverse(params.getQ()).multiply(
                     m.add(((DSAPrivateKeyParameters)key).getX().multiply(r)));
@@ -134,7 +134,7 @@ public boolean verifySignature(
         BigInteger  u1 = m.multiply(w).mod(params.getQ());
         BigInteger  u2 = r.multiply(w).mod(params.getQ());
 
-        u1 = params.getG().modPow(u1, params.getP());
+        u1 = params.modPowG(u1);
         u2 = ((DSAPublicKeyParameters)key).getY().modPow(u2, params.getP());
 
         BigInteger  v = u1.multiply(u2).mod(params.getP()).mod(params.getQ());
@@ -0,0 +1,224 @@
+package org.spongycastle.crypto.signers;
+
+import java.math.BigInteger;
+import java.util.Hashtable;
+import java.util.Vector;
+
+import org.spongycastle.crypto.params.ECDomainParameters;
+import org.spongycastle.crypto.params.ECPublicKeyParameters;
+import org.spongycastle.math.ec.ECAlgorithms;
+import org.spongycastle.math.ec.ECConstants;
+import org.spongycastle.math.ec.ECCurve;
+import org.spongycastle.math.ec.ECPoint;
+
+/**
+ * Verifies many EC-DSA signatures (X9.62) over the same domain parameters, giving a result for
+ * each one.
+ * <p>
+ * This produces the same results as calling {@link ECDSASigner#verifySignature} for each
+ * signature in turn, but is cheaper:
+ * <ul>
+ * <li>the inverses of all the s values are found with a single modular inversion;</li>
+ * <li>public keys that occur more than once in a batch share one point instance, so the
+ * precomputation for the key is done once rather than for every signature;</li>
+ * <li>the candidate points are normalized together, with a single field inversion.</li>
+ * </ul>
+ * The public keys (and their precomputation) are only held until the batch they were queued in
+ * is verified or reset, so a long-lived verifier does not accumulate the keys of every signer
+ * it has seen. Instances are not thread-safe.
+ */
+public class ECDSABatchVerifier
+    implements ECConstants
+{
+    private final ECDomainParameters params;
+
+    private final Vector queue = new Vector();
+    private final Hashtable keys = new Hashtable();
+
+    public ECDSABatchVerifier(ECDomainParameters params)
+    {
+        this.params = params;
+    }
+
+    /**
+     * Queue a signature for verification.
+     *
+     * @param key the public key the signature should verify against.
+     * @param message the message (normally a hash) the signature is over.
+     * @param r the r value of the signature.
+     * @param s the s value of the signature.
+     */
+    public void addSignature(ECPublicKeyParameters key, byte[] message, BigInteger r, BigInteger s)
+    {
+        ECPoint Q = key.getQ();
+        if (!params.getCurve().equals(Q.getCurve()))
+        {
+            throw new IllegalArgumentException("key not on the curve of this verifier");
+        }
+
+        queue.addElement(new Entry(getSharedPoint(Q), calculateE(params.getN(), message), r, s));
+    }
+
+    /**
+     * Return the number of signatures waiting to be verified.
+     */
+    public int getSize()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Verify every queued signature, in the order they were added, and empty the queue.
+     *
+     * @return an array with one entry per signature, true where that signature is valid.
+     */
+    public boolean[] verify()
+    {
+        int count = queue.size();
+        boolean[] results = new boolean[count];
+
+        BigInteger n = params.getN();
+
+        // Only signatures with r and s in the range [1,n-1] go any further
+        Entry[] entries = new Entry[count];
+        int[] indices = new int[count];
+        int valid = 0;
+        for (int i = 0; i < count; ++i)
+        {
+            Entry entry = (Entry)queue.elementAt(i);
+            if (inRange(entry.r, n) && inRange(entry.s, n))
+            {
+                entries[valid] = entry;
+                indices[valid++] = i;
+            }
+        }
+
+        queue.removeAllElements();
+        keys.clear();
+
+        if (valid == 0)
+        {
+            return results;
+        }
+
+        BigInteger[] cs = new BigInteger[valid];
+        for (int i = 0; i < valid; ++i)
+        {
+            cs[i] = entries[i].s;
+        }
+        invertAll(cs, n);
+
+        ECPoint G = params.getG();
+        ECPoint[] points = new ECPoint[valid];
+        for (int i = 0; i < valid; ++i)
+        {
+            Entry entry = entries[i];
+
+            BigInteger u1 = entry.e.multiply(cs[i]).mod(n);
+            BigInteger u2 = entry.r.multiply(cs[i]).mod(n);
+
+            points[i] = ECAlgorithms.sumOfTwoMultiplies(G, u1, entry.Q, u2);
+        }
+
+        params.getCurve().normalizeAll(points);
+
+        for (int i = 0; i < valid; ++i)
+        {
+            ECPoint point = points[i];
+
+            // components must be bogus.
+            if (point.isInfinity())
+            {
+                continue;
+            }
+
+            BigInteger v = point.getAffineXCoord().toBigInteger().mod(n);
+
+            results[indices[i]] = v.equals(entries[i].r);
+        }
+
+        return results;
+    }
+
+    /**
+     * Discard any queued signatures, along with their public keys.
+     */
+    public void reset()
+    {
+        queue.removeAllElements();
+        keys.clear();
+    }
+
+    private ECPoint getSharedPoint(ECPoint Q)
+    {
+        ECCurve curve = params.getCurve();
+        Q = curve.importPoint(Q).normalize();
+
+        ECPoint shared = (ECPoint)keys.get(Q);
+        if (shared == null)
+        {
+            keys.put(Q, Q);
+            shared = Q;
+        }
+        return shared;
+    }
+
+    private static boolean inRange(BigInteger x, BigInteger n)
+    {
+        return x.compareTo(ONE) >= 0 && x.compareTo(n) < 0;
+    }
+
+    /*
+     * Montgomery's trick: replace each (invertible) element of xs with its inverse mod n,
+     * using one modInverse and 3(len - 1) multiplications.
+     */
+    private static void invertAll(BigInteger[] xs, BigInteger n)
+    {
+        int len = xs.length;
+
+        BigInteger[] c = new BigInteger[len];
+        c[0] = xs[0];
+        for (int i = 1; i < len; ++i)
+        {
+            c[i] = c[i - 1].multiply(xs[i]).mod(n);
+        }
+
+        BigInteger u = c[len - 1].modInverse(n);
+
+        for (int i = len - 1; i > 0; --i)
+        {
+            BigInteger tmp = xs[i];
+            xs[i] = c[i - 1].multiply(u).mod(n);
+            u = u.multiply(tmp).mod(n);
+        }
+
+        xs[0] = u;
+    }
+
+    private static BigInteger calculateE(BigInteger n, byte[] message)
+    {
+        int log2n = n.bitLength();
+        int messageBitLength = message.length * 8;
+
+        BigInteger e = new BigInteger(1, message);
+        if (log2n < messageBitLength)
+        {
+            e = e.shiftRight(messageBitLength - log2n);
+        }
+        return e;
+    }
+
+    private static class Entry
+    {
+        final ECPoint Q;
+        final BigInteger e, r, s;
+
+        Entry(ECPoint Q, BigInteger e, BigInteger r, BigInteger s)
+        {
+            this.Q = Q;
+            this.e = e;
+            this.r = r;
+            this.s = s;
+        }
+    }
+}
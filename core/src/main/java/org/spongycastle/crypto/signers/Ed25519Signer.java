@@ -0,0 +1,107 @@
+package org.spongycastle.crypto.signers;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import org.spongycastle.crypto.CipherParameters;
+import org.spongycastle.crypto.Signer;
+import org.spongycastle.crypto.params.Ed25519PrivateKeyParameters;
+import org.spongycastle.crypto.params.Ed25519PublicKeyParameters;
+
+/**
+ * Ed25519 signatures as described in RFC 8032. The scheme hashes the message twice, so it is
+ * buffered in full until the signature is generated or verified.
+ */
+public class Ed25519Signer
+    implements Signer
+{
+    private final Buffer buffer = new Buffer();
+
+    private boolean forSigning;
+    private Ed25519PrivateKeyParameters privateKey;
+    private Ed25519PublicKeyParameters publicKey;
+
+    public void init(boolean forSigning, CipherParameters parameters)
+    {
+        this.forSigning = forSigning;
+
+        if (forSigning)
+        {
+            this.privateKey = (Ed25519PrivateKeyParameters)parameters;
+            this.publicKey = privateKey.generatePublicKey();
+        }
+        else
+        {
+            this.privateKey = null;
+            this.publicKey = (Ed25519PublicKeyParameters)parameters;
+        }
+
+        reset();
+    }
+
+    public void update(byte b)
+    {
+        buffer.write(b);
+    }
+
+    public void update(byte[] buf, int off, int len)
+    {
+        buffer.write(buf, off, len);
+    }
+
+    public byte[] generateSignature()
+    {
+        if (!forSigning || null == privateKey)
+        {
+            throw new IllegalStateException("Ed25519Signer not initialised for signature generation.");
+        }
+
+        byte[] signature = new byte[Ed25519PrivateKeyParameters.SIGNATURE_SIZE];
+        buffer.sign(privateKey, signature);
+        return signature;
+    }
+
+    public boolean verifySignature(byte[] signature)
+    {
+        if (forSigning || null == publicKey)
+        {
+            throw new IllegalStateException("Ed25519Signer not initialised for verification");
+        }
+
+        if (Ed25519PrivateKeyParameters.SIGNATURE_SIZE != signature.length)
+        {
+            buffer.reset();
+            return false;
+        }
+
+        return buffer.verify(publicKey, signature);
+    }
+
+    public void reset()
+    {
+        buffer.reset();
+    }
+
+    private static class Buffer
+        extends ByteArrayOutputStream
+    {
+        void sign(Ed25519PrivateKeyParameters privateKey, byte[] signature)
+        {
+            privateKey.sign(buf, 0, count, signature, 0);
+            reset();
+        }
+
+        boolean verify(Ed25519PublicKeyParameters publicKey, byte[] signature)
+        {
+            boolean result = publicKey.verify(buf, 0, count, signature, 0);
+            reset();
+            return result;
+        }
+
+        public void reset()
+        {
+            Arrays.fill(buf, 0, count, (byte)0);
+            this.count = 0;
+        }
+    }
+}
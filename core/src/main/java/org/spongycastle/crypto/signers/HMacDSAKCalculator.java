@@ -4,13 +4,20 @@
 import java.security.SecureRandom;
 
 import org.spongycastle.crypto.Digest;
+import org.spongycastle.crypto.ExtendedDigest;
 import org.spongycastle.crypto.macs.HMac;
 import org.spongycastle.crypto.params.KeyParameter;
 import org.spongycastle.util.Arrays;
 import org.spongycastle.util.BigIntegers;
+import org.spongycastle.util.Memoable;
 
 /**
  * A deterministic K calculator based on the algorithm in section 3.2 of RFC 6979.
+ * <p>
+ * The first HMAC of the algorithm is keyed with zeroes and its input begins with a constant V and
+ * the private key, so when the digest is {@link Memoable} the digest state after that much input is
+ * kept, and reused while the same private key (the same BigInteger instance) goes on signing. The
+ * HMAC itself is re-keyed in place, and the byte arrays are kept between calls.
  */
 public class HMacDSAKCalculator
     implements DSAKCalculator
@@ -21,7 +28,16 @@
     private final byte[] K;
     private final byte[] V;
 
+    // only when the digest is Memoable: the work digest, and its state after the outer zero key pad
+    private final Digest keyDigest;
+    private final Memoable zeroOuterState;
+
+    // the inner state after the zero key pad, V = 0x01 0x01..., 0x00 and x, for keyN and keyD
+    private Memoable keyInnerState;
+    private BigInteger keyN, keyD;
+
     private BigInteger n;
+    private byte[] x, m, t;
 
     /**
      * Base constructor.
@@ -33,6 +49,20 @@ public HMacDSAKCalculator(Digest digest)
         this.hMac = new HMac(digest);
         this.V = new byte[hMac.getMacSize()];
         this.K = new byte[hMac.getMacSize()];
+
+        if (digest instanceof Memoable && digest instanceof ExtendedDigest)
+        {
+            this.keyDigest = (Digest)((Memoable)digest).copy();
+
+            keyDigest.reset();
+            updatePad(keyDigest, (byte)0x5C);
+            this.zeroOuterState = ((Memoable)keyDigest).copy();
+        }
+        else
+        {
+            this.keyDigest = null;
+            this.zeroOuterState = null;
+        }
     }
 
     public boolean isDeterministic()
@@ -49,15 +79,15 @@ public void init(BigInteger n, BigInteger d, byte[] message)
     {
         this.n = n;
 
-        Arrays.fill(V, (byte)0x01);
-        Arrays.fill(K, (byte)0);
-
-        byte[] x = new byte[(n.bitLength() + 7) / 8];
-        byte[] dVal = BigIntegers.asUnsignedByteArray(d);
-
-        System.arraycopy(dVal, 0, x, x.length - dVal.length, dVal.length);
+        int size = (n.bitLength() + 7) / 8;
+        if (x == null || x.length != size)
+        {
+            x = new byte[size];
+            m = new byte[size];
+            t = new byte[size];
+        }
 
-        byte[] m = new byte[(n.bitLength() + 7) / 8];
+        Arrays.fill(V, (byte)0x01);
 
         BigInteger mInt = bitsToInt(message);
 
@@ -66,18 +96,57 @@ public void init(BigInteger n, BigInteger d, byte[] message)
             mInt = mInt.subtract(n);
         }
 
-        byte[] mVal = BigIntegers.asUnsignedByteArray(mInt);
+        toBytes(mInt, m);
 
-        System.arraycopy(mVal, 0, m, m.length - mVal.length, mVal.length);
+        if (keyDigest != null)
+        {
+            if (n != keyN || d != keyD)
+            {
+                toBytes(d, x);
 
-        hMac.init(new KeyParameter(K));
+                keyDigest.reset();
+                updatePad(keyDigest, (byte)0x36);
+                keyDigest.update(V, 0, V.length);
+                keyDigest.update((byte)0x00);
+                keyDigest.update(x, 0, x.length);
 
-        hMac.update(V, 0, V.length);
-        hMac.update((byte)0x00);
-        hMac.update(x, 0, x.length);
-        hMac.update(m, 0, m.length);
+                if (keyInnerState == null)
+                {
+                    keyInnerState = ((Memoable)keyDigest).copy();
+                }
+                else
+                {
+                    keyInnerState.reset((Memoable)keyDigest);
+                }
 
-        hMac.doFinal(K, 0);
+                keyN = n;
+                keyD = d;
+            }
+
+            // K = HMAC_0(V || 0x00 || x || m), resuming after x (which still holds keyD)
+            ((Memoable)keyDigest).reset(keyInnerState);
+            keyDigest.update(m, 0, m.length);
+            keyDigest.doFinal(K, 0);
+
+            ((Memoable)keyDigest).reset(zeroOuterState);
+            keyDigest.update(K, 0, K.length);
+            keyDigest.doFinal(K, 0);
+        }
+        else
+        {
+            toBytes(d, x);
+
+            Arrays.fill(K, (byte)0);
+
+            hMac.init(new KeyParameter(K));
+
+            hMac.update(V, 0, V.length);
+            hMac.update((byte)0x00);
+            hMac.update(x, 0, x.length);
+            hMac.update(m, 0, m.length);
+
+            hMac.doFinal(K, 0);
+        }
 
         hMac.init(new KeyParameter(K));
 
@@ -101,8 +170,6 @@ public void init(BigInteger n, BigInteger d, byte[] message)
 
     public BigInteger nextK()
     {
-        byte[] t = new byte[((n.bitLength() + 7) / 8)];
-
         for (;;)
         {
             int tOff = 0;
@@ -158,4 +225,23 @@ private BigInteger bitsToInt(byte[] t)
 
         return v;
     }
+
+    /*
+     * Big-endian x, left-padded with zeroes to the length of z.
+     */
+    private static void toBytes(BigInteger x, byte[] z)
+    {
+        byte[] xVal = BigIntegers.asUnsignedByteArray(x);
+
+        Arrays.fill(z, (byte)0);
+        System.arraycopy(xVal, 0, z, z.length - xVal.length, xVal.length);
+    }
+
+    private static void updatePad(Digest digest, byte pad)
+    {
+        for (int i = ((ExtendedDigest)digest).getByteLength(); i > 0; --i)
+        {
+            digest.update(pad);
+        }
+    }
 }
@@ -0,0 +1,211 @@
+package org.spongycastle.crypto.signers;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Vector;
+
+import org.spongycastle.asn1.ASN1Encoding;
+import org.spongycastle.asn1.ASN1ObjectIdentifier;
+import org.spongycastle.asn1.DERNull;
+import org.spongycastle.asn1.x509.AlgorithmIdentifier;
+import org.spongycastle.asn1.x509.DigestInfo;
+import org.spongycastle.crypto.Digest;
+import org.spongycastle.crypto.params.RSAKeyParameters;
+
+/**
+ * Verifies many PKCS#1 v1.5 signatures (as produced by {@link RSADigestSigner}) under the same
+ * RSA public key.
+ * <p>
+ * There are two ways to check the queued signatures:
+ * <ul>
+ * <li>{@link #verify()} gives a result for each signature, the same as calling
+ * {@link RSADigestSigner#verifySignature} for each in turn, but with the expected encodings
+ * built directly rather than through the DER encoder and PKCS#1 block decoder;</li>
+ * <li>{@link #screen()} checks the whole batch with a single public exponentiation, by testing
+ * that (s_1.s_2...s_k)^e = m_1.m_2...m_k (mod n), where m_i is the expected encoding of the
+ * i-th message. This is the batch screening test of Bellare, Garay and Rabin: if it passes,
+ * every queued message has been signed by the holder of the private key, but it does not
+ * show that each queued signature value is the one belonging to its own message (for
+ * instance, exchanging the signatures of two messages goes unnoticed). Where that matters,
+ * or when the screen fails, use {@link #verify()}.</li>
+ * </ul>
+ * Instances are not thread-safe.
+ */
+public class RSADigestBatchVerifier
+{
+    private final Digest digest;
+    private final ASN1ObjectIdentifier digestOid;
+    private final BigInteger modulus, exponent;
+    private final int k;
+
+    private final Vector queue = new Vector();
+
+    public RSADigestBatchVerifier(Digest digest, RSAKeyParameters key)
+    {
+        this(digest, RSADigestSigner.getDigestOid(digest), key);
+    }
+
+    public RSADigestBatchVerifier(Digest digest, ASN1ObjectIdentifier digestOid, RSAKeyParameters key)
+    {
+        if (key.isPrivate())
+        {
+            throw new IllegalArgumentException("verification requires public key");
+        }
+
+        this.digest = digest;
+        this.digestOid = digestOid;
+        this.modulus = key.getModulus();
+        this.exponent = key.getExponent();
+        this.k = (modulus.bitLength() + 7) / 8;
+    }
+
+    /**
+     * Queue a signature for verification.
+     *
+     * @param message the message the signature is over (it is digested here).
+     * @param signature the signature.
+     */
+    public void addSignature(byte[] message, byte[] signature)
+    {
+        byte[] hash = new byte[digest.getDigestSize()];
+        digest.update(message, 0, message.length);
+        digest.doFinal(hash, 0);
+
+        BigInteger s = null;
+        if (signature.length <= k)
+        {
+            s = new BigInteger(1, signature);
+            if (s.signum() == 0 || s.compareTo(modulus) >= 0)
+            {
+                s = null;
+            }
+        }
+
+        BigInteger m = encode(new AlgorithmIdentifier(digestOid, DERNull.INSTANCE), hash);
+
+        // RSADigestSigner also accepts a DigestInfo with the NULL parameters left out
+        BigInteger mAlt = encode(new AlgorithmIdentifier(digestOid), hash);
+
+        queue.addElement(new Entry(s, m, mAlt));
+    }
+
+    /**
+     * Return the number of signatures waiting to be verified.
+     */
+    public int getSize()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Screen the queued signatures as a batch, leaving them queued.
+     *
+     * @return true if every queued message has been signed under the key, false if at least one
+     * signature fails to verify, or one was made with the NULL parameters of the DigestInfo
+     * left out (which {@link #verify()} accepts).
+     */
+    public boolean screen()
+    {
+        int count = queue.size();
+        if (count == 0)
+        {
+            return true;
+        }
+
+        BigInteger sProduct = BigInteger.ONE, mProduct = BigInteger.ONE;
+        for (int i = 0; i < count; ++i)
+        {
+            Entry entry = (Entry)queue.elementAt(i);
+            if (entry.s == null || entry.m == null)
+            {
+                return false;
+            }
+
+            sProduct = sProduct.multiply(entry.s).mod(modulus);
+            mProduct = mProduct.multiply(entry.m).mod(modulus);
+        }
+
+        return sProduct.modPow(exponent, modulus).equals(mProduct);
+    }
+
+    /**
+     * Verify every queued signature, in the order they were added, and empty the queue.
+     *
+     * @return an array with one entry per signature, true where that signature is valid.
+     */
+    public boolean[] verify()
+    {
+        int count = queue.size();
+        boolean[] results = new boolean[count];
+
+        for (int i = 0; i < count; ++i)
+        {
+            Entry entry = (Entry)queue.elementAt(i);
+            if (entry.s == null)
+            {
+                continue;
+            }
+
+            BigInteger v = entry.s.modPow(exponent, modulus);
+
+            results[i] = v.equals(entry.m) || v.equals(entry.mAlt);
+        }
+
+        queue.removeAllElements();
+
+        return results;
+    }
+
+    /**
+     * Discard any queued signatures.
+     */
+    public void reset()
+    {
+        queue.removeAllElements();
+        digest.reset();
+    }
+
+    /*
+     * The PKCS#1 v1.5 block 00 01 FF...FF 00 || DigestInfo as an integer, or null if the modulus
+     * is too short to hold it with at least 8 bytes of padding.
+     */
+    private BigInteger encode(AlgorithmIdentifier algId, byte[] hash)
+    {
+        byte[] t;
+        try
+        {
+            t = new DigestInfo(algId, hash).getEncoded(ASN1Encoding.DER);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("unable to encode DigestInfo: " + e.getMessage());
+        }
+
+        if (t.length + 11 > k)
+        {
+            return null;
+        }
+
+        byte[] block = new byte[k];
+        block[1] = 0x01;
+        for (int i = 2; i < k - t.length - 1; ++i)
+        {
+            block[i] = (byte)0xFF;
+        }
+        System.arraycopy(t, 0, block, k - t.length, t.length);
+
+        return new BigInteger(1, block);
+    }
+
+    private static class Entry
+    {
+        final BigInteger s, m, mAlt;
+
+        Entry(BigInteger s, BigInteger m, BigInteger mAlt)
+        {
+            this.s = s;
+            this.m = m;
+            this.mAlt = mAlt;
+        }
+    }
+}
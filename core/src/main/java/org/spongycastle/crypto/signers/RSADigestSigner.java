@@ -57,7 +57,7 @@
     public RSADigestSigner(
         Digest digest)
     {
-        this(digest, (ASN1ObjectIdentifier)oidMap.get(digest.getAlgorithmName()));
+        this(digest, getDigestOid(digest));
     }
 
     public RSADigestSigner(
@@ -227,6 +227,12 @@ public void reset()
         digest.reset();
     }
 
+    static ASN1ObjectIdentifier getDigestOid(
+        Digest digest)
+    {
+        return (ASN1ObjectIdentifier)oidMap.get(digest.getAlgorithmName());
+    }
+
     private byte[] derEncode(
         byte[] hash)
         throws IOException
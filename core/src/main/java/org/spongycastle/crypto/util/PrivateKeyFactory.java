@@ -8,8 +8,10 @@
 import org.spongycastle.asn1.ASN1InputStream;
 import org.spongycastle.asn1.ASN1Integer;
 import org.spongycastle.asn1.ASN1ObjectIdentifier;
+import org.spongycastle.asn1.ASN1OctetString;
 import org.spongycastle.asn1.ASN1Primitive;
 import org.spongycastle.asn1.ASN1Sequence;
+import org.spongycastle.asn1.edec.EdECObjectIdentifiers;
 import org.spongycastle.asn1.oiw.ElGamalParameter;
 import org.spongycastle.asn1.oiw.OIWObjectIdentifiers;
 import org.spongycastle.asn1.pkcs.DHParameter;
@@ -30,9 +32,11 @@
 import org.spongycastle.crypto.params.DSAPrivateKeyParameters;
 import org.spongycastle.crypto.params.ECDomainParameters;
 import org.spongycastle.crypto.params.ECPrivateKeyParameters;
+import org.spongycastle.crypto.params.Ed25519PrivateKeyParameters;
 import org.spongycastle.crypto.params.ElGamalParameters;
 import org.spongycastle.crypto.params.ElGamalPrivateKeyParameters;
 import org.spongycastle.crypto.params.RSAPrivateCrtKeyParameters;
+import org.spongycastle.crypto.params.X25519PrivateKeyParameters;
 
 /**
  * Factory for creating private key objects from PKCS8 PrivateKeyInfo objects.
@@ -144,9 +148,30 @@ else if (algId.getAlgorithm().equals(X9ObjectIdentifiers.id_ecPublicKey))
 
             return new ECPrivateKeyParameters(d, dParams);
         }
+        else if (algId.getAlgorithm().equals(EdECObjectIdentifiers.id_X25519))
+        {
+            return new X25519PrivateKeyParameters(getRawKey(keyInfo, X25519PrivateKeyParameters.KEY_SIZE), 0);
+        }
+        else if (algId.getAlgorithm().equals(EdECObjectIdentifiers.id_Ed25519))
+        {
+            return new Ed25519PrivateKeyParameters(getRawKey(keyInfo, Ed25519PrivateKeyParameters.KEY_SIZE), 0);
+        }
         else
         {
             throw new RuntimeException("algorithm identifier in key not recognised");
         }
     }
+
+    /*
+     * RFC 8410: the private key is a CurvePrivateKey, an OCTET STRING holding the raw key.
+     */
+    private static byte[] getRawKey(PrivateKeyInfo keyInfo, int expectedSize) throws IOException
+    {
+        byte[] result = ASN1OctetString.getInstance(keyInfo.parsePrivateKey()).getOctets();
+        if (expectedSize != result.length)
+        {
+            throw new IOException("private key encoding has incorrect length");
+        }
+        return result;
+    }
 }
@@ -5,6 +5,8 @@
 import org.spongycastle.asn1.ASN1Encodable;
 import org.spongycastle.asn1.ASN1Integer;
 import org.spongycastle.asn1.DERNull;
+import org.spongycastle.asn1.DEROctetString;
+import org.spongycastle.asn1.edec.EdECObjectIdentifiers;
 import org.spongycastle.asn1.pkcs.PKCSObjectIdentifiers;
 import org.spongycastle.asn1.pkcs.PrivateKeyInfo;
 import org.spongycastle.asn1.pkcs.RSAPrivateKey;
@@ -19,8 +21,10 @@
 import org.spongycastle.crypto.params.DSAPrivateKeyParameters;
 import org.spongycastle.crypto.params.ECDomainParameters;
 import org.spongycastle.crypto.params.ECPrivateKeyParameters;
+import org.spongycastle.crypto.params.Ed25519PrivateKeyParameters;
 import org.spongycastle.crypto.params.RSAKeyParameters;
 import org.spongycastle.crypto.params.RSAPrivateCrtKeyParameters;
+import org.spongycastle.crypto.params.X25519PrivateKeyParameters;
 
 /**
  * Factory to create ASN.1 private key info objects from lightweight private keys.
@@ -74,6 +78,18 @@ else if (privateKey instanceof ECPrivateKeyParameters)
 
             return new PrivateKeyInfo(new AlgorithmIdentifier(X9ObjectIdentifiers.id_ecPublicKey, params), new ECPrivateKey(priv.getD(), params));
         }
+        else if (privateKey instanceof X25519PrivateKeyParameters)
+        {
+            X25519PrivateKeyParameters priv = (X25519PrivateKeyParameters)privateKey;
+
+            return new PrivateKeyInfo(new AlgorithmIdentifier(EdECObjectIdentifiers.id_X25519), new DEROctetString(priv.getEncoded()));
+        }
+        else if (privateKey instanceof Ed25519PrivateKeyParameters)
+        {
+            Ed25519PrivateKeyParameters priv = (Ed25519PrivateKeyParameters)privateKey;
+
+            return new PrivateKeyInfo(new AlgorithmIdentifier(EdECObjectIdentifiers.id_Ed25519), new DEROctetString(priv.getEncoded()));
+        }
         else
         {
             throw new IOException("key parameters not recognised.");
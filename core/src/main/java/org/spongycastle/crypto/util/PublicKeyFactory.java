@@ -12,6 +12,7 @@
 import org.spongycastle.asn1.ASN1Primitive;
 import org.spongycastle.asn1.ASN1Sequence;
 import org.spongycastle.asn1.DEROctetString;
+import org.spongycastle.asn1.edec.EdECObjectIdentifiers;
 import org.spongycastle.asn1.oiw.ElGamalParameter;
 import org.spongycastle.asn1.oiw.OIWObjectIdentifiers;
 import org.spongycastle.asn1.pkcs.DHParameter;
@@ -37,9 +38,11 @@
 import org.spongycastle.crypto.params.DSAPublicKeyParameters;
 import org.spongycastle.crypto.params.ECDomainParameters;
 import org.spongycastle.crypto.params.ECPublicKeyParameters;
+import org.spongycastle.crypto.params.Ed25519PublicKeyParameters;
 import org.spongycastle.crypto.params.ElGamalParameters;
 import org.spongycastle.crypto.params.ElGamalPublicKeyParameters;
 import org.spongycastle.crypto.params.RSAKeyParameters;
+import org.spongycastle.crypto.params.X25519PublicKeyParameters;
 
 /**
  * Factory to create asymmetric public key parameters for asymmetric ciphers from range of
@@ -180,9 +183,27 @@ else if (algId.getAlgorithm().equals(X9ObjectIdentifiers.id_ecPublicKey))
 
             return new ECPublicKeyParameters(derQ.getPoint(), dParams);
         }
+        else if (algId.getAlgorithm().equals(EdECObjectIdentifiers.id_X25519))
+        {
+            return new X25519PublicKeyParameters(getRawKey(keyInfo, X25519PublicKeyParameters.KEY_SIZE), 0);
+        }
+        else if (algId.getAlgorithm().equals(EdECObjectIdentifiers.id_Ed25519))
+        {
+            return new Ed25519PublicKeyParameters(getRawKey(keyInfo, Ed25519PublicKeyParameters.KEY_SIZE), 0);
+        }
         else
         {
             throw new RuntimeException("algorithm identifier in key not recognised");
         }
     }
+
+    private static byte[] getRawKey(SubjectPublicKeyInfo keyInfo, int expectedSize) throws IOException
+    {
+        byte[] result = keyInfo.getPublicKeyData().getBytes();
+        if (expectedSize != result.length)
+        {
+            throw new IOException("public key encoding has incorrect length");
+        }
+        return result;
+    }
 }
@@ -6,6 +6,7 @@
 import org.spongycastle.asn1.ASN1Integer;
 import org.spongycastle.asn1.ASN1OctetString;
 import org.spongycastle.asn1.DERNull;
+import org.spongycastle.asn1.edec.EdECObjectIdentifiers;
 import org.spongycastle.asn1.pkcs.PKCSObjectIdentifiers;
 import org.spongycastle.asn1.pkcs.RSAPublicKey;
 import org.spongycastle.asn1.x509.AlgorithmIdentifier;
@@ -18,7 +19,9 @@
 import org.spongycastle.crypto.params.DSAPublicKeyParameters;
 import org.spongycastle.crypto.params.ECDomainParameters;
 import org.spongycastle.crypto.params.ECPublicKeyParameters;
+import org.spongycastle.crypto.params.Ed25519PublicKeyParameters;
 import org.spongycastle.crypto.params.RSAKeyParameters;
+import org.spongycastle.crypto.params.X25519PublicKeyParameters;
 
 /**
  * Factory to create ASN.1 subject public key info objects from lightweight public keys.
@@ -73,6 +76,18 @@ else if (publicKey instanceof ECPublicKeyParameters)
 
             return new SubjectPublicKeyInfo(new AlgorithmIdentifier(X9ObjectIdentifiers.id_ecPublicKey, params), p.getOctets());
         }
+        else if (publicKey instanceof X25519PublicKeyParameters)
+        {
+            X25519PublicKeyParameters pub = (X25519PublicKeyParameters)publicKey;
+
+            return new SubjectPublicKeyInfo(new AlgorithmIdentifier(EdECObjectIdentifiers.id_X25519), pub.getEncoded());
+        }
+        else if (publicKey instanceof Ed25519PublicKeyParameters)
+        {
+            Ed25519PublicKeyParameters pub = (Ed25519PublicKeyParameters)publicKey;
+
+            return new SubjectPublicKeyInfo(new AlgorithmIdentifier(EdECObjectIdentifiers.id_Ed25519), pub.getEncoded());
+        }
         else
         {
             throw new IOException("key parameters not recognised.");
@@ -0,0 +1,133 @@
+package org.spongycastle.math;
+
+import java.math.BigInteger;
+
+/**
+ * Exponentiation of a fixed base g modulo p, for exponents of a bounded bit length, using the
+ * Lim-Lee comb method over a table of products of g^(2^i) that is built once, and Barrett
+ * reduction for the products.
+ * <p>
+ * Each exponentiation then takes about t/(ROWS.COLUMNS) squarings and t/ROWS multiplications for
+ * t-bit exponents, against about t squarings for {@link BigInteger#modPow}, which pays off for
+ * subgroup-sized exponents (e.g. DSA, or the RFC 5114 groups). Exponents longer than the table
+ * was built for are passed to {@link BigInteger#modPow}. Instances are immutable.
+ */
+public class FixedBaseModPow
+{
+    private static final int ROWS = 8, COLUMNS = 2;
+
+    private final BigInteger g, p, mu;
+    private final int pBits, maxBits, d, e;
+    private final BigInteger[][] table;
+
+    /**
+     * @param g the base
+     * @param p the (odd) modulus
+     * @param maxBits the largest exponent bit length the table is to cover
+     */
+    public FixedBaseModPow(BigInteger g, BigInteger p, int maxBits)
+    {
+        this.g = g;
+        this.p = p;
+        this.pBits = p.bitLength();
+        this.mu = BigInteger.ONE.shiftLeft(2 * pBits).divide(p);
+        this.maxBits = maxBits;
+
+        // exponent bit i.d + s.e + j goes to row i, column s, position j; d is a multiple of
+        // COLUMNS so that the columns of one row do not run into the next
+        this.e = (maxBits + ROWS * COLUMNS - 1) / (ROWS * COLUMNS);
+        this.d = e * COLUMNS;
+
+        BigInteger[] rowBases = new BigInteger[ROWS];
+        rowBases[0] = g.mod(p);
+        for (int i = 1; i < ROWS; ++i)
+        {
+            rowBases[i] = rowBases[i - 1].modPow(BigInteger.ONE.shiftLeft(d), p);
+        }
+
+        BigInteger eShift = BigInteger.ONE.shiftLeft(e);
+
+        this.table = new BigInteger[COLUMNS][1 << ROWS];
+        for (int s = 0; s < COLUMNS; ++s)
+        {
+            BigInteger[] t = table[s];
+            t[0] = BigInteger.ONE;
+            for (int mask = 1; mask < t.length; ++mask)
+            {
+                int low = mask & -mask, i = Integer.numberOfTrailingZeros(low);
+                t[mask] = (mask == low) ? rowBases[i] : multiply(t[mask ^ low], rowBases[i]);
+            }
+
+            if (s + 1 < COLUMNS)
+            {
+                for (int i = 0; i < ROWS; ++i)
+                {
+                    rowBases[i] = rowBases[i].modPow(eShift, p);
+                }
+            }
+        }
+    }
+
+    public BigInteger getBase()
+    {
+        return g;
+    }
+
+    public BigInteger getModulus()
+    {
+        return p;
+    }
+
+    /**
+     * Return g^x mod p.
+     */
+    public BigInteger modPow(BigInteger x)
+    {
+        if (x.signum() < 0 || x.bitLength() > maxBits)
+        {
+            return g.modPow(x, p);
+        }
+
+        BigInteger r = BigInteger.ONE;
+        for (int j = e - 1; j >= 0; --j)
+        {
+            if (j < e - 1)
+            {
+                r = multiply(r, r);
+            }
+
+            for (int s = COLUMNS - 1; s >= 0; --s)
+            {
+                int bit = s * e + j, mask = 0;
+                for (int i = 0; i < ROWS; ++i, bit += d)
+                {
+                    if (x.testBit(bit))
+                    {
+                        mask |= 1 << i;
+                    }
+                }
+
+                if (mask != 0)
+                {
+                    r = multiply(r, table[s][mask]);
+                }
+            }
+        }
+        return r;
+    }
+
+    /*
+     * x.y mod p by Barrett reduction, for x, y < p
+     */
+    private BigInteger multiply(BigInteger x, BigInteger y)
+    {
+        BigInteger xy = x.multiply(y);
+        BigInteger q = xy.shiftRight(pBits - 1).multiply(mu).shiftRight(pBits + 1);
+        BigInteger r = xy.subtract(q.multiply(p));
+        while (r.compareTo(p) >= 0)
+        {
+            r = r.subtract(p);
+        }
+        return r;
+    }
+}
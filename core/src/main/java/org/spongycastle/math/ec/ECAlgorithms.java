@@ -2,8 +2,78 @@
 
 import java.math.BigInteger;
 
+import org.spongycastle.math.ec.endo.ECEndomorphism;
+import org.spongycastle.math.ec.endo.GLVEndomorphism;
+import org.spongycastle.math.raw.Nat;
+
 public class ECAlgorithms
 {
+    /*
+     * From this many terms, sumOfMultiplies switches from interleaved window NAFs to Pippenger's
+     * bucket method, whose per-term cost does not include a precomputed table.
+     */
+    private static final int PIPPENGER_THRESHOLD = 32;
+
+    /**
+     * Compute the sum of ks[i].ps[i], sharing the doublings between all the terms. Small sums
+     * interleave the window NAFs of the scalars (Straus); larger ones use Pippenger's bucket
+     * method. Curves with a GLV endomorphism also have each scalar split in two first.
+     *
+     * @param ps the points, all on the same curve.
+     * @param ks the scalars, one per point; negative values are permitted.
+     * @return the sum of the products.
+     */
+    public static ECPoint sumOfMultiplies(ECPoint[] ps, BigInteger[] ks)
+    {
+        if (ps == null || ks == null || ps.length != ks.length || ps.length < 1)
+        {
+            throw new IllegalArgumentException("point and scalar arrays should be non-null, and of equal, non-zero, length");
+        }
+
+        int count = ps.length;
+        switch (count)
+        {
+        case 1:
+            return ps[0].multiply(ks[0]);
+        case 2:
+            // sumOfTwoMultiplies only takes non-negative scalars
+            if (ks[0].signum() >= 0 && ks[1].signum() >= 0)
+            {
+                return sumOfTwoMultiplies(ps[0], ks[0], ps[1], ks[1]);
+            }
+            break;
+        default:
+            break;
+        }
+
+        ECPoint p = ps[0];
+        ECCurve c = p.getCurve();
+
+        ECPoint[] imported = new ECPoint[count];
+        imported[0] = p;
+        for (int i = 1; i < count; ++i)
+        {
+            imported[i] = importPoint(c, ps[i]);
+        }
+
+        ECEndomorphism endomorphism = c.getEndomorphism();
+        if (endomorphism instanceof GLVEndomorphism)
+        {
+            GLVEndomorphism glvEndomorphism = (GLVEndomorphism)endomorphism;
+            if (count >= PIPPENGER_THRESHOLD)
+            {
+                return implSumOfMultipliesPippengerGLV(imported, ks, glvEndomorphism);
+            }
+            return implSumOfMultipliesGLV(imported, ks, glvEndomorphism);
+        }
+
+        if (count >= PIPPENGER_THRESHOLD)
+        {
+            return implSumOfMultipliesPippenger(imported, ks);
+        }
+        return implSumOfMultiplies(imported, ks);
+    }
+
     public static ECPoint sumOfTwoMultiplies(ECPoint P, BigInteger a,
         ECPoint Q, BigInteger b)
     {
@@ -20,6 +90,13 @@ public static ECPoint sumOfTwoMultiplies(ECPoint P, BigInteger a,
             }
         }
 
+        ECEndomorphism endomorphism = cp.getEndomorphism();
+        if (endomorphism instanceof GLVEndomorphism)
+        {
+            return implSumOfMultipliesGLV(new ECPoint[]{ P, Q }, new BigInteger[]{ a, b },
+                (GLVEndomorphism)endomorphism);
+        }
+
         return implShamirsTrick(P, a, Q, b);
     }
 
@@ -126,4 +203,270 @@ static ECPoint implShamirsTrick(ECPoint P, BigInteger k,
 
         return R;
     }
+
+    static ECPoint implSumOfMultipliesGLV(ECPoint[] ps, BigInteger[] ks, GLVEndomorphism glvEndomorphism)
+    {
+        int len = ps.length;
+
+        BigInteger[] abs = new BigInteger[len << 1];
+        for (int i = 0, j = 0; i < len; ++i)
+        {
+            BigInteger[] ab = glvEndomorphism.decomposeScalar(ks[i]);
+            abs[j++] = ab[0];
+            abs[j++] = ab[1];
+        }
+
+        return implSumOfMultiplies(ps, glvEndomorphism.getPointMap(), abs);
+    }
+
+    /*
+     * Computes the sum of ks[2i].ps[i] + ks[2i + 1].map(ps[i]), interleaving the window NAFs of
+     * all the scalars so that the doublings are shared. The scalars may be negative.
+     */
+    static ECPoint implSumOfMultiplies(ECPoint[] ps, ECPointMap pointMap, BigInteger[] ks)
+    {
+        int halfCount = ps.length, fullCount = halfCount << 1;
+
+        boolean[] negs = new boolean[fullCount];
+        WNafPreCompInfo[] infos = new WNafPreCompInfo[fullCount];
+        byte[][] wnafs = new byte[fullCount][];
+
+        for (int i = 0; i < halfCount; ++i)
+        {
+            int j0 = i << 1, j1 = j0 + 1;
+
+            BigInteger kj0 = ks[j0]; negs[j0] = kj0.signum() < 0; kj0 = kj0.abs();
+            BigInteger kj1 = ks[j1]; negs[j1] = kj1.signum() < 0; kj1 = kj1.abs();
+
+            int width = Math.max(2, Math.min(8, WNafUtil.getWindowSize(Math.max(kj0.bitLength(), kj1.bitLength()))));
+
+            ECPoint P = ps[i], Q = WNafUtil.mapPointWithPrecomp(P, width, true, pointMap);
+            infos[j0] = WNafUtil.getWNafPreCompInfo(P.getCurve().getPreCompInfo(P));
+            infos[j1] = WNafUtil.getWNafPreCompInfo(Q.getCurve().getPreCompInfo(Q));
+            wnafs[j0] = WNafUtil.generateWindowNaf(width, kj0);
+            wnafs[j1] = WNafUtil.generateWindowNaf(width, kj1);
+        }
+
+        return implSumOfMultiplies(ps[0].getCurve(), negs, infos, wnafs);
+    }
+
+    /*
+     * Computes the sum of ks[i].ps[i], interleaving the window NAFs of all the scalars so that
+     * the doublings are shared. The scalars may be negative.
+     */
+    static ECPoint implSumOfMultiplies(ECPoint[] ps, BigInteger[] ks)
+    {
+        int count = ps.length;
+
+        boolean[] negs = new boolean[count];
+        WNafPreCompInfo[] infos = new WNafPreCompInfo[count];
+        byte[][] wnafs = new byte[count][];
+
+        for (int i = 0; i < count; ++i)
+        {
+            BigInteger ki = ks[i]; negs[i] = ki.signum() < 0; ki = ki.abs();
+
+            int width = Math.max(2, Math.min(8, WNafUtil.getWindowSize(ki.bitLength())));
+            infos[i] = WNafUtil.precompute(ps[i], width, true);
+            wnafs[i] = WNafUtil.generateWindowNaf(width, ki);
+        }
+
+        return implSumOfMultiplies(ps[0].getCurve(), negs, infos, wnafs);
+    }
+
+    static ECPoint implSumOfMultipliesPippengerGLV(ECPoint[] ps, BigInteger[] ks, GLVEndomorphism glvEndomorphism)
+    {
+        int len = ps.length;
+
+        ECPoint[] normalized = new ECPoint[len];
+        System.arraycopy(ps, 0, normalized, 0, len);
+        ps[0].getCurve().normalizeAll(normalized);
+
+        ECPointMap pointMap = glvEndomorphism.getPointMap();
+
+        ECPoint[] pqs = new ECPoint[len << 1];
+        BigInteger[] abs = new BigInteger[len << 1];
+        for (int i = 0, j = 0; i < len; ++i)
+        {
+            BigInteger[] ab = glvEndomorphism.decomposeScalar(ks[i]);
+            pqs[j] = normalized[i];
+            abs[j++] = ab[0];
+            pqs[j] = pointMap.map(normalized[i]);
+            abs[j++] = ab[1];
+        }
+
+        return implSumOfMultipliesPippenger(pqs, abs);
+    }
+
+    /*
+     * Pippenger's bucket method. The scalars are cut into c-bit windows; for each window every
+     * point is added into the bucket selected by its digit, and the buckets are then combined as
+     * sum(j.bucket[j]) using a running sum. Each term thus costs about one addition per window,
+     * with no per-point precomputation. The scalars may be negative.
+     */
+    static ECPoint implSumOfMultipliesPippenger(ECPoint[] ps, BigInteger[] ks)
+    {
+        int count = ps.length;
+        ECCurve curve = ps[0].getCurve();
+
+        // Affine inputs make every bucket addition a (cheaper) mixed addition
+        ECPoint[] points = new ECPoint[count];
+        System.arraycopy(ps, 0, points, 0, count);
+        curve.normalizeAll(points);
+
+        int bits = 0;
+        for (int i = 0; i < count; ++i)
+        {
+            bits = Math.max(bits, ks[i].bitLength());
+        }
+        if (bits == 0)
+        {
+            return curve.getInfinity();
+        }
+
+        int[][] mags = new int[count][];
+        for (int i = 0; i < count; ++i)
+        {
+            BigInteger ki = ks[i];
+            if (ki.signum() < 0)
+            {
+                points[i] = points[i].negate();
+                ki = ki.negate();
+            }
+            mags[i] = Nat.fromBigInteger(bits, ki);
+        }
+
+        int c = getPippengerWindowSize(bits, count);
+        int mask = (1 << c) - 1;
+        int windows = (bits + c - 1) / c;
+
+        ECPoint infinity = curve.getInfinity();
+        ECPoint R = infinity;
+        ECPoint[] buckets = new ECPoint[1 << c];
+
+        for (int w = windows - 1; w >= 0; --w)
+        {
+            R = R.timesPow2(c);
+
+            for (int j = 1; j <= mask; ++j)
+            {
+                buckets[j] = null;
+            }
+
+            int pos = w * c;
+            for (int i = 0; i < count; ++i)
+            {
+                int digit = getBits(mags[i], pos, c) & mask;
+                if (digit != 0)
+                {
+                    ECPoint b = buckets[digit];
+                    buckets[digit] = (b == null) ? points[i] : b.add(points[i]);
+                }
+            }
+
+            ECPoint running = infinity, sum = infinity;
+            for (int j = mask; j > 0; --j)
+            {
+                if (buckets[j] != null)
+                {
+                    running = running.add(buckets[j]);
+                }
+                sum = sum.add(running);
+            }
+
+            R = R.add(sum);
+        }
+
+        return R;
+    }
+
+    /*
+     * Choose the window size minimising (windows).(count + 2^(c+1)), the approximate number of
+     * additions done by implSumOfMultipliesPippenger.
+     */
+    private static int getPippengerWindowSize(int bits, int count)
+    {
+        int best = 1;
+        long bestCost = Long.MAX_VALUE;
+        for (int c = 1; c <= 16; ++c)
+        {
+            long windows = (bits + c - 1) / c;
+            long cost = windows * (count + (2L << c));
+            if (cost < bestCost)
+            {
+                best = c;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    private static int getBits(int[] x, int pos, int n)
+    {
+        int word = pos >>> 5, shift = pos & 31;
+        if (word >= x.length)
+        {
+            return 0;
+        }
+
+        int v = x[word] >>> shift;
+        if (shift + n > 32 && word + 1 < x.length)
+        {
+            v |= x[word + 1] << (32 - shift);
+        }
+        return v;
+    }
+
+    private static ECPoint implSumOfMultiplies(ECCurve curve, boolean[] negs, WNafPreCompInfo[] infos, byte[][] wnafs)
+    {
+        int len = 0, count = wnafs.length;
+        for (int i = 0; i < count; ++i)
+        {
+            len = Math.max(len, wnafs[i].length);
+        }
+
+        ECPoint infinity = curve.getInfinity();
+
+        ECPoint R = infinity;
+        int zeroes = 0;
+
+        for (int i = len - 1; i >= 0; --i)
+        {
+            ECPoint r = infinity;
+
+            for (int j = 0; j < count; ++j)
+            {
+                byte[] wnaf = wnafs[j];
+                int wi = i < wnaf.length ? wnaf[i] : 0;
+                if (wi != 0)
+                {
+                    int n = Math.abs(wi);
+                    WNafPreCompInfo info = infos[j];
+                    ECPoint[] table = (wi < 0 == negs[j]) ? info.getPreComp() : info.getPreCompNeg();
+                    r = r.add(table[n >>> 1]);
+                }
+            }
+
+            if (r == infinity)
+            {
+                ++zeroes;
+                continue;
+            }
+
+            if (zeroes > 0)
+            {
+                R = R.timesPow2(zeroes);
+                zeroes = 0;
+            }
+
+            R = R.twicePlus(r);
+        }
+
+        if (zeroes > 0)
+        {
+            R = R.timesPow2(zeroes);
+        }
+
+        return R;
+    }
 }
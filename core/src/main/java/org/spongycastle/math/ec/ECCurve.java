@@ -1,8 +1,12 @@
 package org.spongycastle.math.ec;
 
 import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Random;
 
+import org.spongycastle.math.ec.endo.ECEndomorphism;
+import org.spongycastle.math.ec.endo.GLVEndomorphism;
 import org.spongycastle.util.BigIntegers;
 
 /**
@@ -25,15 +29,25 @@ public static int[] getAllCoordinateSystems()
             COORD_JACOBIAN_MODIFIED, COORD_LAMBDA_AFFINE, COORD_LAMBDA_PROJECTIVE, COORD_SKEWED };
     }
 
+    /**
+     * The number of decoded points each curve remembers by default (none), see
+     * {@link Config#setPointCacheSize(int)}.
+     */
+    public static final int DEFAULT_POINT_CACHE_SIZE = 0;
+
     public class Config
     {
         protected int coord;
+        protected ECEndomorphism endomorphism;
         protected ECMultiplier multiplier;
+        protected int pointCacheSize;
 
-        Config(int coord, ECMultiplier multiplier)
+        Config(int coord, ECEndomorphism endomorphism, ECMultiplier multiplier, int pointCacheSize)
         {
             this.coord = coord;
+            this.endomorphism = endomorphism;
             this.multiplier = multiplier;
+            this.pointCacheSize = pointCacheSize;
         }
 
         public Config setCoordinateSystem(int coord)
@@ -42,12 +56,38 @@ public Config setCoordinateSystem(int coord)
             return this;
         }
 
+        public Config setEndomorphism(ECEndomorphism endomorphism)
+        {
+            this.endomorphism = endomorphism;
+            return this;
+        }
+
         public Config setMultiplier(ECMultiplier multiplier)
         {
             this.multiplier = multiplier;
             return this;
         }
 
+        /**
+         * Set how many points {@link ECCurve#decodePoint(byte[])} keeps by encoding, so that a
+         * public key decoded again returns the earlier instance along with any precomputation
+         * already done for it. Zero (the default) disables the cache.
+         * <p>
+         * The cache is shared by all threads decoding on the curve, and is only worth enabling
+         * when a small set of long-lived keys is decoded repeatedly; decoding many one-off
+         * (e.g. ephemeral) keys would simply cycle them through it.
+         */
+        public Config setPointCacheSize(int pointCacheSize)
+        {
+            if (pointCacheSize < 0)
+            {
+                throw new IllegalArgumentException("'pointCacheSize' cannot be negative");
+            }
+
+            this.pointCacheSize = pointCacheSize;
+            return this;
+        }
+
         public ECCurve create()
         {
             if (!supportsCoordinateSystem(coord))
@@ -62,7 +102,10 @@ public ECCurve create()
             }
 
             c.coord = coord;
+            c.endomorphism = endomorphism;
             c.multiplier = multiplier;
+            c.pointCacheSize = pointCacheSize;
+            c.pointCache = pointCacheSize > 0 ? new ECPointCache(pointCacheSize) : null;
 
             return c;
         }
@@ -70,7 +113,12 @@ public ECCurve create()
 
     protected ECFieldElement a, b;
     protected int coord = COORD_AFFINE;
+    protected ECEndomorphism endomorphism = null;
     protected ECMultiplier multiplier = null;
+    protected volatile PreCompInfo basePointPreCompInfo = null;
+    protected int pointCacheSize = DEFAULT_POINT_CACHE_SIZE;
+
+    private ECPointCache pointCache = null;
 
     public abstract int getFieldSize();
 
@@ -78,7 +126,7 @@ public ECCurve create()
 
     public Config configure()
     {
-        return new Config(this.coord, this.multiplier);
+        return new Config(this.coord, this.endomorphism, this.multiplier, this.pointCacheSize);
     }
 
     public ECPoint createPoint(BigInteger x, BigInteger y)
@@ -101,6 +149,11 @@ public ECPoint createPoint(BigInteger x, BigInteger y, boolean withCompression)
 
     protected ECMultiplier createDefaultMultiplier()
     {
+        if (endomorphism instanceof GLVEndomorphism)
+        {
+            return new GLVMultiplier(this, (GLVEndomorphism)endomorphism);
+        }
+
         return new WNafL2RMultiplier();
     }
 
@@ -131,6 +184,29 @@ public void setPreCompInfo(ECPoint point, PreCompInfo preCompInfo)
         point.preCompInfo = preCompInfo;
     }
 
+    /**
+     * Return the precomputation kept for a fixed point of this curve, normally the base point.
+     * Unlike {@link #getPreCompInfo(ECPoint)} this is shared by every instance of that point, so
+     * it survives the point being decoded again.
+     */
+    public PreCompInfo getBasePointPreCompInfo()
+    {
+        return basePointPreCompInfo;
+    }
+
+    /**
+     * Sets the precomputation shared by all instances of a fixed point of this curve. Used by
+     * <code>FixedPointCombMultiplier</code>, whose <code>PreCompInfo</code> records the point it
+     * was built for.
+     * 
+     * @param preCompInfo
+     *            The values precomputed by the <code>ECMultiplier</code>.
+     */
+    public void setBasePointPreCompInfo(PreCompInfo preCompInfo)
+    {
+        this.basePointPreCompInfo = preCompInfo;
+    }
+
     public ECPoint importPoint(ECPoint p)
     {
         if (this == p.getCurve())
@@ -197,6 +273,36 @@ public void normalizeAll(ECPoint[] points)
         }
     }
 
+    /**
+     * Encode several points at once. The points are normalized together first (see
+     * {@link #normalizeAll(ECPoint[])}), so only a single field inversion is needed rather than
+     * one per point. The array passed in is not modified.
+     * 
+     * @param points
+     *            An array of points on this curve; <code>null</code> entries encode as
+     *            <code>null</code>
+     * @param compressed
+     *            whether to use the compressed encoding
+     * @return the encodings, in the same order as <code>points</code>
+     */
+    public byte[][] encodeAll(ECPoint[] points, boolean compressed)
+    {
+        ECPoint[] normalized = new ECPoint[points.length];
+        System.arraycopy(points, 0, normalized, 0, points.length);
+
+        normalizeAll(normalized);
+
+        byte[][] encodings = new byte[normalized.length][];
+        for (int i = 0; i < normalized.length; ++i)
+        {
+            if (normalized[i] != null)
+            {
+                encodings[i] = normalized[i].getEncoded(compressed);
+            }
+        }
+        return encodings;
+    }
+
     public abstract ECPoint getInfinity();
 
     public ECFieldElement getA()
@@ -214,6 +320,11 @@ public int getCoordinateSystem()
         return coord;
     }
 
+    public ECEndomorphism getEndomorphism()
+    {
+        return endomorphism;
+    }
+
     protected abstract ECPoint decompressPoint(int yTilde, BigInteger X1);
 
     /**
@@ -232,10 +343,24 @@ public ECMultiplier getMultiplier()
      * Decode a point on this curve from its ASN.1 encoding. The different
      * encodings are taken account of, including point compression for
      * <code>F<sub>p</sub></code> (X9.62 s 4.2.1 pg 17).
+     * <p>
+     * If the curve was configured with a {@link Config#setPointCacheSize(int) point cache},
+     * recently decoded points are cached by encoding, so decoding the same encoding again may
+     * return the same (immutable) instance, together with any precomputation attached to it.
      * @return The decoded point.
      */
     public ECPoint decodePoint(byte[] encoded)
     {
+        ECPointCache cache = this.pointCache;
+        if (cache != null && encoded.length > 1)
+        {
+            ECPoint cached = cache.get(encoded);
+            if (cached != null)
+            {
+                return cached;
+            }
+        }
+
         ECPoint p = null;
         int expectedLength = (getFieldSize() + 7) / 8;
 
@@ -284,9 +409,37 @@ public ECPoint decodePoint(byte[] encoded)
             throw new IllegalArgumentException("Invalid point encoding 0x" + Integer.toString(encoded[0], 16));
         }
 
+        if (cache != null && !p.isInfinity())
+        {
+            cache.put(encoded, p);
+        }
+
         return p;
     }
 
+    /**
+     * Decode several points on this curve, as by {@link #decodePoint(byte[])}. The square root
+     * exponents needed for compressed encodings are set up once for the curve, and shared by all
+     * the points.
+     *
+     * @param encodings
+     *            An array of point encodings; <code>null</code> entries decode as
+     *            <code>null</code>
+     * @return the decoded points, in the same order as <code>encodings</code>
+     */
+    public ECPoint[] decodePoints(byte[][] encodings)
+    {
+        ECPoint[] points = new ECPoint[encodings.length];
+        for (int i = 0; i < encodings.length; ++i)
+        {
+            if (encodings[i] != null)
+            {
+                points[i] = decodePoint(encodings[i]);
+            }
+        }
+        return points;
+    }
+
     protected void checkPoint(ECPoint point)
     {
         if (null == point || (this != point.getCurve()))
@@ -322,6 +475,9 @@ public static class Fp extends ECCurve
         BigInteger q, r;
         ECPoint.Fp infinity;
 
+        private volatile MontgomeryField montgomeryField;
+        private volatile FpSquareRoot squareRoot;
+
         public Fp(BigInteger q, BigInteger a, BigInteger b)
         {
             this.q = q;
@@ -373,6 +529,34 @@ public int getFieldSize()
             return q.bitLength();
         }
 
+        /*
+         * The field arithmetic used by MutableFpPoint, created on first use. A race may create
+         * it more than once, but the instances are immutable and equivalent.
+         */
+        MontgomeryField getMontgomeryField()
+        {
+            MontgomeryField field = montgomeryField;
+            if (field == null)
+            {
+                montgomeryField = field = new MontgomeryField(q, a.toBigInteger());
+            }
+            return field;
+        }
+
+        /*
+         * The square root exponents used to decompress points, created on first use. As for
+         * getMontgomeryField, a race may create it more than once.
+         */
+        private FpSquareRoot getSquareRoot()
+        {
+            FpSquareRoot sqrt = squareRoot;
+            if (sqrt == null)
+            {
+                squareRoot = sqrt = new FpSquareRoot(this);
+            }
+            return sqrt;
+        }
+
         public ECFieldElement fromBigInteger(BigInteger x)
         {
             return new ECFieldElement.Fp(this.q, this.r, x);
@@ -383,6 +567,11 @@ protected ECPoint createRawPoint(ECFieldElement x, ECFieldElement y, boolean wit
             return new ECPoint.Fp(this, x, y, withCompression);
         }
 
+        protected ECPoint createRawPoint(ECFieldElement x, ECFieldElement y, ECFieldElement[] zs, boolean withCompression)
+        {
+            return new ECPoint.Fp(this, x, y, zs, withCompression);
+        }
+
         public ECPoint importPoint(ECPoint p)
         {
             if (this != p.getCurve() && this.getCoordinateSystem() == COORD_JACOBIAN && !p.isInfinity())
@@ -392,7 +581,7 @@ public ECPoint importPoint(ECPoint p)
                 case COORD_JACOBIAN:
                 case COORD_JACOBIAN_CHUDNOVSKY:
                 case COORD_JACOBIAN_MODIFIED:
-                    return new ECPoint.Fp(this,
+                    return createRawPoint(
                         fromBigInteger(p.x.toBigInteger()),
                         fromBigInteger(p.y.toBigInteger()),
                         new ECFieldElement[]{ fromBigInteger(p.zs[0].toBigInteger()) },
@@ -409,7 +598,12 @@ protected ECPoint decompressPoint(int yTilde, BigInteger X1)
         {
             ECFieldElement x = fromBigInteger(X1);
             ECFieldElement alpha = x.multiply(x.square().add(a)).add(b);
-            ECFieldElement beta = alpha.sqrt();
+
+            /*
+             * Field elements of the custom curves have their own (faster) sqrt, otherwise use the
+             * exponents cached for this curve
+             */
+            ECFieldElement beta = (alpha instanceof ECFieldElement.Fp) ? getSquareRoot().sqrt(alpha) : alpha.sqrt();
 
             //
             // if we can't find a sqrt we haven't got a point on the
@@ -427,7 +621,7 @@ protected ECPoint decompressPoint(int yTilde, BigInteger X1)
                 beta = fromBigInteger(q.subtract(betaValue));
             }
 
-            return new ECPoint.Fp(this, x, beta, true);
+            return createRawPoint(x, beta, true);
         }
 
         public ECPoint getInfinity()
@@ -450,13 +644,15 @@ public boolean equals(
 
             ECCurve.Fp other = (ECCurve.Fp) anObject;
 
+            // Compare the values, since a specialised curve may use its own field element type
             return this.q.equals(other.q) 
-                    && a.equals(other.a) && b.equals(other.b);
+                    && a.toBigInteger().equals(other.a.toBigInteger())
+                    && b.toBigInteger().equals(other.b.toBigInteger());
         }
 
         public int hashCode() 
         {
-            return a.hashCode() ^ b.hashCode() ^ q.hashCode();
+            return a.toBigInteger().hashCode() ^ b.toBigInteger().hashCode() ^ q.hashCode();
         }
     }
 
@@ -467,6 +663,7 @@ public int hashCode()
     public static class F2m extends ECCurve
     {
         private static final int F2M_DEFAULT_COORDS = COORD_AFFINE;
+        private static final int WTAUNAF_TABLE_CAPACITY = 8;
 
         /**
          * The exponent <code>m</code> of <code>F<sub>2<sup>m</sup></sub></code>.
@@ -527,6 +724,32 @@ public static class F2m extends ECCurve
          */
         private BigInteger[] si = null;
 
+        /**
+         * The Lucas sequence element <code>V<sub>m</sub></code> used for
+         * partial modular reduction for Koblitz curves.
+         */
+        private BigInteger vm = null;
+
+        /**
+         * The base point set through {@link #setBasePoint(ECPoint)}, and its WTNAF
+         * table once built, kept apart from the tables of other points.
+         */
+        private ECPoint basePoint = null;
+        private WTauNafPreCompInfo basePointWTauNafPreCompInfo = null;
+
+        /**
+         * WTNAF tables for the most recently used points other than the base
+         * point, shared by every instance of those points so that they survive
+         * the point being created again.
+         */
+        private final Map wTauNafTables = new LinkedHashMap(16, 0.75f, true)
+        {
+            protected boolean removeEldestEntry(Map.Entry eldest)
+            {
+                return size() > WTAUNAF_TABLE_CAPACITY;
+            }
+        };
+
         /**
          * Constructor for Trinomial Polynomial Basis (TPB).
          * @param m  The exponent <code>m</code> of
@@ -806,6 +1029,83 @@ synchronized BigInteger[] getSi()
             return si;
         }
 
+        /**
+         * @return the Lucas sequence element <code>V<sub>m</sub></code> used for
+         * partial modular reduction for Koblitz curves.
+         */
+        synchronized BigInteger getVm()
+        {
+            if (vm == null)
+            {
+                vm = Tnaf.getLucas(getMu(), m, true)[1];
+            }
+            return vm;
+        }
+
+        /**
+         * Sets the base point of this curve. On Koblitz curves the WTNAF table
+         * of the base point is then kept in a slot of its own, so that it is
+         * not displaced by the tables of other points (e.g. the public keys of
+         * many signers). The named curve lookups set the generator as the base
+         * point when the curve is created.
+         *
+         * @param p the base point.
+         */
+        public void setBasePoint(ECPoint p)
+        {
+            checkPoint(p);
+            p = p.normalize();
+
+            synchronized (wTauNafTables)
+            {
+                if (!p.equals(basePoint))
+                {
+                    // Swap the tables of the old and new base points between the slot and the
+                    // shared tables
+                    if (basePoint != null && basePointWTauNafPreCompInfo != null)
+                    {
+                        wTauNafTables.put(basePoint, basePointWTauNafPreCompInfo);
+                    }
+                    basePoint = p;
+                    basePointWTauNafPreCompInfo = (WTauNafPreCompInfo)wTauNafTables.remove(p);
+                }
+            }
+        }
+
+        /**
+         * Return the WTNAF table kept on this curve for the given (normalized)
+         * point, or null if there is none.
+         */
+        WTauNafPreCompInfo getWTauNafPreCompInfo(ECPoint p)
+        {
+            synchronized (wTauNafTables)
+            {
+                if (p.equals(basePoint))
+                {
+                    return basePointWTauNafPreCompInfo;
+                }
+                return (WTauNafPreCompInfo)wTauNafTables.get(p);
+            }
+        }
+
+        /**
+         * Keep a WTNAF table on this curve, for the point it was built for.
+         */
+        void setWTauNafPreCompInfo(ECPoint p, WTauNafPreCompInfo preCompInfo)
+        {
+            synchronized (wTauNafTables)
+            {
+                if (p.equals(basePoint))
+                {
+                    basePointWTauNafPreCompInfo = preCompInfo;
+                }
+                else
+                {
+                    wTauNafTables.put(p, preCompInfo);
+                }
+            }
+        }
+
         /**
          * Decompresses a compressed point P = (xp, yp) (X9.62 s 4.2.2).
          * 
@@ -821,11 +1121,7 @@ protected ECPoint decompressPoint(int yTilde, BigInteger X1)
             ECFieldElement yp = null;
             if (xp.isZero())
             {
-                yp = (ECFieldElement.F2m)b;
-                for (int i = 0; i < m - 1; i++)
-                {
-                    yp = yp.square();
-                }
+                yp = b.squarePow(m - 1);
             }
             else
             {
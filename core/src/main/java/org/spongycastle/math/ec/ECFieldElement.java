@@ -32,6 +32,16 @@ public boolean isZero()
         return 0 == toBigInteger().signum();
     }
 
+    public ECFieldElement squarePow(int pow)
+    {
+        ECFieldElement r = this;
+        for (int i = 0; i < pow; ++i)
+        {
+            r = r.square();
+        }
+        return r;
+    }
+
     public boolean testBitZero()
     {
         return toBigInteger().testBit(0);
@@ -444,6 +454,11 @@ protected BigInteger modReduce(BigInteger x)
 //            else
             if (r != null)
             {
+                boolean negative = x.signum() < 0;
+                if (negative)
+                {
+                    x = x.abs();
+                }
                 int qLen = q.bitLength();
                 while (x.bitLength() > (qLen + 1))
                 {
@@ -459,6 +474,10 @@ protected BigInteger modReduce(BigInteger x)
                 {
                     x = x.subtract(q);
                 }
+                if (negative && x.signum() != 0)
+                {
+                    x = q.subtract(x);
+                }
             }
             else
             {
@@ -1210,6 +1229,11 @@ public ECFieldElement square()
             return new F2m(m, ks, x.modSquare(m, ks));
         }
 
+        public ECFieldElement squarePow(int pow)
+        {
+            return pow < 1 ? this : new F2m(m, ks, x.modSquareN(pow, m, ks));
+        }
+
         public ECFieldElement invert()
         {
             return new ECFieldElement.F2m(this.m, this.ks, this.x.modInverse(m, ks));
@@ -1217,7 +1241,8 @@ public ECFieldElement invert()
 
         public ECFieldElement sqrt()
         {
-            throw new RuntimeException("Not implemented");
+            // x^(2^m) == x, so sqrt(x) == x^(2^(m-1))
+            return squarePow(m - 1);
         }
 
         /**
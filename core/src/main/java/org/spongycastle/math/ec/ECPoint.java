@@ -47,7 +47,8 @@ protected static ECFieldElement[] getInitialZCoords(ECCurve curve)
 
     protected boolean withCompression;
 
-    protected PreCompInfo preCompInfo = null;
+    // Published without locking, so must only ever refer to a fully built PreCompInfo
+    protected volatile PreCompInfo preCompInfo = null;
 
     protected ECPoint(ECCurve curve, ECFieldElement x, ECFieldElement y)
     {
@@ -260,6 +261,21 @@ protected ECPoint createScaledPoint(ECFieldElement sx, ECFieldElement sy)
         return this.getCurve().createRawPoint(getRawXCoord().multiply(sx), getRawYCoord().multiply(sy), this.withCompression);
     }
 
+    /**
+     * Multiply the affine x coordinate of this point by a fixed scale factor, leaving y unchanged.
+     */
+    public ECPoint scaleX(ECFieldElement scale)
+    {
+        if (this.isInfinity())
+        {
+            return this;
+        }
+
+        ECPoint p = this.normalize();
+
+        return p.getCurve().createRawPoint(p.getRawXCoord().multiply(scale), p.getRawYCoord(), p.withCompression);
+    }
+
     public boolean isInfinity()
     {
         return x == null || y == null || (zs.length > 0 && zs[0].isZero());
@@ -495,7 +511,7 @@ public Fp(ECCurve curve, ECFieldElement x, ECFieldElement y, boolean withCompres
             this.withCompression = withCompression;
         }
 
-        Fp(ECCurve curve, ECFieldElement x, ECFieldElement y, ECFieldElement[] zs, boolean withCompression)
+        protected Fp(ECCurve curve, ECFieldElement x, ECFieldElement y, ECFieldElement[] zs, boolean withCompression)
         {
             super(curve, x, y, zs);
 
@@ -507,6 +523,31 @@ protected boolean getCompressionYTilde()
             return this.getAffineYCoord().testBitZero();
         }
 
+        public ECPoint scaleX(ECFieldElement scale)
+        {
+            if (this.isInfinity())
+            {
+                return this;
+            }
+
+            switch (this.getCurveCoordinateSystem())
+            {
+            case ECCurve.COORD_AFFINE:
+            case ECCurve.COORD_HOMOGENEOUS:
+            case ECCurve.COORD_JACOBIAN:
+            case ECCurve.COORD_JACOBIAN_MODIFIED:
+            {
+                // In each of these the affine x is the raw x divided by a function of the Zs only
+                ECCurve.Fp curve = (ECCurve.Fp)this.getCurve();
+                return curve.createRawPoint(this.x.multiply(scale), this.y, this.zs, this.withCompression);
+            }
+            default:
+            {
+                return super.scaleX(scale);
+            }
+            }
+        }
+
         public ECFieldElement getZCoord(int index)
         {
             if (index == 1 && ECCurve.COORD_JACOBIAN_MODIFIED == this.getCurveCoordinateSystem())
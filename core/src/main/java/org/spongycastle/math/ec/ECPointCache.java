@@ -0,0 +1,59 @@
+package org.spongycastle.math.ec;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.spongycastle.util.Arrays;
+
+/**
+ * A small least-recently-used cache of decoded points, keyed by their encoding. Used by
+ * {@link ECCurve#decodePoint(byte[])} so that a public key decoded afresh for every request still
+ * finds the precomputation built for it the last time.
+ */
+class ECPointCache
+{
+    private final Map entries;
+
+    ECPointCache(final int capacity)
+    {
+        this.entries = new LinkedHashMap(16, 0.75f, true)
+        {
+            protected boolean removeEldestEntry(Map.Entry eldest)
+            {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized ECPoint get(byte[] encoded)
+    {
+        return (ECPoint)entries.get(new Key(encoded));
+    }
+
+    synchronized void put(byte[] encoded, ECPoint p)
+    {
+        entries.put(new Key(Arrays.clone(encoded)), p);
+    }
+
+    private static class Key
+    {
+        private final byte[] encoded;
+        private final int hashCode;
+
+        Key(byte[] encoded)
+        {
+            this.encoded = encoded;
+            this.hashCode = Arrays.hashCode(encoded);
+        }
+
+        public boolean equals(Object other)
+        {
+            return (other instanceof Key) && Arrays.areEqual(encoded, ((Key)other).encoded);
+        }
+
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package org.spongycastle.math.ec;
+
+public interface ECPointMap
+{
+    ECPoint map(ECPoint p);
+}
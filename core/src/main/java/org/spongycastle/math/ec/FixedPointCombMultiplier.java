@@ -0,0 +1,117 @@
+package org.spongycastle.math.ec;
+
+import java.math.BigInteger;
+
+/**
+ * Class implementing a fixed-point comb multiplication, intended for repeated multiplications of
+ * the same point (typically the base point of a curve). The comb table is built on first use and
+ * kept with the point and its curve.
+ */
+public class FixedPointCombMultiplier extends AbstractECMultiplier
+{
+    private final boolean basePoint;
+
+    public FixedPointCombMultiplier()
+    {
+        this(true);
+    }
+
+    /**
+     * @param basePoint true if this multiplier is for the base point of the curve, whose table is
+     * then shared through {@link ECCurve#setBasePointPreCompInfo}; false for other long-lived
+     * points (such as a static peer key), whose tables are only kept with the point itself.
+     */
+    public FixedPointCombMultiplier(boolean basePoint)
+    {
+        this.basePoint = basePoint;
+    }
+
+    protected ECPoint multiplyPositive(ECPoint p, BigInteger k)
+    {
+        ECCurve c = p.getCurve();
+        int size = FixedPointUtil.getCombSize(c);
+
+        if (k.bitLength() > size)
+        {
+            /*
+             * The comb table only covers scalars up to the size of the group order, so leave
+             * anything larger to the curve's general purpose multiplier.
+             */
+            return c.getMultiplier().multiply(p, k);
+        }
+
+        int minWidth = getWidthForCombSize(size);
+
+        FixedPointPreCompInfo info = FixedPointUtil.precompute(p, minWidth, basePoint);
+        ECPoint[] lookupTable = info.getPreComp();
+        int width = info.getWidth();
+
+        int d = (size + width - 1) / width;
+
+        if (MutableFpPoint.isSupported(c))
+        {
+            return multiplyMutable((ECCurve.Fp)c, info, width, d, k);
+        }
+
+        ECPoint R = c.getInfinity();
+
+        int top = d * width - 1;
+        for (int i = 0; i < d; ++i)
+        {
+            int index = 0;
+
+            for (int j = top - i; j >= 0; j -= d)
+            {
+                index <<= 1;
+                if (k.testBit(j))
+                {
+                    index |= 1;
+                }
+            }
+
+            R = R.twicePlus(lookupTable[index]);
+        }
+
+        return R;
+    }
+
+    /*
+     * The same algorithm as multiplyPositive, on points updated in place.
+     */
+    private ECPoint multiplyMutable(ECCurve.Fp c, FixedPointPreCompInfo info, int width, int d, BigInteger k)
+    {
+        MutableFpPoint[] lookupTable = info.mutablePreComp;
+        if (lookupTable == null)
+        {
+            lookupTable = MutableFpPoint.importPoints(c, info.getPreComp());
+            info.mutablePreComp = lookupTable;
+        }
+
+        MutableFpPoint R = new MutableFpPoint(c);
+
+        int top = d * width - 1;
+        for (int i = 0; i < d; ++i)
+        {
+            int index = 0;
+
+            for (int j = top - i; j >= 0; j -= d)
+            {
+                index <<= 1;
+                if (k.testBit(j))
+                {
+                    index |= 1;
+                }
+            }
+
+            R.twice();
+            R.add(lookupTable[index]);
+        }
+
+        return R.toECPoint();
+    }
+
+    protected int getWidthForCombSize(int combSize)
+    {
+        return combSize > 257 ? 6 : 5;
+    }
+}
@@ -0,0 +1,61 @@
+package org.spongycastle.math.ec;
+
+/**
+ * Class holding precomputation data for fixed-point multiplications.
+ */
+public class FixedPointPreCompInfo implements PreCompInfo
+{
+    /**
+     * The point the table was built for, in normalized form.
+     */
+    protected ECPoint point = null;
+
+    /**
+     * Array holding the precomputed <code>ECPoint</code>s used for a fixed
+     * point multiplication.
+     */
+    protected ECPoint[] preComp = null;
+
+    /**
+     * The width used for the precomputation. If a larger width precomputation
+     * is already available this may be larger than was requested, so calling
+     * code should refer to the actual width.
+     */
+    protected int width = -1;
+
+    /**
+     * The precomputed points imported for {@link MutableFpPoint} arithmetic, kept so that the
+     * conversion is only done once. The entries are only ever read.
+     */
+    volatile MutableFpPoint[] mutablePreComp = null;
+
+    public ECPoint getPoint()
+    {
+        return point;
+    }
+
+    public void setPoint(ECPoint point)
+    {
+        this.point = point;
+    }
+
+    public ECPoint[] getPreComp()
+    {
+        return preComp;
+    }
+
+    public void setPreComp(ECPoint[] preComp)
+    {
+        this.preComp = preComp;
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+
+    public void setWidth(int width)
+    {
+        this.width = width;
+    }
+}
@@ -0,0 +1,102 @@
+package org.spongycastle.math.ec;
+
+public class FixedPointUtil
+{
+    public static int getCombSize(ECCurve c)
+    {
+        // The group order of a curve over a field of size q is at most q + 1 + 2.sqrt(q)
+        return c.getFieldSize() + 1;
+    }
+
+    public static FixedPointPreCompInfo getFixedPointPreCompInfo(PreCompInfo preCompInfo)
+    {
+        if ((preCompInfo != null) && (preCompInfo instanceof FixedPointPreCompInfo))
+        {
+            return (FixedPointPreCompInfo)preCompInfo;
+        }
+
+        return new FixedPointPreCompInfo();
+    }
+
+    /**
+     * Return a comb table of at least the given width for the point <code>p</code>. Tables are
+     * stored both on the point and on its curve, so that a separately decoded instance of the same
+     * point (typically the base point) can reuse the table built for another.
+     */
+    public static FixedPointPreCompInfo precompute(ECPoint p, int minWidth)
+    {
+        return precompute(p, minWidth, true);
+    }
+
+    /**
+     * Return a comb table of at least the given width for the point <code>p</code>, stored on the
+     * point, and also on its curve if <code>shareWithCurve</code> is true. Tables for points other
+     * than the base point (e.g. a long-lived peer key) should not be shared, so that they do not
+     * displace the base point's table from the curve.
+     */
+    public static FixedPointPreCompInfo precompute(ECPoint p, int minWidth, boolean shareWithCurve)
+    {
+        ECCurve c = p.getCurve();
+
+        FixedPointPreCompInfo info = getFixedPointPreCompInfo(c.getPreCompInfo(p));
+        if (isUsable(info, minWidth))
+        {
+            return info;
+        }
+
+        FixedPointPreCompInfo shared = getFixedPointPreCompInfo(c.getBasePointPreCompInfo());
+        if (isUsable(shared, minWidth) && shared.getPoint().equals(p))
+        {
+            c.setPreCompInfo(p, shared);
+            return shared;
+        }
+
+        int n = 1 << minWidth;
+        int bits = getCombSize(c);
+        int d = (bits + minWidth - 1) / minWidth;
+
+        ECPoint[] pow2Table = new ECPoint[minWidth];
+        pow2Table[0] = p;
+        for (int i = 1; i < minWidth; ++i)
+        {
+            pow2Table[i] = pow2Table[i - 1].timesPow2(d);
+        }
+
+        c.normalizeAll(pow2Table);
+
+        ECPoint[] lookupTable = new ECPoint[n];
+        lookupTable[0] = c.getInfinity();
+
+        for (int bit = minWidth - 1; bit >= 0; --bit)
+        {
+            ECPoint pow2 = pow2Table[bit];
+
+            int step = 1 << bit;
+            for (int i = step; i < n; i += (step << 1))
+            {
+                lookupTable[i] = lookupTable[i - step].add(pow2);
+            }
+        }
+
+        c.normalizeAll(lookupTable);
+
+        info = new FixedPointPreCompInfo();
+        info.setPoint(pow2Table[0]);
+        info.setPreComp(lookupTable);
+        info.setWidth(minWidth);
+
+        c.setPreCompInfo(p, info);
+        if (shareWithCurve)
+        {
+            c.setBasePointPreCompInfo(info);
+        }
+
+        return info;
+    }
+
+    private static boolean isUsable(FixedPointPreCompInfo info, int minWidth)
+    {
+        ECPoint[] table = info.getPreComp();
+        return table != null && table.length >= (1 << minWidth);
+    }
+}
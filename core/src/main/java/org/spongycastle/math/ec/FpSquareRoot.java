@@ -0,0 +1,153 @@
+package org.spongycastle.math.ec;
+
+import java.math.BigInteger;
+
+/**
+ * Square roots in the field of an {@link ECCurve.Fp}, with the exponents (and for q = 1 mod 8, the
+ * Tonelli-Shanks non-residue) worked out once, so that a root then costs a single modular
+ * exponentiation instead of the Legendre symbol and Lucas sequence evaluated by
+ * {@link ECFieldElement.Fp#sqrt()}. Instances are immutable.
+ */
+class FpSquareRoot
+{
+    /*
+     * Tonelli-Shanks needs up to s^2 / 2 further multiplications, which for large s (e.g. s = 96
+     * for P-224) costs more than the Lucas sequence method, so that is kept for such primes.
+     */
+    private static final int MAX_TONELLI_SHANKS_S = 32;
+
+    private final ECCurve.Fp curve;
+    private final BigInteger q;
+    private final int s;
+    private final BigInteger e, c;
+
+    FpSquareRoot(ECCurve.Fp curve)
+    {
+        BigInteger q = curve.getQ();
+
+        this.curve = curve;
+        this.q = q;
+
+        if (q.testBit(1))
+        {
+            // q = 3 mod 4: sqrt(x) = x^((q + 1) / 4)
+            this.s = 1;
+            this.e = q.shiftRight(2).add(ECConstants.ONE);
+            this.c = null;
+        }
+        else if (q.testBit(2))
+        {
+            // q = 5 mod 8 (Atkin): t = (2x)^((q - 5) / 8), sqrt(x) = x.t.(2x.t^2 - 1)
+            this.s = 2;
+            this.e = q.shiftRight(3);
+            this.c = null;
+        }
+        else
+        {
+            // q = 1 mod 8 (Tonelli-Shanks): q - 1 = Q.2^s, Q odd, and c = n^Q for a non-residue n
+            BigInteger qMinusOne = q.subtract(ECConstants.ONE);
+            int s = qMinusOne.getLowestSetBit();
+            if (s > MAX_TONELLI_SHANKS_S)
+            {
+                this.s = s;
+                this.e = null;
+                this.c = null;
+                return;
+            }
+
+            BigInteger Q = qMinusOne.shiftRight(s);
+
+            BigInteger legendreExponent = qMinusOne.shiftRight(1);
+            BigInteger n = ECConstants.TWO;
+            while (!n.modPow(legendreExponent, q).equals(qMinusOne))
+            {
+                n = n.add(ECConstants.ONE);
+            }
+
+            this.s = s;
+            this.e = Q.shiftRight(1);
+            this.c = n.modPow(Q, q);
+        }
+    }
+
+    /**
+     * @return a square root of the field element a, or null if a is not a quadratic residue.
+     */
+    ECFieldElement sqrt(ECFieldElement a)
+    {
+        if (e == null)
+        {
+            return a.sqrt();
+        }
+
+        BigInteger x = a.toBigInteger();
+        if (x.signum() == 0)
+        {
+            return a;
+        }
+
+        BigInteger z;
+        if (c == null)
+        {
+            if (s == 1)
+            {
+                z = x.modPow(e, q);
+            }
+            else
+            {
+                BigInteger twoX = x.shiftLeft(1);
+                BigInteger t = twoX.modPow(e, q);
+                BigInteger i = twoX.multiply(t).multiply(t).mod(q);
+                z = x.multiply(t).multiply(i.subtract(ECConstants.ONE)).mod(q);
+            }
+        }
+        else
+        {
+            z = tonelliShanks(x);
+            if (z == null)
+            {
+                return null;
+            }
+        }
+
+        return z.multiply(z).mod(q).equals(x) ? curve.fromBigInteger(z) : null;
+    }
+
+    private BigInteger tonelliShanks(BigInteger x)
+    {
+        // w = x^((Q - 1) / 2), then t = x^Q = x.w^2 and r = x^((Q + 1) / 2) = x.w
+        BigInteger w = x.modPow(e, q);
+        BigInteger r = x.multiply(w).mod(q);
+        BigInteger t = r.multiply(w).mod(q);
+        BigInteger b = c;
+        int m = s;
+
+        while (!t.equals(ECConstants.ONE))
+        {
+            // Least i with t^(2^i) == 1
+            int i = 0;
+            BigInteger t2 = t;
+            do
+            {
+                if (++i == m)
+                {
+                    return null;
+                }
+                t2 = t2.multiply(t2).mod(q);
+            }
+            while (!t2.equals(ECConstants.ONE));
+
+            for (int j = m - i - 1; j > 0; --j)
+            {
+                b = b.multiply(b).mod(q);
+            }
+
+            m = i;
+            r = r.multiply(b).mod(q);
+            b = b.multiply(b).mod(q);
+            t = t.multiply(b).mod(q);
+        }
+
+        return r;
+    }
+}
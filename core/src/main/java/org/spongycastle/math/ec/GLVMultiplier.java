@@ -0,0 +1,39 @@
+package org.spongycastle.math.ec;
+
+import java.math.BigInteger;
+
+import org.spongycastle.math.ec.endo.GLVEndomorphism;
+
+/**
+ * Class implementing scalar multiplication using a GLV endomorphism: the scalar is split into two
+ * half-length parts, and the two partial multiplications are interleaved so that the number of
+ * doublings is roughly halved.
+ */
+public class GLVMultiplier extends AbstractECMultiplier
+{
+    protected final ECCurve curve;
+    protected final GLVEndomorphism glvEndomorphism;
+
+    public GLVMultiplier(ECCurve curve, GLVEndomorphism glvEndomorphism)
+    {
+        if (curve == null)
+        {
+            throw new IllegalArgumentException("Need curve info");
+        }
+
+        this.curve = curve;
+        this.glvEndomorphism = glvEndomorphism;
+    }
+
+    protected ECPoint multiplyPositive(ECPoint p, BigInteger k)
+    {
+        if (!curve.equals(p.getCurve()))
+        {
+            throw new IllegalStateException();
+        }
+
+        BigInteger[] ab = glvEndomorphism.decomposeScalar(k);
+
+        return ECAlgorithms.implSumOfMultiplies(new ECPoint[]{ p }, glvEndomorphism.getPointMap(), ab);
+    }
+}
@@ -0,0 +1,136 @@
+package org.spongycastle.math.ec;
+
+import java.math.BigInteger;
+
+import org.spongycastle.math.raw.Mod;
+import org.spongycastle.math.raw.Nat;
+
+/**
+ * Arithmetic modulo the odd prime q of an {@link ECCurve.Fp}, on Montgomery representatives
+ * x.2^(32.len) mod q held as {@link Nat} arrays of len words. Every operation writes into a
+ * caller supplied array, and products use a caller supplied scratch array of 2.len words, so
+ * nothing here allocates except the conversions to and from BigInteger.
+ * <p>
+ * The curve coefficient a is kept here too, in Montgomery form, for the doubling formulas of
+ * {@link MutableFpPoint}. Instances are immutable once constructed.
+ */
+class MontgomeryField
+{
+    final BigInteger q;
+    final int len;
+
+    final int[] a, one;
+    final boolean aIsZero, aIsMinus3;
+
+    private final int[] p;
+    private final int qInv;
+
+    MontgomeryField(BigInteger q, BigInteger a)
+    {
+        this.q = q;
+        this.len = (q.bitLength() + 31) >>> 5;
+        this.p = Nat.fromBigInteger(len << 5, q);
+
+        this.qInv = -Mod.inverse32(p[0]);
+
+        a = a.mod(q);
+        this.a = create();
+        fromBigInteger(a, this.a);
+        this.one = create();
+        fromBigInteger(ECConstants.ONE, this.one);
+        this.aIsZero = a.signum() == 0;
+        this.aIsMinus3 = a.add(ECConstants.THREE).equals(q);
+    }
+
+    int[] create()
+    {
+        return new int[len];
+    }
+
+    int[] createExt()
+    {
+        return new int[len << 1];
+    }
+
+    void fromBigInteger(BigInteger x, int[] z)
+    {
+        int[] t = Nat.fromBigInteger(len << 5, x.shiftLeft(len << 5).mod(q));
+        Nat.copy(len, t, z);
+    }
+
+    BigInteger toBigInteger(int[] x)
+    {
+        int[] tt = createExt();
+        Nat.copy(len, x, tt);
+
+        int[] z = create();
+        reduce(tt, z);
+        return Nat.toBigInteger(len, z);
+    }
+
+    void add(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.add(len, x, y, z);
+        if (c != 0 || Nat.gte(len, z, p))
+        {
+            Nat.subFrom(len, p, z);
+        }
+    }
+
+    void copy(int[] x, int[] z)
+    {
+        Nat.copy(len, x, z);
+    }
+
+    boolean isZero(int[] x)
+    {
+        return Nat.isZero(len, x);
+    }
+
+    void mul(int[] x, int[] y, int[] z, int[] tt)
+    {
+        Nat.mul(len, x, y, tt);
+        reduce(tt, z);
+    }
+
+    void negate(int[] x, int[] z)
+    {
+        if (Nat.isZero(len, x))
+        {
+            Nat.zero(len, z);
+        }
+        else
+        {
+            Nat.sub(len, p, x, z);
+        }
+    }
+
+    void sqr(int[] x, int[] z, int[] tt)
+    {
+        Nat.square(len, x, tt);
+        reduce(tt, z);
+    }
+
+    void sub(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.sub(len, x, y, z);
+        if (c != 0)
+        {
+            Nat.addTo(len, p, z);
+        }
+    }
+
+    void twice(int[] x, int[] z)
+    {
+        int c = Nat.shiftUpBit(len, x, 0, z);
+        if (c != 0 || Nat.gte(len, z, p))
+        {
+            Nat.subFrom(len, p, z);
+        }
+    }
+
+    private void reduce(int[] tt, int[] z)
+    {
+        Mod.montgomeryReduce(p, qInv, tt, z);
+    }
+}
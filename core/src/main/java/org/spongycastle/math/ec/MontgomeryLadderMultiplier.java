@@ -9,6 +9,11 @@ public class MontgomeryLadderMultiplier extends AbstractECMultiplier
      */
     protected ECPoint multiplyPositive(ECPoint p, BigInteger k)
     {
+        if (MutableFpPoint.isSupported(p.getCurve()))
+        {
+            return multiplyMutable((ECCurve.Fp)p.getCurve(), p, k);
+        }
+
         ECPoint[] R = new ECPoint[]{ p.getCurve().getInfinity(), p };
 
         int n = k.bitLength();
@@ -22,4 +27,21 @@ protected ECPoint multiplyPositive(ECPoint p, BigInteger k)
         }
         return R[0];
     }
+
+    private ECPoint multiplyMutable(ECCurve.Fp curve, ECPoint p, BigInteger k)
+    {
+        MutableFpPoint[] R = new MutableFpPoint[]{ new MutableFpPoint(curve), new MutableFpPoint(curve) };
+        R[1].set(p);
+
+        int n = k.bitLength();
+        int i = n;
+        while (--i >= 0)
+        {
+            int b = k.testBit(i) ? 1 : 0;
+            int bp = 1 - b;
+            R[bp].add(R[b]);
+            R[b].twice();
+        }
+        return R[0].toECPoint();
+    }
 }
@@ -0,0 +1,403 @@
+package org.spongycastle.math.ec;
+
+import java.math.BigInteger;
+
+/**
+ * A point of an {@link ECCurve.Fp} in Jacobian coordinates (x = X/Z^2, y = Y/Z^3), over a
+ * {@link MontgomeryField}, that is updated in place. The multipliers use these in their inner
+ * loops instead of {@link ECPoint.Fp}, which allocates new points and field elements at every
+ * step; the result is converted back to an ECPoint in the curve's coordinate system once, at
+ * the end.
+ * <p>
+ * Instances are not thread-safe, and are only meant to live for a single multiplication.
+ */
+class MutableFpPoint
+{
+    private final ECCurve.Fp curve;
+    private final MontgomeryField field;
+
+    private final int[] x, y, z;
+    private boolean zIsOne, infinity;
+    private boolean withCompression;
+
+    // Scratch space, only created for points that are the target of an addition or doubling
+    private int[] t1, t2, t3, t4, t5, t6, t7, tt;
+
+    MutableFpPoint(ECCurve.Fp curve)
+    {
+        this.curve = curve;
+        this.field = curve.getMontgomeryField();
+        this.x = field.create();
+        this.y = field.create();
+        this.z = field.create();
+        this.infinity = true;
+    }
+
+    /**
+     * Whether the multipliers should use this class for points of the given curve. Curves with
+     * their own field implementation (see the custom.sec package) are excluded, since their
+     * specialised reductions beat the generic Montgomery arithmetic here.
+     */
+    static boolean isSupported(ECCurve c)
+    {
+        return c instanceof ECCurve.Fp && c.getA() instanceof ECFieldElement.Fp;
+    }
+
+    static MutableFpPoint[] importPoints(ECCurve.Fp curve, ECPoint[] ps)
+    {
+        MutableFpPoint[] result = new MutableFpPoint[ps.length];
+        for (int i = 0; i < ps.length; ++i)
+        {
+            result[i] = new MutableFpPoint(curve);
+            result[i].set(ps[i]);
+        }
+        return result;
+    }
+
+    static MutableFpPoint[] negatePoints(MutableFpPoint[] ps)
+    {
+        MutableFpPoint[] result = new MutableFpPoint[ps.length];
+        for (int i = 0; i < ps.length; ++i)
+        {
+            result[i] = new MutableFpPoint(ps[i].curve);
+            result[i].set(ps[i]);
+            result[i].negate();
+        }
+        return result;
+    }
+
+    void set(ECPoint p)
+    {
+        this.withCompression = p.withCompression;
+
+        if (p.isInfinity())
+        {
+            this.infinity = true;
+            return;
+        }
+
+        this.infinity = false;
+
+        field.fromBigInteger(p.getRawXCoord().toBigInteger(), x);
+        field.fromBigInteger(p.getRawYCoord().toBigInteger(), y);
+
+        int coord = curve.getCoordinateSystem();
+        switch (coord)
+        {
+        case ECCurve.COORD_AFFINE:
+        {
+            field.copy(field.one, z);
+            this.zIsOne = true;
+            break;
+        }
+        case ECCurve.COORD_HOMOGENEOUS:
+        case ECCurve.COORD_JACOBIAN:
+        case ECCurve.COORD_JACOBIAN_MODIFIED:
+        {
+            ECFieldElement Z = p.getZCoord(0);
+            this.zIsOne = Z.bitLength() == 1;
+            field.fromBigInteger(Z.toBigInteger(), z);
+
+            if (coord == ECCurve.COORD_HOMOGENEOUS && !zIsOne)
+            {
+                // (X/Z, Y/Z) = (X.Z/Z^2, Y.Z^2/Z^3)
+                ensureScratch();
+                field.mul(x, z, x, tt);
+                field.sqr(z, t1, tt);
+                field.mul(y, t1, y, tt);
+            }
+            break;
+        }
+        default:
+        {
+            throw new IllegalStateException("unsupported coordinate system");
+        }
+        }
+    }
+
+    void set(MutableFpPoint p)
+    {
+        this.withCompression = p.withCompression;
+        this.infinity = p.infinity;
+        this.zIsOne = p.zIsOne;
+
+        field.copy(p.x, x);
+        field.copy(p.y, y);
+        field.copy(p.z, z);
+    }
+
+    void setInfinity()
+    {
+        this.infinity = true;
+    }
+
+    void negate()
+    {
+        if (!infinity)
+        {
+            field.negate(y, y);
+        }
+    }
+
+    /**
+     * this = this + b. b may be this point itself.
+     */
+    void add(MutableFpPoint b)
+    {
+        if (b.infinity)
+        {
+            return;
+        }
+        if (this.infinity)
+        {
+            set(b);
+            return;
+        }
+
+        ensureScratch();
+
+        int[] U1, S1, U2, S2;
+        if (zIsOne)
+        {
+            U2 = b.x;
+            S2 = b.y;
+        }
+        else
+        {
+            U2 = t2;
+            S2 = t3;
+            field.sqr(z, t1, tt);
+            field.mul(t1, b.x, U2, tt);
+            field.mul(t1, z, t1, tt);
+            field.mul(t1, b.y, S2, tt);
+        }
+
+        if (b.zIsOne)
+        {
+            U1 = x;
+            S1 = y;
+        }
+        else
+        {
+            U1 = t4;
+            S1 = t5;
+            field.sqr(b.z, t1, tt);
+            field.mul(t1, x, U1, tt);
+            field.mul(t1, b.z, t1, tt);
+            field.mul(t1, y, S1, tt);
+        }
+
+        int[] H = t6, R = t7;
+        field.sub(U2, U1, H);
+        field.sub(S2, S1, R);
+
+        if (field.isZero(H))
+        {
+            if (field.isZero(R))
+            {
+                twice();
+            }
+            else
+            {
+                this.infinity = true;
+            }
+            return;
+        }
+
+        int[] HSquared = t2, G = t3, V = t2, S1G = t1;
+        field.sqr(H, HSquared, tt);
+        field.mul(HSquared, H, G, tt);
+        field.mul(HSquared, U1, V, tt);
+        field.mul(S1, G, S1G, tt);
+
+        // Z3 = Z1.Z2.H (before Z1 is overwritten, and b.z is read in case b == this)
+        if (!zIsOne)
+        {
+            field.mul(H, z, H, tt);
+        }
+        if (!b.zIsOne)
+        {
+            field.mul(H, b.z, H, tt);
+        }
+
+        // X3 = R^2 - G - 2V
+        field.sqr(R, x, tt);
+        field.sub(x, G, x);
+        field.sub(x, V, x);
+        field.sub(x, V, x);
+
+        // Y3 = R.(V - X3) - S1.G
+        field.sub(V, x, V);
+        field.mul(V, R, y, tt);
+        field.sub(y, S1G, y);
+
+        field.copy(H, z);
+        this.zIsOne = false;
+    }
+
+    /**
+     * this = 2.this
+     */
+    void twice()
+    {
+        if (infinity)
+        {
+            return;
+        }
+        if (field.isZero(y))
+        {
+            this.infinity = true;
+            return;
+        }
+
+        ensureScratch();
+
+        int[] YSquared = t1, S = t2, M = t3;
+        field.sqr(y, YSquared, tt);
+
+        // S = 4.X.Y^2
+        field.mul(x, YSquared, S, tt);
+        field.twice(S, S);
+        field.twice(S, S);
+
+        // M = 3.X^2 + a.Z^4
+        if (field.aIsMinus3)
+        {
+            // 3.X^2 - 3.Z^4 = 3.(X - Z^2).(X + Z^2)
+            int[] ZSquared = t4;
+            if (zIsOne)
+            {
+                ZSquared = field.one;
+            }
+            else
+            {
+                field.sqr(z, ZSquared, tt);
+            }
+            field.sub(x, ZSquared, t5);
+            field.add(x, ZSquared, t4);
+            field.mul(t4, t5, M, tt);
+            field.twice(M, t4);
+            field.add(M, t4, M);
+        }
+        else
+        {
+            field.sqr(x, M, tt);
+            field.twice(M, t4);
+            field.add(M, t4, M);
+
+            if (!field.aIsZero)
+            {
+                if (zIsOne)
+                {
+                    field.add(M, field.a, M);
+                }
+                else
+                {
+                    field.sqr(z, t4, tt);
+                    field.sqr(t4, t4, tt);
+                    field.mul(t4, field.a, t4, tt);
+                    field.add(M, t4, M);
+                }
+            }
+        }
+
+        // Z3 = 2.Y.Z
+        if (zIsOne)
+        {
+            field.twice(y, z);
+        }
+        else
+        {
+            field.mul(y, z, z, tt);
+            field.twice(z, z);
+        }
+
+        // X3 = M^2 - 2.S
+        field.sqr(M, x, tt);
+        field.sub(x, S, x);
+        field.sub(x, S, x);
+
+        // Y3 = M.(S - X3) - 8.Y^4
+        field.sub(S, x, S);
+        field.mul(S, M, S, tt);
+        field.sqr(YSquared, YSquared, tt);
+        field.twice(YSquared, YSquared);
+        field.twice(YSquared, YSquared);
+        field.twice(YSquared, YSquared);
+        field.sub(S, YSquared, y);
+
+        this.zIsOne = false;
+    }
+
+    void timesPow2(int e)
+    {
+        while (--e >= 0)
+        {
+            twice();
+        }
+    }
+
+    ECPoint toECPoint()
+    {
+        if (infinity)
+        {
+            return curve.getInfinity();
+        }
+
+        BigInteger q = field.q;
+        BigInteger X = field.toBigInteger(x), Y = field.toBigInteger(y), Z = field.toBigInteger(z);
+
+        switch (curve.getCoordinateSystem())
+        {
+        case ECCurve.COORD_AFFINE:
+        {
+            BigInteger zInv = Z.modInverse(q), zInv2 = zInv.multiply(zInv).mod(q);
+            X = X.multiply(zInv2).mod(q);
+            Y = Y.multiply(zInv2).multiply(zInv).mod(q);
+            return curve.createRawPoint(curve.fromBigInteger(X), curve.fromBigInteger(Y), withCompression);
+        }
+        case ECCurve.COORD_HOMOGENEOUS:
+        {
+            // (X/Z^2, Y/Z^3) = (X.Z/Z^3, Y/Z^3)
+            ECFieldElement[] zs = new ECFieldElement[]{ curve.fromBigInteger(Z.multiply(Z).multiply(Z).mod(q)) };
+            return curve.createRawPoint(curve.fromBigInteger(X.multiply(Z).mod(q)), curve.fromBigInteger(Y), zs,
+                withCompression);
+        }
+        case ECCurve.COORD_JACOBIAN:
+        {
+            ECFieldElement[] zs = new ECFieldElement[]{ curve.fromBigInteger(Z) };
+            return curve.createRawPoint(curve.fromBigInteger(X), curve.fromBigInteger(Y), zs, withCompression);
+        }
+        case ECCurve.COORD_JACOBIAN_MODIFIED:
+        {
+            ensureScratch();
+            field.sqr(z, t1, tt);
+            field.sqr(t1, t1, tt);
+            field.mul(t1, field.a, t1, tt);
+
+            ECFieldElement[] zs = new ECFieldElement[]{ curve.fromBigInteger(Z),
+                curve.fromBigInteger(field.toBigInteger(t1)) };
+            return curve.createRawPoint(curve.fromBigInteger(X), curve.fromBigInteger(Y), zs, withCompression);
+        }
+        default:
+        {
+            throw new IllegalStateException("unsupported coordinate system");
+        }
+        }
+    }
+
+    private void ensureScratch()
+    {
+        if (tt == null)
+        {
+            t1 = field.create();
+            t2 = field.create();
+            t3 = field.create();
+            t4 = field.create();
+            t5 = field.create();
+            t6 = field.create();
+            t7 = field.create();
+            tt = field.createExt();
+        }
+    }
+}
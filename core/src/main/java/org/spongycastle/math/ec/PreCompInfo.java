@@ -4,6 +4,9 @@
  * Interface for classes storing precomputation data for multiplication
  * algorithms. Used as a Memento (see GOF patterns) by e.g. 
  * <code>WNafL2RMultiplier</code>.
+ * <p>
+ * Points are routinely shared between threads, so an instance must not be modified once it has
+ * been stored with {@link ECCurve#setPreCompInfo(ECPoint, PreCompInfo)}; build a new one instead.
  */
 public interface PreCompInfo
 {
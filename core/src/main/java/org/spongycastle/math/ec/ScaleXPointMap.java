@@ -0,0 +1,20 @@
+package org.spongycastle.math.ec;
+
+/**
+ * Point map multiplying the x coordinate by a fixed scale factor, as used for the endomorphism
+ * (x, y) -> (beta.x, y) of curves of the form y^2 = x^3 + b.
+ */
+public class ScaleXPointMap implements ECPointMap
+{
+    protected final ECFieldElement scale;
+
+    public ScaleXPointMap(ECFieldElement scale)
+    {
+        this.scale = scale;
+    }
+
+    public ECPoint map(ECPoint p)
+    {
+        return p.scaleX(scale);
+    }
+}
@@ -591,6 +591,21 @@ else if (h == 4)
      */
     public static ZTauElement partModReduction(BigInteger k, int m, byte a,
             BigInteger[] s, byte mu, byte c)
+    {
+        BigInteger[] v = getLucas(mu, m, true);
+
+        return partModReduction(k, m, a, s, v[1], mu, c);
+    }
+
+    /**
+     * Partial modular reduction modulo
+     * <code>(&tau;<sup>m</sup> - 1)/(&tau; - 1)</code>, given the Lucas
+     * sequence element <code>V<sub>m</sub></code>, which depends only on the
+     * curve and so can be computed once (see
+     * {@link ECCurve.F2m#getVm()}).
+     */
+    public static ZTauElement partModReduction(BigInteger k, int m, byte a,
+            BigInteger[] s, BigInteger vm, byte mu, byte c)
     {
         // d0 = s[0] + mu*s[1]; mu is either 1 or -1
         BigInteger d0;
@@ -603,9 +618,6 @@ public static ZTauElement partModReduction(BigInteger k, int m, byte a,
             d0 = s[0].subtract(s[1]);
         }
 
-        BigInteger[] v = getLucas(mu, m, true);
-        BigInteger vm = v[1];
-
         SimpleBigDecimal lambda0 = approximateDivisionByN(
                 k, s[0], vm, a, m, c);
         
@@ -639,7 +651,7 @@ public static ECPoint.F2m multiplyRTnaf(ECPoint.F2m p, BigInteger k)
         byte a = (byte) curve.getA().toBigInteger().intValue();
         byte mu = curve.getMu();
         BigInteger[] s = curve.getSi();
-        ZTauElement rho = partModReduction(k, m, a, s, mu, (byte)10);
+        ZTauElement rho = partModReduction(k, m, a, s, curve.getVm(), mu, (byte)10);
 
         return multiplyTnaf(p, rho);
     }
@@ -725,78 +737,143 @@ public static byte[] tauAdicWNaf(byte mu, ZTauElement lambda,
         // The array holding the TNAF
         byte[] u = new byte[maxLength];
 
-        // 2^(width - 1)
-        BigInteger pow2wMin1 = pow2w.shiftRight(1);
-
-        // Split lambda into two BigIntegers to simplify calculations
-        BigInteger r0 = lambda.u;
-        BigInteger r1 = lambda.v;
+        /*
+         * The digits only depend on r0 and r1 mod 2^width, and the alphas are small, so the loop
+         * runs on fixed-length two's complement words updated in place, rather than allocating
+         * new BigIntegers for every digit. The extra words leave room for the growth from
+         * subtracting the alphas.
+         */
+        int mask = (1 << width) - 1, half = 1 << (width - 1);
+        int twInt = tw.intValue();
+
+        int len = (Math.max(lambda.u.bitLength(), lambda.v.bitLength()) >>> 5) + 2;
+        int[] r0 = toWords(lambda.u, len);
+        int[] r1 = toWords(lambda.v, len);
         int i = 0;
 
         // while lambda <> (0, 0)
-        while (!((r0.equals(ECConstants.ZERO))&&(r1.equals(ECConstants.ZERO))))
+        while (!(isZero(r0) && isZero(r1)))
         {
             // if r0 is odd
-            if (r0.testBit(0))
+            if ((r0[0] & 1) != 0)
             {
-                // uUnMod = r0 + r1*tw mod 2^width
-                BigInteger uUnMod
-                    = r0.add(r1.multiply(tw)).mod(pow2w);
-                
-                byte uLocal;
-                // if uUnMod >= 2^(width - 1)
-                if (uUnMod.compareTo(pow2wMin1) >= 0)
-                {
-                    uLocal = (byte) uUnMod.subtract(pow2w).intValue();
-                }
-                else
+                // uLocal = r0 + r1*tw mods 2^width, in [-2^(width-1), 2^(width-1)-1]
+                int uLocal = (r0[0] + r1[0] * twInt) & mask;
+                if (uLocal >= half)
                 {
-                    uLocal = (byte) uUnMod.intValue();
+                    uLocal -= 1 << width;
                 }
-                // uLocal is now in [-2^(width-1), 2^(width-1)-1]
 
-                u[i] = uLocal;
-                boolean s = true;
-                if (uLocal < 0)
-                {
-                    s = false;
-                    uLocal = (byte)-uLocal;
-                }
-                // uLocal is now >= 0
+                u[i] = (byte)uLocal;
 
-                if (s)
-                {
-                    r0 = r0.subtract(alpha[uLocal].u);
-                    r1 = r1.subtract(alpha[uLocal].v);
-                }
-                else
-                {
-                    r0 = r0.add(alpha[uLocal].u);
-                    r1 = r1.add(alpha[uLocal].v);
-                }
+                ZTauElement alphaU = alpha[uLocal < 0 ? -uLocal : uLocal];
+                int sign = uLocal < 0 ? 1 : -1;
+                addSmall(r0, sign * alphaU.u.intValue());
+                addSmall(r1, sign * alphaU.v.intValue());
             }
             else
             {
                 u[i] = 0;
             }
 
-            BigInteger t = r0;
-
+            // (r0, r1) = (r1 + mu*(r0 >> 1), -(r0 >> 1)), reusing r0's words for the new r1
+            shiftDownSigned(r0);
             if (mu == 1)
             {
-                r0 = r1.add(r0.shiftRight(1));
+                add(r1, r0);
             }
             else
             {
-                // mu == -1
-                r0 = r1.subtract(r0.shiftRight(1));
+                sub(r1, r0);
             }
-            r1 = t.shiftRight(1).negate();
+            negate(r0);
+
+            int[] t = r0;
+            r0 = r1;
+            r1 = t;
             i++;
         }
         return u;
     }
 
+    private static int[] toWords(BigInteger x, int len)
+    {
+        int[] z = new int[len];
+        for (int i = 0; i < len; ++i)
+        {
+            z[i] = x.shiftRight(i << 5).intValue();
+        }
+        return z;
+    }
+
+    private static boolean isZero(int[] x)
+    {
+        for (int i = 0; i < x.length; ++i)
+        {
+            if (x[i] != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addSmall(int[] z, int x)
+    {
+        long c = (z[0] & 0xFFFFFFFFL) + x;
+        z[0] = (int)c;
+        c >>= 32;
+        for (int i = 1; i < z.length && c != 0; ++i)
+        {
+            c += z[i] & 0xFFFFFFFFL;
+            z[i] = (int)c;
+            c >>= 32;
+        }
+    }
+
+    private static void add(int[] z, int[] x)
+    {
+        long c = 0;
+        for (int i = 0; i < z.length; ++i)
+        {
+            c += (z[i] & 0xFFFFFFFFL) + (x[i] & 0xFFFFFFFFL);
+            z[i] = (int)c;
+            c >>>= 32;
+        }
+    }
+
+    private static void sub(int[] z, int[] x)
+    {
+        long c = 0;
+        for (int i = 0; i < z.length; ++i)
+        {
+            c += (z[i] & 0xFFFFFFFFL) - (x[i] & 0xFFFFFFFFL);
+            z[i] = (int)c;
+            c >>= 32;
+        }
+    }
+
+    private static void negate(int[] z)
+    {
+        long c = 0;
+        for (int i = 0; i < z.length; ++i)
+        {
+            c -= z[i] & 0xFFFFFFFFL;
+            z[i] = (int)c;
+            c >>= 32;
+        }
+    }
+
+    private static void shiftDownSigned(int[] z)
+    {
+        int last = z.length - 1;
+        for (int i = 0; i < last; ++i)
+        {
+            z[i] = (z[i] >>> 1) | (z[i + 1] << 31);
+        }
+        z[last] >>= 1;
+    }
+
     /**
      * Does the precomputation for WTNAF multiplication.
      * @param p The <code>ECPoint</code> for which to do the precomputation.
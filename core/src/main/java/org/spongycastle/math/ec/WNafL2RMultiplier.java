@@ -26,6 +26,11 @@ protected ECPoint multiplyPositive(ECPoint p, BigInteger k)
 
         int[] wnaf = WNafUtil.generateCompactWindowNaf(width, k);
 
+        if (MutableFpPoint.isSupported(p.getCurve()))
+        {
+            return multiplyMutable((ECCurve.Fp)p.getCurve(), width, preComp, wnaf);
+        }
+
         ECPoint R = p.getCurve().getInfinity();
 
         int i = wnaf.length;
@@ -88,6 +93,63 @@ protected ECPoint multiplyPositive(ECPoint p, BigInteger k)
         return R;
     }
 
+    /*
+     * The same algorithm as multiplyPositive, on points updated in place.
+     */
+    private ECPoint multiplyMutable(ECCurve.Fp curve, int width, ECPoint[] preComp, int[] wnaf)
+    {
+        MutableFpPoint[] table = MutableFpPoint.importPoints(curve, preComp);
+        MutableFpPoint[] tableNeg = MutableFpPoint.negatePoints(table);
+
+        MutableFpPoint R = new MutableFpPoint(curve);
+
+        int i = wnaf.length;
+
+        if (i > 1)
+        {
+            int wi = wnaf[--i];
+            int digit = wi >> 16, zeroes = wi & 0xFFFF;
+
+            int n = Math.abs(digit);
+            MutableFpPoint[] t = digit < 0 ? tableNeg : table;
+
+            if ((n << 3) < (1 << width))
+            {
+                int highest = LongArray.bitLengths[n];
+                int lowBits =  n ^ (1 << (highest - 1));
+                int scale = width - highest;
+
+                int i1 = ((1 << (width - 1)) - 1);
+                int i2 = (lowBits << scale) + 1;
+                R.set(t[i1 >>> 1]);
+                R.add(t[i2 >>> 1]);
+
+                zeroes -= scale;
+            }
+            else
+            {
+                R.set(t[n >>> 1]);
+            }
+
+            R.timesPow2(zeroes);
+        }
+
+        while (i > 0)
+        {
+            int wi = wnaf[--i];
+            int digit = wi >> 16, zeroes = wi & 0xFFFF;
+
+            int n = Math.abs(digit);
+            MutableFpPoint[] t = digit < 0 ? tableNeg : table;
+
+            R.twice();
+            R.add(t[n >>> 1]);
+            R.timesPow2(zeroes);
+        }
+
+        return R.toECPoint();
+    }
+
     /**
      * Determine window width to use for a scalar multiplication of the given size.
      * 
@@ -6,6 +6,8 @@
 {
     private static int[] DEFAULT_WINDOW_SIZE_CUTOFFS = new int[]{ 13, 41, 121, 337, 897, 2305 };
 
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
     public static int[] generateCompactNaf(BigInteger k)
     {
         if ((k.bitLength() >>> 16) != 0)
@@ -164,6 +166,11 @@ public static byte[] generateJSF(BigInteger g, BigInteger h)
 
     public static byte[] generateNaf(BigInteger k)
     {
+        if (k.signum() == 0)
+        {
+            return EMPTY_BYTES;
+        }
+
         BigInteger _3k = k.shiftLeft(1).add(k);
 
         int digits = _3k.bitLength() - 1;
@@ -291,27 +298,87 @@ public static int getWindowSize(int bits, int[] windowSizeCutoffs)
         return w + 2;
     }
 
+    /**
+     * Map the point <code>p</code> through <code>pointMap</code>, deriving the precomputation
+     * for the image from that of <code>p</code> rather than building it from scratch. This relies
+     * on the map being a group homomorphism that is cheap to apply.
+     */
+    public static ECPoint mapPointWithPrecomp(ECPoint p, int width, boolean includeNegated,
+        ECPointMap pointMap)
+    {
+        ECCurve c = p.getCurve();
+        WNafPreCompInfo wnafPreCompP = precompute(p, width, includeNegated);
+
+        ECPoint q = pointMap.map(p);
+        WNafPreCompInfo wnafPreCompQ = new WNafPreCompInfo();
+
+        ECPoint twiceP = wnafPreCompP.getTwiceP();
+        if (twiceP != null)
+        {
+            ECPoint twiceQ = pointMap.map(twiceP);
+            wnafPreCompQ.setTwiceP(twiceQ);
+        }
+
+        ECPoint[] preCompP = wnafPreCompP.getPreComp();
+        ECPoint[] preCompQ = new ECPoint[preCompP.length];
+        for (int i = 0; i < preCompP.length; ++i)
+        {
+            preCompQ[i] = pointMap.map(preCompP[i]);
+        }
+        wnafPreCompQ.setPreComp(preCompQ);
+
+        if (includeNegated)
+        {
+            ECPoint[] preCompNegQ = new ECPoint[preCompQ.length];
+            for (int i = 0; i < preCompNegQ.length; ++i)
+            {
+                preCompNegQ[i] = preCompQ[i].negate();
+            }
+            wnafPreCompQ.setPreCompNeg(preCompNegQ);
+        }
+
+        c.setPreCompInfo(q, wnafPreCompQ);
+
+        return q;
+    }
+
+    /**
+     * Return a <code>WNafPreCompInfo</code> for <code>p</code> covering at least the given window
+     * width. Points may be shared between threads, so a <code>WNafPreCompInfo</code> is never
+     * modified once it has been attached to a point; when the existing one is too small, a new
+     * one (reusing whatever it can of the old) is built and only then published. Two threads
+     * racing here may both do the work, but neither can observe a partially built table.
+     */
     public static WNafPreCompInfo precompute(ECPoint p, int width, boolean includeNegated)
     {
         ECCurve c = p.getCurve();
-        WNafPreCompInfo wnafPreCompInfo = getWNafPreCompInfo(c.getPreCompInfo(p));
+        WNafPreCompInfo existing = getWNafPreCompInfo(c.getPreCompInfo(p));
+
+        int reqPreCompLen = 1 << Math.max(0, width - 2);
+
+        ECPoint[] preComp = existing.getPreComp();
+        ECPoint[] preCompNeg = existing.getPreCompNeg();
+
+        if (isLongEnough(preComp, reqPreCompLen) && (!includeNegated || isLongEnough(preCompNeg, reqPreCompLen)))
+        {
+            return existing;
+        }
+
+        WNafPreCompInfo wnafPreCompInfo = new WNafPreCompInfo();
+
+        ECPoint twiceP = existing.getTwiceP();
 
-        ECPoint[] preComp = wnafPreCompInfo.getPreComp();
         if (preComp == null)
         {
             preComp = new ECPoint[]{ p };
         }
 
         int preCompLen = preComp.length;
-        int reqPreCompLen = 1 << Math.max(0, width - 2);
-
         if (preCompLen < reqPreCompLen)
         {
-            ECPoint twiceP = wnafPreCompInfo.getTwiceP();
             if (twiceP == null)
             {
                 twiceP = preComp[0].twice().normalize();
-                wnafPreCompInfo.setTwiceP(twiceP);
             }
 
             preComp = resizeTable(preComp, reqPreCompLen);
@@ -335,12 +402,11 @@ public static WNafPreCompInfo precompute(ECPoint p, int width, boolean includeNe
             c.normalizeAll(preComp);
         }
 
+        wnafPreCompInfo.setTwiceP(twiceP);
         wnafPreCompInfo.setPreComp(preComp);
 
-        if (includeNegated)
+        if (includeNegated && !isLongEnough(preCompNeg, reqPreCompLen))
         {
-            ECPoint[] preCompNeg = wnafPreCompInfo.getPreCompNeg();
-            
             int pos;
             if (preCompNeg == null)
             {
@@ -350,10 +416,7 @@ public static WNafPreCompInfo precompute(ECPoint p, int width, boolean includeNe
             else
             {
                 pos = preCompNeg.length;
-                if (pos < reqPreCompLen)
-                {
-                    preCompNeg = resizeTable(preCompNeg, reqPreCompLen);
-                }
+                preCompNeg = resizeTable(preCompNeg, reqPreCompLen);
             }
 
             while (pos < reqPreCompLen)
@@ -361,15 +424,20 @@ public static WNafPreCompInfo precompute(ECPoint p, int width, boolean includeNe
                 preCompNeg[pos] = preComp[pos].negate();
                 ++pos;
             }
-
-            wnafPreCompInfo.setPreCompNeg(preCompNeg);
         }
 
+        wnafPreCompInfo.setPreCompNeg(preCompNeg);
+
         c.setPreCompInfo(p, wnafPreCompInfo);
 
         return wnafPreCompInfo;
     }
 
+    private static boolean isLongEnough(ECPoint[] table, int reqLen)
+    {
+        return table != null && table.length >= reqLen;
+    }
+
     private static byte[] trim(byte[] a, int length)
     {
         byte[] result = new byte[length];
@@ -31,7 +31,7 @@ protected ECPoint multiplyPositive(ECPoint point, BigInteger k)
         byte mu = curve.getMu();
         BigInteger[] s = curve.getSi();
 
-        ZTauElement rho = Tnaf.partModReduction(k, m, a, s, mu, (byte)10);
+        ZTauElement rho = Tnaf.partModReduction(k, m, a, s, curve.getVm(), mu, (byte)10);
 
         return multiplyWTnaf(p, rho, curve.getPreCompInfo(p), a, mu);
     }
@@ -83,17 +83,28 @@ private static ECPoint.F2m multiplyFromWTnaf(ECPoint.F2m p, byte[] u,
         ECCurve.F2m curve = (ECCurve.F2m)p.getCurve();
         byte a = curve.getA().toBigInteger().byteValue();
 
-        ECPoint.F2m[] pu;
         if ((preCompInfo == null) || !(preCompInfo instanceof WTauNafPreCompInfo))
         {
-            pu = Tnaf.getPreComp(p, a);
-            curve.setPreCompInfo(p, new WTauNafPreCompInfo(pu));
-        }
-        else
-        {
-            pu = ((WTauNafPreCompInfo)preCompInfo).getPreComp();
+            /*
+             * The curve keeps the tables of recently used (normalized) points, so that
+             * e.g. the base point need not be precomputed again each time it is decoded.
+             */
+            boolean shared = p.isNormalized();
+
+            preCompInfo = shared ? curve.getWTauNafPreCompInfo(p) : null;
+            if (preCompInfo == null)
+            {
+                preCompInfo = new WTauNafPreCompInfo(Tnaf.getPreComp(p, a));
+                if (shared)
+                {
+                    curve.setWTauNafPreCompInfo(p, (WTauNafPreCompInfo)preCompInfo);
+                }
+            }
+            curve.setPreCompInfo(p, preCompInfo);
         }
 
+        ECPoint.F2m[] pu = ((WTauNafPreCompInfo)preCompInfo).getPreComp();
+
         // q = infinity
         ECPoint.F2m q = (ECPoint.F2m) p.getCurve().getInfinity();
         for (int i = u.length - 1; i >= 0; i--)
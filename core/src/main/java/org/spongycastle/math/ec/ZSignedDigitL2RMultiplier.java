@@ -11,6 +11,11 @@ protected ECPoint multiplyPositive(ECPoint p, BigInteger k)
     {
         ECPoint addP = p.normalize(), subP = addP.negate();
 
+        if (MutableFpPoint.isSupported(p.getCurve()))
+        {
+            return multiplyMutable((ECCurve.Fp)p.getCurve(), addP, k);
+        }
+
         ECPoint R0 = addP;
 
         int n = k.bitLength();
@@ -26,4 +31,29 @@ protected ECPoint multiplyPositive(ECPoint p, BigInteger k)
 
         return R0;
     }
+
+    private ECPoint multiplyMutable(ECCurve.Fp curve, ECPoint p, BigInteger k)
+    {
+        MutableFpPoint addP = new MutableFpPoint(curve), subP = new MutableFpPoint(curve);
+        addP.set(p);
+        subP.set(addP);
+        subP.negate();
+
+        MutableFpPoint R0 = new MutableFpPoint(curve);
+        R0.set(addP);
+
+        int n = k.bitLength();
+        int s = k.getLowestSetBit();
+
+        int i = n;
+        while (--i > s)
+        {
+            R0.twice();
+            R0.add(k.testBit(i) ? addP : subP);
+        }
+
+        R0.timesPow2(s);
+
+        return R0.toECPoint();
+    }
 }
@@ -0,0 +1,152 @@
+package org.spongycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+import org.spongycastle.math.raw.Mod;
+import org.spongycastle.math.raw.Nat;
+
+/**
+ * Arithmetic modulo p = 2^256 - 2^32 - 977, on values held as eight 32 bit words.
+ */
+public class SecP256K1Field
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    // 2^256 - 2^32 - 2^9 - 2^8 - 2^7 - 2^6 - 2^4 - 1
+    static final int[] P = new int[]{ 0xFFFFFC2F, 0xFFFFFFFE, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF,
+        0xFFFFFFFF, 0xFFFFFFFF };
+
+    public static void add(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.add(8, x, y, z);
+        if (c != 0 || Nat.gte(8, z, P))
+        {
+            Nat.subFrom(8, P, z);
+        }
+    }
+
+    public static void addOne(int[] x, int[] z)
+    {
+        Nat.copy(8, x, z);
+        int c = Nat.inc(8, z, 0);
+        if (c != 0 || Nat.gte(8, z, P))
+        {
+            Nat.subFrom(8, P, z);
+        }
+    }
+
+    public static int[] fromBigInteger(BigInteger x)
+    {
+        int[] z = Nat.fromBigInteger(256, x);
+        if (Nat.gte(8, z, P))
+        {
+            Nat.subFrom(8, P, z);
+        }
+        return z;
+    }
+
+    public static void invert(int[] x, int[] z)
+    {
+        Mod.invert(P, x, z);
+    }
+
+    public static void multiply(int[] x, int[] y, int[] z)
+    {
+        int[] tt = Nat.create(16);
+        Nat.mul(8, x, y, tt);
+        reduce(tt, z);
+    }
+
+    public static void negate(int[] x, int[] z)
+    {
+        if (Nat.isZero(8, x))
+        {
+            Nat.zero(8, z);
+        }
+        else
+        {
+            Nat.sub(8, P, x, z);
+        }
+    }
+
+    /**
+     * Reduction of a 512 bit product, using 2^256 = 2^32 + 977 (mod p) to fold the upper half into
+     * the lower half.
+     */
+    public static void reduce(int[] xx, int[] z)
+    {
+        long cc = 0, hi = 0;
+        for (int i = 0; i < 8; ++i)
+        {
+            long xx_i = xx[8 + i] & M;
+            cc += (xx[i] & M) + xx_i * 977 + hi;
+            z[i] = (int)cc;
+            cc >>>= 32;
+            hi = xx_i;
+        }
+        cc += hi;
+
+        reduceCarry(cc, z);
+    }
+
+    public static void square(int[] x, int[] z)
+    {
+        int[] tt = Nat.create(16);
+        Nat.square(8, x, tt);
+        reduce(tt, z);
+    }
+
+    public static void squareN(int[] x, int n, int[] z)
+    {
+        int[] tt = Nat.create(16);
+        Nat.square(8, x, tt);
+        reduce(tt, z);
+
+        while (--n > 0)
+        {
+            Nat.square(8, z, tt);
+            reduce(tt, z);
+        }
+    }
+
+    public static void subtract(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.sub(8, x, y, z);
+        if (c != 0)
+        {
+            Nat.addTo(8, P, z);
+        }
+    }
+
+    public static void twice(int[] x, int[] z)
+    {
+        int c = Nat.shiftUpBit(8, x, 0, z);
+        if (c != 0 || Nat.gte(8, z, P))
+        {
+            Nat.subFrom(8, P, z);
+        }
+    }
+
+    /*
+     * Folds a small multiple of 2^256 back into z, using 2^256 = 2^32 + 977 (mod p), then leaves z
+     * fully reduced.
+     */
+    private static void reduceCarry(long cc, int[] z)
+    {
+        while (cc != 0)
+        {
+            long c = (z[0] & M) + cc * 977;
+            z[0] = (int)c;
+            c >>>= 32;
+            c += (z[1] & M) + cc;
+            z[1] = (int)c;
+            c >>>= 32;
+            cc = c == 0 ? 0 : Nat.addWordAt(8, (int)c, z, 2);
+        }
+
+        if (Nat.gte(8, z, P))
+        {
+            Nat.subFrom(8, P, z);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.spongycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+import org.spongycastle.math.raw.Mod;
+import org.spongycastle.math.raw.Nat;
+
+/**
+ * Arithmetic modulo p = 2^256 - 2^224 + 2^192 + 2^96 - 1, on values held as eight 32 bit words.
+ */
+public class SecP256R1Field
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    // 2^256 - 2^224 + 2^192 + 2^96 - 1
+    static final int[] P = new int[]{ 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0x00000000, 0x00000000, 0x00000000,
+        0x00000001, 0xFFFFFFFF };
+
+    public static void add(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.add(8, x, y, z);
+        if (c != 0 || Nat.gte(8, z, P))
+        {
+            Nat.subFrom(8, P, z);
+        }
+    }
+
+    public static void addOne(int[] x, int[] z)
+    {
+        Nat.copy(8, x, z);
+        int c = Nat.inc(8, z, 0);
+        if (c != 0 || Nat.gte(8, z, P))
+        {
+            Nat.subFrom(8, P, z);
+        }
+    }
+
+    public static int[] fromBigInteger(BigInteger x)
+    {
+        int[] z = Nat.fromBigInteger(256, x);
+        if (Nat.gte(8, z, P))
+        {
+            Nat.subFrom(8, P, z);
+        }
+        return z;
+    }
+
+    public static void invert(int[] x, int[] z)
+    {
+        Mod.invert(P, x, z);
+    }
+
+    public static void multiply(int[] x, int[] y, int[] z)
+    {
+        int[] tt = Nat.create(16);
+        Nat.mul(8, x, y, tt);
+        reduce(tt, z);
+    }
+
+    public static void negate(int[] x, int[] z)
+    {
+        if (Nat.isZero(8, x))
+        {
+            Nat.zero(8, z);
+        }
+        else
+        {
+            Nat.sub(8, P, x, z);
+        }
+    }
+
+    /**
+     * Fast reduction of a 512 bit product (FIPS 186-3, D.2.3), folding the upper words back in
+     * with a fixed pattern of additions and subtractions.
+     */
+    public static void reduce(int[] xx, int[] z)
+    {
+        long xx08 = xx[8] & M, xx09 = xx[9] & M, xx10 = xx[10] & M, xx11 = xx[11] & M;
+        long xx12 = xx[12] & M, xx13 = xx[13] & M, xx14 = xx[14] & M, xx15 = xx[15] & M;
+
+        long cc = 0;
+        cc += (xx[0] & M) + xx08 + xx09 - xx11 - xx12 - xx13 - xx14;
+        z[0] = (int)cc;
+        cc >>= 32;
+        cc += (xx[1] & M) + xx09 + xx10 - xx12 - xx13 - xx14 - xx15;
+        z[1] = (int)cc;
+        cc >>= 32;
+        cc += (xx[2] & M) + xx10 + xx11 - xx13 - xx14 - xx15;
+        z[2] = (int)cc;
+        cc >>= 32;
+        cc += (xx[3] & M) + ((xx11 + xx12) << 1) + xx13 - xx15 - xx08 - xx09;
+        z[3] = (int)cc;
+        cc >>= 32;
+        cc += (xx[4] & M) + ((xx12 + xx13) << 1) + xx14 - xx09 - xx10;
+        z[4] = (int)cc;
+        cc >>= 32;
+        cc += (xx[5] & M) + ((xx13 + xx14) << 1) + xx15 - xx10 - xx11;
+        z[5] = (int)cc;
+        cc >>= 32;
+        cc += (xx[6] & M) + ((xx14 + xx15) << 1) + xx14 + xx13 - xx08 - xx09;
+        z[6] = (int)cc;
+        cc >>= 32;
+        cc += (xx[7] & M) + (xx15 << 1) + xx15 + xx08 - xx10 - xx11 - xx12 - xx13;
+        z[7] = (int)cc;
+        cc >>= 32;
+
+        reduceCarry(cc, z);
+    }
+
+    public static void square(int[] x, int[] z)
+    {
+        int[] tt = Nat.create(16);
+        Nat.square(8, x, tt);
+        reduce(tt, z);
+    }
+
+    public static void squareN(int[] x, int n, int[] z)
+    {
+        int[] tt = Nat.create(16);
+        Nat.square(8, x, tt);
+        reduce(tt, z);
+
+        while (--n > 0)
+        {
+            Nat.square(8, z, tt);
+            reduce(tt, z);
+        }
+    }
+
+    public static void subtract(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.sub(8, x, y, z);
+        if (c != 0)
+        {
+            Nat.addTo(8, P, z);
+        }
+    }
+
+    public static void twice(int[] x, int[] z)
+    {
+        int c = Nat.shiftUpBit(8, x, 0, z);
+        if (c != 0 || Nat.gte(8, z, P))
+        {
+            Nat.subFrom(8, P, z);
+        }
+    }
+
+    /*
+     * Folds a small signed multiple of 2^256 back into z, using 2^256 = 2^224 - 2^192 - 2^96 + 1
+     * (mod p), then leaves z fully reduced.
+     */
+    private static void reduceCarry(long cc, int[] z)
+    {
+        while (cc != 0)
+        {
+            long c = 0;
+            c += (z[0] & M) + cc;
+            z[0] = (int)c;
+            c >>= 32;
+            c += (z[1] & M);
+            z[1] = (int)c;
+            c >>= 32;
+            c += (z[2] & M);
+            z[2] = (int)c;
+            c >>= 32;
+            c += (z[3] & M) - cc;
+            z[3] = (int)c;
+            c >>= 32;
+            c += (z[4] & M);
+            z[4] = (int)c;
+            c >>= 32;
+            c += (z[5] & M);
+            z[5] = (int)c;
+            c >>= 32;
+            c += (z[6] & M) - cc;
+            z[6] = (int)c;
+            c >>= 32;
+            c += (z[7] & M) + cc;
+            z[7] = (int)c;
+            c >>= 32;
+            cc = c;
+        }
+
+        if (Nat.gte(8, z, P))
+        {
+            Nat.subFrom(8, P, z);
+        }
+    }
+}
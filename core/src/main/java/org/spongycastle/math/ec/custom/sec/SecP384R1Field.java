@@ -0,0 +1,199 @@
+package org.spongycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+import org.spongycastle.math.raw.Mod;
+import org.spongycastle.math.raw.Nat;
+
+/**
+ * Arithmetic modulo p = 2^384 - 2^128 - 2^96 + 2^32 - 1, on values held as twelve 32 bit words.
+ */
+public class SecP384R1Field
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    // 2^384 - 2^128 - 2^96 + 2^32 - 1
+    static final int[] P = new int[]{ 0xFFFFFFFF, 0x00000000, 0x00000000, 0xFFFFFFFF, 0xFFFFFFFE, 0xFFFFFFFF,
+        0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF };
+
+    public static void add(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.add(12, x, y, z);
+        if (c != 0 || Nat.gte(12, z, P))
+        {
+            Nat.subFrom(12, P, z);
+        }
+    }
+
+    public static void addOne(int[] x, int[] z)
+    {
+        Nat.copy(12, x, z);
+        int c = Nat.inc(12, z, 0);
+        if (c != 0 || Nat.gte(12, z, P))
+        {
+            Nat.subFrom(12, P, z);
+        }
+    }
+
+    public static int[] fromBigInteger(BigInteger x)
+    {
+        int[] z = Nat.fromBigInteger(384, x);
+        if (Nat.gte(12, z, P))
+        {
+            Nat.subFrom(12, P, z);
+        }
+        return z;
+    }
+
+    public static void invert(int[] x, int[] z)
+    {
+        Mod.invert(P, x, z);
+    }
+
+    public static void multiply(int[] x, int[] y, int[] z)
+    {
+        int[] tt = Nat.create(24);
+        Nat.mul(12, x, y, tt);
+        reduce(tt, z);
+    }
+
+    public static void negate(int[] x, int[] z)
+    {
+        if (Nat.isZero(12, x))
+        {
+            Nat.zero(12, z);
+        }
+        else
+        {
+            Nat.sub(12, P, x, z);
+        }
+    }
+
+    /**
+     * Fast reduction of a 768 bit product (FIPS 186-3, D.2.4), folding the upper words back in
+     * with a fixed pattern of additions and subtractions.
+     */
+    public static void reduce(int[] xx, int[] z)
+    {
+        long xx12 = xx[12] & M, xx13 = xx[13] & M, xx14 = xx[14] & M, xx15 = xx[15] & M;
+        long xx16 = xx[16] & M, xx17 = xx[17] & M, xx18 = xx[18] & M, xx19 = xx[19] & M;
+        long xx20 = xx[20] & M, xx21 = xx[21] & M, xx22 = xx[22] & M, xx23 = xx[23] & M;
+
+        long cc = 0;
+        cc += (xx[0] & M) + xx12 + xx20 + xx21 - xx23;
+        z[0] = (int)cc;
+        cc >>= 32;
+        cc += (xx[1] & M) + xx13 + xx22 + xx23 - xx12 - xx20;
+        z[1] = (int)cc;
+        cc >>= 32;
+        cc += (xx[2] & M) + xx14 + xx23 - xx13 - xx21;
+        z[2] = (int)cc;
+        cc >>= 32;
+        cc += (xx[3] & M) + xx15 + xx12 + xx20 + xx21 - xx14 - xx22 - xx23;
+        z[3] = (int)cc;
+        cc >>= 32;
+        cc += (xx[4] & M) + (xx21 << 1) + xx16 + xx13 + xx12 + xx20 + xx22 - xx15 - (xx23 << 1);
+        z[4] = (int)cc;
+        cc >>= 32;
+        cc += (xx[5] & M) + (xx22 << 1) + xx17 + xx14 + xx13 + xx21 + xx23 - xx16;
+        z[5] = (int)cc;
+        cc >>= 32;
+        cc += (xx[6] & M) + (xx23 << 1) + xx18 + xx15 + xx14 + xx22 - xx17;
+        z[6] = (int)cc;
+        cc >>= 32;
+        cc += (xx[7] & M) + xx19 + xx16 + xx15 + xx23 - xx18;
+        z[7] = (int)cc;
+        cc >>= 32;
+        cc += (xx[8] & M) + xx20 + xx17 + xx16 - xx19;
+        z[8] = (int)cc;
+        cc >>= 32;
+        cc += (xx[9] & M) + xx21 + xx18 + xx17 - xx20;
+        z[9] = (int)cc;
+        cc >>= 32;
+        cc += (xx[10] & M) + xx22 + xx19 + xx18 - xx21;
+        z[10] = (int)cc;
+        cc >>= 32;
+        cc += (xx[11] & M) + xx23 + xx20 + xx19 - xx22;
+        z[11] = (int)cc;
+        cc >>= 32;
+
+        reduceCarry(cc, z);
+    }
+
+    public static void square(int[] x, int[] z)
+    {
+        int[] tt = Nat.create(24);
+        Nat.square(12, x, tt);
+        reduce(tt, z);
+    }
+
+    public static void squareN(int[] x, int n, int[] z)
+    {
+        int[] tt = Nat.create(24);
+        Nat.square(12, x, tt);
+        reduce(tt, z);
+
+        while (--n > 0)
+        {
+            Nat.square(12, z, tt);
+            reduce(tt, z);
+        }
+    }
+
+    public static void subtract(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.sub(12, x, y, z);
+        if (c != 0)
+        {
+            Nat.addTo(12, P, z);
+        }
+    }
+
+    public static void twice(int[] x, int[] z)
+    {
+        int c = Nat.shiftUpBit(12, x, 0, z);
+        if (c != 0 || Nat.gte(12, z, P))
+        {
+            Nat.subFrom(12, P, z);
+        }
+    }
+
+    /*
+     * Folds a small signed multiple of 2^384 back into z, using 2^384 = 2^128 + 2^96 - 2^32 + 1
+     * (mod p), then leaves z fully reduced.
+     */
+    private static void reduceCarry(long cc, int[] z)
+    {
+        while (cc != 0)
+        {
+            long c = 0;
+            c += (z[0] & M) + cc;
+            z[0] = (int)c;
+            c >>= 32;
+            c += (z[1] & M) - cc;
+            z[1] = (int)c;
+            c >>= 32;
+            c += (z[2] & M);
+            z[2] = (int)c;
+            c >>= 32;
+            c += (z[3] & M) + cc;
+            z[3] = (int)c;
+            c >>= 32;
+            c += (z[4] & M) + cc;
+            z[4] = (int)c;
+            c >>= 32;
+            for (int i = 5; i < 12; ++i)
+            {
+                c += (z[i] & M);
+                z[i] = (int)c;
+                c >>= 32;
+            }
+            cc = c;
+        }
+
+        if (Nat.gte(12, z, P))
+        {
+            Nat.subFrom(12, P, z);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.spongycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+import org.spongycastle.math.raw.Mod;
+import org.spongycastle.math.raw.Nat;
+
+/**
+ * Arithmetic modulo the Mersenne prime p = 2^521 - 1, on values held as seventeen 32 bit words.
+ */
+public class SecP521R1Field
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    // 2^521 - 1
+    static final int[] P = new int[]{ 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF,
+        0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF,
+        0xFFFFFFFF, 0x1FF };
+
+    public static void add(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.add(17, x, y, z);
+        if (c != 0 || Nat.gte(17, z, P))
+        {
+            Nat.subFrom(17, P, z);
+        }
+    }
+
+    public static void addOne(int[] x, int[] z)
+    {
+        Nat.copy(17, x, z);
+        int c = Nat.inc(17, z, 0);
+        if (c != 0 || Nat.gte(17, z, P))
+        {
+            Nat.subFrom(17, P, z);
+        }
+    }
+
+    public static int[] fromBigInteger(BigInteger x)
+    {
+        int[] z = Nat.fromBigInteger(521, x);
+        if (Nat.gte(17, z, P))
+        {
+            Nat.subFrom(17, P, z);
+        }
+        return z;
+    }
+
+    public static void invert(int[] x, int[] z)
+    {
+        Mod.invert(P, x, z);
+    }
+
+    public static void multiply(int[] x, int[] y, int[] z)
+    {
+        int[] tt = Nat.create(34);
+        Nat.mul(17, x, y, tt);
+        reduce(tt, z);
+    }
+
+    public static void negate(int[] x, int[] z)
+    {
+        if (Nat.isZero(17, x))
+        {
+            Nat.zero(17, z);
+        }
+        else
+        {
+            Nat.sub(17, P, x, z);
+        }
+    }
+
+    /**
+     * Reduction of a product of two values below 2^521, adding the bits above 2^521 back in at
+     * the bottom since 2^521 = 1 (mod p).
+     */
+    public static void reduce(int[] xx, int[] z)
+    {
+        long c = 0;
+        for (int i = 0; i < 16; ++i)
+        {
+            c += (xx[i] & M) + (((xx[16 + i] >>> 9) | (xx[17 + i] << 23)) & M);
+            z[i] = (int)c;
+            c >>>= 32;
+        }
+        c += (xx[16] & 0x1FF) + (((xx[32] >>> 9) | (xx[33] << 23)) & M);
+        z[16] = (int)c;
+
+        int top = z[16] >>> 9;
+        while (top != 0)
+        {
+            z[16] &= 0x1FF;
+            Nat.addWordAt(17, top, z, 0);
+            top = z[16] >>> 9;
+        }
+
+        if (Nat.eq(17, z, P))
+        {
+            Nat.zero(17, z);
+        }
+    }
+
+    public static void square(int[] x, int[] z)
+    {
+        int[] tt = Nat.create(34);
+        Nat.square(17, x, tt);
+        reduce(tt, z);
+    }
+
+    public static void squareN(int[] x, int n, int[] z)
+    {
+        int[] tt = Nat.create(34);
+        Nat.square(17, x, tt);
+        reduce(tt, z);
+
+        while (--n > 0)
+        {
+            Nat.square(17, z, tt);
+            reduce(tt, z);
+        }
+    }
+
+    public static void subtract(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.sub(17, x, y, z);
+        if (c != 0)
+        {
+            Nat.addTo(17, P, z);
+        }
+    }
+
+    public static void twice(int[] x, int[] z)
+    {
+        int c = Nat.shiftUpBit(17, x, 0, z);
+        if (c != 0 || Nat.gte(17, z, P))
+        {
+            Nat.subFrom(17, P, z);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.spongycastle.math.ec.endo;
+
+import java.math.BigInteger;
+
+/**
+ * An endomorphism usable for the Gallant-Lambert-Vanstone method, acting on points as
+ * multiplication by some fixed scalar lambda.
+ */
+public interface GLVEndomorphism extends ECEndomorphism
+{
+    /**
+     * Split a scalar k into two half-size scalars (k0, k1), such that k = k0 + k1 * lambda modulo
+     * the group order. Either result may be negative.
+     */
+    BigInteger[] decomposeScalar(BigInteger k);
+}
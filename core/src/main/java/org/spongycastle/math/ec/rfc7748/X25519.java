@@ -0,0 +1,118 @@
+package org.spongycastle.math.ec.rfc7748;
+
+/**
+ * The X25519 function of RFC 7748, computed with a constant-time Montgomery ladder over
+ * {@link X25519Field}.
+ */
+public abstract class X25519
+{
+    public static final int POINT_SIZE = 32;
+    public static final int SCALAR_SIZE = 32;
+
+    // (A - 2) / 4, for the Montgomery curve v^2 = u^3 + A.u^2 + u with A = 486662
+    private static final int C_A24 = 121665;
+
+    private static final byte[] BASE_POINT = new byte[POINT_SIZE];
+    static
+    {
+        BASE_POINT[0] = 9;
+    }
+
+    /**
+     * Compute r = X25519(k, u). The scalar is clamped as RFC 7748 specifies; all 32 bytes of
+     * k are read, but neither array is modified.
+     *
+     * @return false if the result is all zeroes, i.e. u was a point of small order, which
+     * callers doing key agreement must reject.
+     */
+    public static boolean calculateAgreement(byte[] k, int kOff, byte[] u, int uOff, byte[] r, int rOff)
+    {
+        scalarMult(k, kOff, u, uOff, r, rOff);
+
+        int bits = 0;
+        for (int i = 0; i < POINT_SIZE; ++i)
+        {
+            bits |= r[rOff + i];
+        }
+        return bits != 0;
+    }
+
+    /**
+     * Compute the public key r = X25519(k, 9) for the private key k.
+     */
+    public static void scalarMultBase(byte[] k, int kOff, byte[] r, int rOff)
+    {
+        scalarMult(k, kOff, BASE_POINT, 0, r, rOff);
+    }
+
+    public static void scalarMult(byte[] k, int kOff, byte[] u, int uOff, byte[] r, int rOff)
+    {
+        int[] n = new int[8];
+        decodeScalar(k, kOff, n);
+
+        int[] x1 = X25519Field.create();        X25519Field.decode(u, uOff, x1);
+        int[] x2 = X25519Field.create();        X25519Field.one(x2);
+        int[] z2 = X25519Field.create();
+        int[] x3 = X25519Field.create();        X25519Field.copy(x1, 0, x3, 0);
+        int[] z3 = X25519Field.create();        X25519Field.one(z3);
+
+        int[] t1 = X25519Field.create();
+        int[] t2 = X25519Field.create();
+        int[] t3 = X25519Field.create();
+        int[] t4 = X25519Field.create();
+
+        int swap = 0;
+        for (int bit = 254; bit >= 0; --bit)
+        {
+            int kt = (n[bit >>> 5] >>> (bit & 31)) & 1;
+            swap ^= kt;
+            X25519Field.cswap(swap, x2, x3);
+            X25519Field.cswap(swap, z2, z3);
+            swap = kt;
+
+            X25519Field.add(x2, z2, t1);        // A
+            X25519Field.sub(x2, z2, t2);        // B
+            X25519Field.add(x3, z3, t3);        // C
+            X25519Field.sub(x3, z3, t4);        // D
+
+            X25519Field.mul(t4, t1, t4);        // DA
+            X25519Field.mul(t3, t2, t3);        // CB
+            X25519Field.sqr(t1, t1);            // AA
+            X25519Field.sqr(t2, t2);            // BB
+
+            X25519Field.add(t4, t3, x3);
+            X25519Field.sqr(x3, x3);            // x3 = (DA + CB)^2
+            X25519Field.sub(t4, t3, z3);
+            X25519Field.sqr(z3, z3);
+            X25519Field.mul(z3, x1, z3);        // z3 = x1.(DA - CB)^2
+
+            X25519Field.mul(t1, t2, x2);        // x2 = AA.BB
+            X25519Field.sub(t1, t2, t2);        // E = AA - BB
+            X25519Field.mul(t2, C_A24, z2);
+            X25519Field.add(z2, t1, z2);
+            X25519Field.mul(z2, t2, z2);        // z2 = E.(AA + a24.E)
+        }
+
+        X25519Field.cswap(swap, x2, x3);
+        X25519Field.cswap(swap, z2, z3);
+
+        X25519Field.inv(z2, z2);
+        X25519Field.mul(x2, z2, x2);
+
+        X25519Field.encode(x2, r, rOff);
+    }
+
+    private static void decodeScalar(byte[] k, int kOff, int[] n)
+    {
+        for (int i = 0; i < 8; ++i)
+        {
+            int off = kOff + (i << 2);
+            n[i] = (k[off] & 0xFF) | (k[off + 1] & 0xFF) << 8 | (k[off + 2] & 0xFF) << 16 | k[off + 3] << 24;
+        }
+
+        // Clamp: clear the low 3 bits and the top bit, set bit 254
+        n[0] &= 0xFFFFFFF8;
+        n[7] &= 0x7FFFFFFF;
+        n[7] |= 0x40000000;
+    }
+}
@@ -0,0 +1,366 @@
+package org.spongycastle.math.ec.rfc7748;
+
+/**
+ * Arithmetic modulo p = 2^255 - 19, on values held as ten signed limbs of alternately 26 and 25
+ * bits (radix 2^25.5), so that limb products fit comfortably in a long. The routines work in
+ * place on caller supplied arrays and take the same time whatever the values.
+ * <p>
+ * Results of {@link #add} and {@link #sub} are not carried and may only be used as inputs to
+ * {@link #mul}, {@link #sqr} or {@link #mul(int[], int, int[])}, whose results are always
+ * carried back into range.
+ */
+public abstract class X25519Field
+{
+    public static final int SIZE = 10;
+
+    private static final int M25 = 0x01FFFFFF;
+
+    public static void add(int[] x, int[] y, int[] z)
+    {
+        for (int i = 0; i < SIZE; ++i)
+        {
+            z[i] = x[i] + y[i];
+        }
+    }
+
+    /**
+     * Carry z so that it can again be used as an input to {@link #mul} or {@link #sqr}, e.g.
+     * after a chain of additions.
+     */
+    public static void carry(int[] z)
+    {
+        reduce(z[0], z[1], z[2], z[3], z[4], z[5], z[6], z[7], z[8], z[9], z);
+    }
+
+    /**
+     * Conditionally copy x into z, when cond is 1 (and not when it is 0), in constant time.
+     */
+    public static void cmov(int cond, int[] x, int xOff, int[] z, int zOff)
+    {
+        int mask = -cond;
+        for (int i = 0; i < SIZE; ++i)
+        {
+            int z_i = z[zOff + i], diff = z_i ^ x[xOff + i];
+            z[zOff + i] = z_i ^ (diff & mask);
+        }
+    }
+
+    /**
+     * Conditionally swap a and b, when swap is 1 (and not when it is 0), in constant time.
+     */
+    public static void cswap(int swap, int[] a, int[] b)
+    {
+        int mask = -swap;
+        for (int i = 0; i < SIZE; ++i)
+        {
+            int ai = a[i], bi = b[i];
+            int dummy = mask & (ai ^ bi);
+            a[i] = ai ^ dummy;
+            b[i] = bi ^ dummy;
+        }
+    }
+
+    public static void copy(int[] x, int xOff, int[] z, int zOff)
+    {
+        System.arraycopy(x, xOff, z, zOff, SIZE);
+    }
+
+    public static int[] create()
+    {
+        return new int[SIZE];
+    }
+
+    public static int[] createTable(int n)
+    {
+        return new int[SIZE * n];
+    }
+
+    /**
+     * Decode a little-endian 32 byte value, ignoring the top bit as RFC 7748 requires.
+     */
+    public static void decode(byte[] x, int xOff, int[] z)
+    {
+        long acc = 0;
+        int accBits = 0;
+        for (int i = 0; i < SIZE; ++i)
+        {
+            int bits = 26 - (i & 1);
+            while (accBits < bits)
+            {
+                acc |= (long)(x[xOff++] & 0xFF) << accBits;
+                accBits += 8;
+            }
+            z[i] = (int)acc & ((1 << bits) - 1);
+            acc >>>= bits;
+            accBits -= bits;
+        }
+    }
+
+    /**
+     * Encode x, fully reduced, as a little-endian 32 byte value.
+     */
+    public static void encode(int[] x, byte[] z, int zOff)
+    {
+        int[] t = create();
+        copy(x, 0, t, 0);
+        normalize(t);
+
+        long acc = 0;
+        int accBits = 0;
+        for (int i = 0; i < SIZE; ++i)
+        {
+            acc |= (long)t[i] << accBits;
+            accBits += 26 - (i & 1);
+            while (accBits >= 8)
+            {
+                z[zOff++] = (byte)acc;
+                acc >>>= 8;
+                accBits -= 8;
+            }
+        }
+        z[zOff] = (byte)acc;
+    }
+
+    public static void inv(int[] x, int[] z)
+    {
+        // z = x^(p - 2) = x^(2^255 - 21), where 2^255 - 21 = (2^250 - 1).2^5 + 11
+        int[] x11 = create();
+        int[] x250 = create();
+        powChain(x, x11, x250);
+        sqr(x250, 5, x250);
+        mul(x250, x11, z);
+    }
+
+    /**
+     * Return -1 if x is zero (mod p), otherwise 0, in constant time.
+     */
+    public static int isZero(int[] x)
+    {
+        int[] t = create();
+        copy(x, 0, t, 0);
+        normalize(t);
+
+        int d = 0;
+        for (int i = 0; i < SIZE; ++i)
+        {
+            d |= t[i];
+        }
+        d = (d >>> 1) | (d & 1);
+        return (d - 1) >> 31;
+    }
+
+    public static boolean isZeroVar(int[] x)
+    {
+        return 0 != isZero(x);
+    }
+
+    /**
+     * z = x.y for a small non-negative constant y (below 2^20).
+     */
+    public static void mul(int[] x, int y, int[] z)
+    {
+        reduce((long)x[0] * y, (long)x[1] * y, (long)x[2] * y, (long)x[3] * y, (long)x[4] * y,
+            (long)x[5] * y, (long)x[6] * y, (long)x[7] * y, (long)x[8] * y, (long)x[9] * y, z);
+    }
+
+    public static void mul(int[] x, int[] y, int[] z)
+    {
+        long f0 = x[0], f1 = x[1], f2 = x[2], f3 = x[3], f4 = x[4];
+        long f5 = x[5], f6 = x[6], f7 = x[7], f8 = x[8], f9 = x[9];
+        long g0 = y[0], g1 = y[1], g2 = y[2], g3 = y[3], g4 = y[4];
+        long g5 = y[5], g6 = y[6], g7 = y[7], g8 = y[8], g9 = y[9];
+
+        // Limb i sits at bit ceil(25.5i), so products of two odd limbs carry an extra factor 2,
+        // and anything at or above 2^255 wraps round with a factor 19
+        long f1_2 = f1 << 1, f3_2 = f3 << 1, f5_2 = f5 << 1, f7_2 = f7 << 1, f9_2 = f9 << 1;
+        long g1_19 = g1 * 19, g2_19 = g2 * 19, g3_19 = g3 * 19, g4_19 = g4 * 19, g5_19 = g5 * 19;
+        long g6_19 = g6 * 19, g7_19 = g7 * 19, g8_19 = g8 * 19, g9_19 = g9 * 19;
+
+        long h0 = f0 * g0 + f1_2 * g9_19 + f2 * g8_19 + f3_2 * g7_19 + f4 * g6_19 + f5_2 * g5_19 + f6 * g4_19 + f7_2 * g3_19 + f8 * g2_19 + f9_2 * g1_19;
+        long h1 = f0 * g1 + f1 * g0 + f2 * g9_19 + f3 * g8_19 + f4 * g7_19 + f5 * g6_19 + f6 * g5_19 + f7 * g4_19 + f8 * g3_19 + f9 * g2_19;
+        long h2 = f0 * g2 + f1_2 * g1 + f2 * g0 + f3_2 * g9_19 + f4 * g8_19 + f5_2 * g7_19 + f6 * g6_19 + f7_2 * g5_19 + f8 * g4_19 + f9_2 * g3_19;
+        long h3 = f0 * g3 + f1 * g2 + f2 * g1 + f3 * g0 + f4 * g9_19 + f5 * g8_19 + f6 * g7_19 + f7 * g6_19 + f8 * g5_19 + f9 * g4_19;
+        long h4 = f0 * g4 + f1_2 * g3 + f2 * g2 + f3_2 * g1 + f4 * g0 + f5_2 * g9_19 + f6 * g8_19 + f7_2 * g7_19 + f8 * g6_19 + f9_2 * g5_19;
+        long h5 = f0 * g5 + f1 * g4 + f2 * g3 + f3 * g2 + f4 * g1 + f5 * g0 + f6 * g9_19 + f7 * g8_19 + f8 * g7_19 + f9 * g6_19;
+        long h6 = f0 * g6 + f1_2 * g5 + f2 * g4 + f3_2 * g3 + f4 * g2 + f5_2 * g1 + f6 * g0 + f7_2 * g9_19 + f8 * g8_19 + f9_2 * g7_19;
+        long h7 = f0 * g7 + f1 * g6 + f2 * g5 + f3 * g4 + f4 * g3 + f5 * g2 + f6 * g1 + f7 * g0 + f8 * g9_19 + f9 * g8_19;
+        long h8 = f0 * g8 + f1_2 * g7 + f2 * g6 + f3_2 * g5 + f4 * g4 + f5_2 * g3 + f6 * g2 + f7_2 * g1 + f8 * g0 + f9_2 * g9_19;
+        long h9 = f0 * g9 + f1 * g8 + f2 * g7 + f3 * g6 + f4 * g5 + f5 * g4 + f6 * g3 + f7 * g2 + f8 * g1 + f9 * g0;
+
+        reduce(h0, h1, h2, h3, h4, h5, h6, h7, h8, h9, z);
+    }
+
+    public static void negate(int[] x, int[] z)
+    {
+        for (int i = 0; i < SIZE; ++i)
+        {
+            z[i] = -x[i];
+        }
+    }
+
+    /**
+     * Fully reduce z into [0, p), with every limb in its canonical range.
+     */
+    public static void normalize(int[] z)
+    {
+        // Three passes leave z non-negative and below 2^255, whatever the signs of the limbs
+        carryPass(z);
+        carryPass(z);
+        carryPass(z);
+
+        // Subtract p if z >= p, i.e. if z + 19 >= 2^255
+        int q = 19;
+        for (int i = 0; i < SIZE; ++i)
+        {
+            q = (z[i] + q) >> (26 - (i & 1));
+        }
+
+        // Any carry out of the top limb is the 2^255 being subtracted, so is dropped
+        z[0] += 19 * q;
+        for (int i = 0; i < SIZE - 1; ++i)
+        {
+            int bits = 26 - (i & 1);
+            z[i + 1] += z[i] >> bits;
+            z[i] &= (1 << bits) - 1;
+        }
+        z[9] &= M25;
+    }
+
+    public static void one(int[] z)
+    {
+        z[0] = 1;
+        for (int i = 1; i < SIZE; ++i)
+        {
+            z[i] = 0;
+        }
+    }
+
+    /**
+     * z = x^((p - 5) / 8) = x^(2^252 - 3), as used for square roots by Ed25519.
+     */
+    public static void powPm5d8(int[] x, int[] z)
+    {
+        // 2^252 - 3 = (2^250 - 1).2^2 + 1
+        int[] x11 = create();
+        int[] x250 = create();
+        powChain(x, x11, x250);
+        sqr(x250, 2, x250);
+        mul(x250, x, z);
+    }
+
+    public static void sqr(int[] x, int[] z)
+    {
+        long f0 = x[0], f1 = x[1], f2 = x[2], f3 = x[3], f4 = x[4];
+        long f5 = x[5], f6 = x[6], f7 = x[7], f8 = x[8], f9 = x[9];
+
+        long f0_2 = f0 << 1, f1_2 = f1 << 1, f2_2 = f2 << 1, f3_2 = f3 << 1, f4_2 = f4 << 1;
+        long f5_2 = f5 << 1, f6_2 = f6 << 1, f7_2 = f7 << 1, f8_2 = f8 << 1, f9_2 = f9 << 1;
+        long f1_4 = f1 << 2, f3_4 = f3 << 2, f5_4 = f5 << 2, f7_4 = f7 << 2;
+        long f5_19 = f5 * 19, f6_19 = f6 * 19, f7_19 = f7 * 19, f8_19 = f8 * 19, f9_19 = f9 * 19;
+
+        long h0 = f0 * f0 + f1_4 * f9_19 + f2_2 * f8_19 + f3_4 * f7_19 + f4_2 * f6_19 + f5_2 * f5_19;
+        long h1 = f0_2 * f1 + f2_2 * f9_19 + f3_2 * f8_19 + f4_2 * f7_19 + f5_2 * f6_19;
+        long h2 = f0_2 * f2 + f1_2 * f1 + f3_4 * f9_19 + f4_2 * f8_19 + f5_4 * f7_19 + f6 * f6_19;
+        long h3 = f0_2 * f3 + f1_2 * f2 + f4_2 * f9_19 + f5_2 * f8_19 + f6_2 * f7_19;
+        long h4 = f0_2 * f4 + f1_4 * f3 + f2 * f2 + f5_4 * f9_19 + f6_2 * f8_19 + f7_2 * f7_19;
+        long h5 = f0_2 * f5 + f1_2 * f4 + f2_2 * f3 + f6_2 * f9_19 + f7_2 * f8_19;
+        long h6 = f0_2 * f6 + f1_4 * f5 + f2_2 * f4 + f3_2 * f3 + f7_4 * f9_19 + f8 * f8_19;
+        long h7 = f0_2 * f7 + f1_2 * f6 + f2_2 * f5 + f3_2 * f4 + f8_2 * f9_19;
+        long h8 = f0_2 * f8 + f1_4 * f7 + f2_2 * f6 + f3_4 * f5 + f4 * f4 + f9_2 * f9_19;
+        long h9 = f0_2 * f9 + f1_2 * f8 + f2_2 * f7 + f3_2 * f6 + f4_2 * f5;
+
+        reduce(h0, h1, h2, h3, h4, h5, h6, h7, h8, h9, z);
+    }
+
+    public static void sqr(int[] x, int n, int[] z)
+    {
+        sqr(x, z);
+
+        while (--n > 0)
+        {
+            sqr(z, z);
+        }
+    }
+
+    public static void sub(int[] x, int[] y, int[] z)
+    {
+        for (int i = 0; i < SIZE; ++i)
+        {
+            z[i] = x[i] - y[i];
+        }
+    }
+
+    public static void zero(int[] z)
+    {
+        for (int i = 0; i < SIZE; ++i)
+        {
+            z[i] = 0;
+        }
+    }
+
+    private static void carryPass(int[] z)
+    {
+        for (int i = 0; i < SIZE - 1; ++i)
+        {
+            int bits = 26 - (i & 1);
+            int c = z[i] >> bits;
+            z[i] -= c << bits;
+            z[i + 1] += c;
+        }
+
+        int c = z[9] >> 25;
+        z[9] -= c << 25;
+        z[0] += c * 19;
+    }
+
+    /*
+     * The addition chain shared by inv and powPm5d8: x11 = x^11 and x250 = x^(2^250 - 1).
+     */
+    private static void powChain(int[] x, int[] x11, int[] x250)
+    {
+        int[] t = create();
+        int[] u = create();
+
+        sqr(x, t);                  // 2
+        sqr(t, 2, u);               // 8
+        mul(u, x, u);               // 9
+        mul(u, t, x11);             // 11
+        sqr(x11, t);                // 22
+        mul(t, u, t);               // 2^5 - 1
+
+        int[] x5 = t;
+        sqr(x5, 5, u);              mul(u, x5, u);          // 2^10 - 1
+        int[] x10 = create();       copy(u, 0, x10, 0);
+        sqr(x10, 10, u);            mul(u, x10, u);         // 2^20 - 1
+        int[] x20 = create();       copy(u, 0, x20, 0);
+        sqr(x20, 20, u);            mul(u, x20, u);         // 2^40 - 1
+        sqr(u, 10, u);              mul(u, x10, u);         // 2^50 - 1
+        int[] x50 = x20;            copy(u, 0, x50, 0);
+        sqr(x50, 50, u);            mul(u, x50, u);         // 2^100 - 1
+        int[] x100 = x10;           copy(u, 0, x100, 0);
+        sqr(x100, 100, u);          mul(u, x100, u);        // 2^200 - 1
+        sqr(u, 50, u);              mul(u, x50, x250);      // 2^250 - 1
+    }
+
+    private static void reduce(long h0, long h1, long h2, long h3, long h4, long h5, long h6, long h7,
+        long h8, long h9, int[] z)
+    {
+        long c;
+
+        c = h0 >> 26; h1 += c; h0 -= c << 26;
+        c = h4 >> 26; h5 += c; h4 -= c << 26;
+        c = h1 >> 25; h2 += c; h1 -= c << 25;
+        c = h5 >> 25; h6 += c; h5 -= c << 25;
+        c = h2 >> 26; h3 += c; h2 -= c << 26;
+        c = h6 >> 26; h7 += c; h6 -= c << 26;
+        c = h3 >> 25; h4 += c; h3 -= c << 25;
+        c = h7 >> 25; h8 += c; h7 -= c << 25;
+        c = h4 >> 26; h5 += c; h4 -= c << 26;
+        c = h8 >> 26; h9 += c; h8 -= c << 26;
+        c = h9 >> 25; h0 += c * 19; h9 -= c << 25;
+        c = h0 >> 26; h1 += c; h0 -= c << 26;
+
+        z[0] = (int)h0; z[1] = (int)h1; z[2] = (int)h2; z[3] = (int)h3; z[4] = (int)h4;
+        z[5] = (int)h5; z[6] = (int)h6; z[7] = (int)h7; z[8] = (int)h8; z[9] = (int)h9;
+    }
+}
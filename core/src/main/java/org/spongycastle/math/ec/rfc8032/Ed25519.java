@@ -0,0 +1,779 @@
+package org.spongycastle.math.ec.rfc8032;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.spongycastle.crypto.Digest;
+import org.spongycastle.crypto.digests.SHA512Digest;
+import org.spongycastle.math.ec.WNafUtil;
+import org.spongycastle.math.ec.rfc7748.X25519Field;
+
+/**
+ * The Ed25519 signature scheme of RFC 8032 (the "pure" variant), over {@link X25519Field}.
+ * <p>
+ * Points are kept in extended twisted Edwards coordinates (X:Y:Z:T), with x = X/Z, y = Y/Z and
+ * xy = T/Z. Signing multiplies the base point using a table of its multiples, built once, that
+ * is scanned in full on every lookup so that the secret scalar does not influence memory
+ * access, and the arithmetic modulo L on the secret scalar and nonce is done on fixed-length
+ * limbs without data-dependent branches. Verification is variable-time and computes
+ * [S]B - [k]A with interleaved window NAFs.
+ */
+public abstract class Ed25519
+{
+    public static final int PUBLIC_KEY_SIZE = 32;
+    public static final int SECRET_KEY_SIZE = 32;
+    public static final int SIGNATURE_SIZE = 64;
+
+    private static final int POINT_BYTES = 32;
+    private static final int SCALAR_BYTES = 32;
+
+    private static final BigInteger P = BigInteger.ONE.shiftLeft(255).subtract(BigInteger.valueOf(19));
+    private static final BigInteger L = BigInteger.ONE.shiftLeft(252).add(
+        new BigInteger("27742317777372353535851937790883648493"));
+
+    private static final int[] C_D = X25519Field.create();
+    private static final int[] C_D2 = X25519Field.create();
+    private static final int[] C_SQRT_M1 = X25519Field.create();
+
+    // Multiples (j + 1).256^i.B, for i in [0, 32) and j in [0, 8), as (y + x, y - x, 2dxy)
+    private static final int PRECOMP_BLOCKS = 32;
+    private static final int PRECOMP_POINTS = 8;
+    private static final int[] PRECOMP_BASE;
+
+    // The odd multiples B, 3B, ..., 63B, for the window NAF of S during verification
+    private static final int WNAF_WIDTH_BASE = 7;
+    private static final PointPrecomp[] PRECOMP_BASE_WNAF;
+
+    private static final int WNAF_WIDTH = 5;
+
+    static
+    {
+        BigInteger d = BigInteger.valueOf(-121665).multiply(BigInteger.valueOf(121666).modInverse(P)).mod(P);
+        fromBigInteger(d, C_D);
+        fromBigInteger(d.shiftLeft(1).mod(P), C_D2);
+        fromBigInteger(BigInteger.valueOf(2).modPow(P.subtract(BigInteger.ONE).shiftRight(2), P), C_SQRT_M1);
+
+        // The base point has y = 4/5 and even x
+        byte[] encodedB = new byte[POINT_BYTES];
+        encodeBigInteger(BigInteger.valueOf(4).multiply(BigInteger.valueOf(5).modInverse(P)).mod(P), encodedB, 0);
+
+        PointExt b = new PointExt();
+        if (!decodePointVar(encodedB, 0, false, b))
+        {
+            throw new IllegalStateException("base point invalid");
+        }
+
+        PRECOMP_BASE = X25519Field.createTable(PRECOMP_BLOCKS * PRECOMP_POINTS * 3);
+        int off = 0;
+
+        PointExt p = copy(b);
+        for (int i = 0; i < PRECOMP_BLOCKS; ++i)
+        {
+            PointExt sum = copy(p);
+            for (int j = 0; j < PRECOMP_POINTS; ++j)
+            {
+                if (j > 0)
+                {
+                    pointAdd(p, sum);
+                }
+
+                PointPrecomp pre = toPrecomp(sum);
+                X25519Field.copy(pre.ypx_h, 0, PRECOMP_BASE, off);     off += X25519Field.SIZE;
+                X25519Field.copy(pre.ymx_h, 0, PRECOMP_BASE, off);     off += X25519Field.SIZE;
+                X25519Field.copy(pre.xyd, 0, PRECOMP_BASE, off);       off += X25519Field.SIZE;
+            }
+
+            for (int k = 0; k < 8; ++k)
+            {
+                pointDouble(p);
+            }
+        }
+
+        PRECOMP_BASE_WNAF = new PointPrecomp[1 << (WNAF_WIDTH_BASE - 2)];
+        PointExt b2 = copy(b);
+        pointDouble(b2);
+        PointExt odd = copy(b);
+        for (int i = 0; i < PRECOMP_BASE_WNAF.length; ++i)
+        {
+            if (i > 0)
+            {
+                pointAdd(b2, odd);
+            }
+            PRECOMP_BASE_WNAF[i] = toPrecomp(odd);
+        }
+    }
+
+    private static class PointExt
+    {
+        int[] x = X25519Field.create();
+        int[] y = X25519Field.create();
+        int[] z = X25519Field.create();
+        int[] t = X25519Field.create();
+    }
+
+    private static class PointPrecomp
+    {
+        int[] ypx_h = X25519Field.create();
+        int[] ymx_h = X25519Field.create();
+        int[] xyd = X25519Field.create();
+    }
+
+    public static void generatePrivateKey(SecureRandom random, byte[] k)
+    {
+        random.nextBytes(k);
+    }
+
+    public static void generatePublicKey(byte[] sk, int skOff, byte[] pk, int pkOff)
+    {
+        byte[] h = new byte[64];
+        hash(h, sk, skOff, SECRET_KEY_SIZE);
+
+        byte[] s = new byte[SCALAR_BYTES];
+        pruneScalar(h, 0, s);
+
+        scalarMultBaseEncoded(s, pk, pkOff);
+    }
+
+    public static void sign(byte[] sk, int skOff, byte[] m, int mOff, int mLen, byte[] sig, int sigOff)
+    {
+        byte[] pk = new byte[PUBLIC_KEY_SIZE];
+        generatePublicKey(sk, skOff, pk, 0);
+
+        sign(sk, skOff, pk, 0, m, mOff, mLen, sig, sigOff);
+    }
+
+    public static void sign(byte[] sk, int skOff, byte[] pk, int pkOff, byte[] m, int mOff, int mLen,
+        byte[] sig, int sigOff)
+    {
+        Digest d = new SHA512Digest();
+        byte[] h = new byte[64];
+
+        d.update(sk, skOff, SECRET_KEY_SIZE);
+        d.doFinal(h, 0);
+
+        byte[] s = new byte[SCALAR_BYTES];
+        pruneScalar(h, 0, s);
+
+        // r = H(prefix || M) mod L
+        d.update(h, SCALAR_BYTES, SCALAR_BYTES);
+        d.update(m, mOff, mLen);
+        d.doFinal(h, 0);
+        byte[] r = new byte[SCALAR_BYTES];
+        reduceScalar(h, r);
+
+        byte[] R = new byte[POINT_BYTES];
+        scalarMultBaseEncoded(r, R, 0);
+
+        // k = H(R || A || M) mod L
+        d.update(R, 0, POINT_BYTES);
+        d.update(pk, pkOff, POINT_BYTES);
+        d.update(m, mOff, mLen);
+        d.doFinal(h, 0);
+        byte[] k = new byte[SCALAR_BYTES];
+        reduceScalar(h, k);
+
+        // S = (r + k.s) mod L
+        System.arraycopy(R, 0, sig, sigOff, POINT_BYTES);
+        mulAddScalar(k, s, r, sig, sigOff + POINT_BYTES);
+    }
+
+    public static boolean verify(byte[] sig, int sigOff, byte[] pk, int pkOff, byte[] m, int mOff, int mLen)
+    {
+        byte[] R = new byte[POINT_BYTES];
+        System.arraycopy(sig, sigOff, R, 0, POINT_BYTES);
+
+        byte[] encodedS = new byte[SCALAR_BYTES];
+        System.arraycopy(sig, sigOff + POINT_BYTES, encodedS, 0, SCALAR_BYTES);
+        BigInteger S = decodeScalar(encodedS);
+        if (S.compareTo(L) >= 0)
+        {
+            return false;
+        }
+
+        PointExt negA = new PointExt();
+        if (!decodePointVar(pk, pkOff, true, negA))
+        {
+            return false;
+        }
+
+        Digest d = new SHA512Digest();
+        byte[] h = new byte[64];
+        d.update(R, 0, POINT_BYTES);
+        d.update(pk, pkOff, POINT_BYTES);
+        d.update(m, mOff, mLen);
+        d.doFinal(h, 0);
+        byte[] encodedK = new byte[SCALAR_BYTES];
+        reduceScalar(h, encodedK);
+        BigInteger k = decodeScalar(encodedK);
+
+        // Check that [S]B - [k]A encodes to R
+        PointExt check = scalarMultStraussVar(S, k, negA);
+
+        byte[] encoded = new byte[POINT_BYTES];
+        encodePoint(check, encoded, 0);
+
+        for (int i = 0; i < POINT_BYTES; ++i)
+        {
+            if (encoded[i] != R[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static PointExt copy(PointExt p)
+    {
+        PointExt r = new PointExt();
+        X25519Field.copy(p.x, 0, r.x, 0);
+        X25519Field.copy(p.y, 0, r.y, 0);
+        X25519Field.copy(p.z, 0, r.z, 0);
+        X25519Field.copy(p.t, 0, r.t, 0);
+        return r;
+    }
+
+    private static boolean decodePointVar(byte[] p, int pOff, boolean negate, PointExt r)
+    {
+        byte[] py = new byte[POINT_BYTES];
+        System.arraycopy(p, pOff, py, 0, POINT_BYTES);
+        int x_0 = (py[POINT_BYTES - 1] & 0x80) >>> 7;
+        py[POINT_BYTES - 1] &= 0x7F;
+
+        X25519Field.decode(py, 0, r.y);
+
+        // Reject a non-canonical y
+        byte[] check = new byte[POINT_BYTES];
+        X25519Field.encode(r.y, check, 0);
+        for (int i = 0; i < POINT_BYTES; ++i)
+        {
+            if (check[i] != py[i])
+            {
+                return false;
+            }
+        }
+
+        // x^2 = u/v, with u = y^2 - 1 and v = d.y^2 + 1
+        int[] u = X25519Field.create();
+        int[] v = X25519Field.create();
+        int[] one = X25519Field.create();
+        X25519Field.one(one);
+
+        X25519Field.sqr(r.y, u);
+        X25519Field.mul(C_D, u, v);
+        X25519Field.sub(u, one, u);
+        X25519Field.add(v, one, v);
+        X25519Field.carry(u);
+        X25519Field.carry(v);
+
+        // x = u.v^3.(u.v^7)^((p - 5) / 8)
+        int[] v3 = X25519Field.create();
+        int[] t = X25519Field.create();
+        X25519Field.sqr(v, t);
+        X25519Field.mul(t, v, v3);
+        X25519Field.sqr(v3, t);
+        X25519Field.mul(t, v, t);
+        X25519Field.mul(t, u, t);
+        X25519Field.powPm5d8(t, t);
+        X25519Field.mul(t, v3, t);
+        X25519Field.mul(t, u, r.x);
+
+        // Check v.x^2 = u, or else v.x^2 = -u and x needs multiplying by sqrt(-1)
+        int[] vxx = X25519Field.create();
+        X25519Field.sqr(r.x, vxx);
+        X25519Field.mul(vxx, v, vxx);
+
+        X25519Field.sub(vxx, u, t);
+        if (!X25519Field.isZeroVar(t))
+        {
+            X25519Field.add(vxx, u, t);
+            if (!X25519Field.isZeroVar(t))
+            {
+                return false;
+            }
+
+            X25519Field.mul(r.x, C_SQRT_M1, r.x);
+        }
+
+        X25519Field.normalize(r.x);
+        if (x_0 == 1 && X25519Field.isZeroVar(r.x))
+        {
+            return false;
+        }
+
+        if (negate ^ (x_0 != (r.x[0] & 1)))
+        {
+            X25519Field.negate(r.x, r.x);
+            X25519Field.carry(r.x);
+        }
+
+        X25519Field.one(r.z);
+        X25519Field.mul(r.x, r.y, r.t);
+        return true;
+    }
+
+    private static void encodePoint(PointExt p, byte[] r, int rOff)
+    {
+        int[] x = X25519Field.create();
+        int[] y = X25519Field.create();
+
+        X25519Field.inv(p.z, y);
+        X25519Field.mul(p.x, y, x);
+        X25519Field.mul(p.y, y, y);
+        X25519Field.normalize(x);
+
+        X25519Field.encode(y, r, rOff);
+        r[rOff + POINT_BYTES - 1] |= (byte)((x[0] & 1) << 7);
+    }
+
+    private static void hash(byte[] h, byte[] in, int inOff, int inLen)
+    {
+        Digest d = new SHA512Digest();
+        d.update(in, inOff, inLen);
+        d.doFinal(h, 0);
+    }
+
+    private static void pruneScalar(byte[] h, int hOff, byte[] s)
+    {
+        System.arraycopy(h, hOff, s, 0, SCALAR_BYTES);
+
+        s[0] &= 0xF8;
+        s[SCALAR_BYTES - 1] &= 0x7F;
+        s[SCALAR_BYTES - 1] |= 0x40;
+    }
+
+    /*
+     * Arithmetic modulo L on little-endian scalars, after the ref10 code of the RFC 8032
+     * authors: values are split into signed 21-bit limbs held in longs, and each limb above
+     * 2^252 is folded down using 2^252 = -(L - 2^252) (mod L), whose limbs are the constants
+     * below. Everything runs for a fixed number of steps, with no data-dependent branches or
+     * memory accesses, since the nonce r and the secret scalar s pass through here.
+     */
+    private static final int SCALAR_LIMBS = 12;
+
+    /*
+     * r = h mod L, for a 64 byte value h.
+     */
+    private static void reduceScalar(byte[] h, byte[] r)
+    {
+        long[] t = new long[2 * SCALAR_LIMBS];
+        decodeLimbs(h, 0, t, t.length);
+        reduceLimbs(t);
+        encodeLimbs(t, r, 0);
+    }
+
+    /*
+     * r = (a.b + c) mod L, for 32 byte values a, b and c.
+     */
+    private static void mulAddScalar(byte[] a, byte[] b, byte[] c, byte[] r, int rOff)
+    {
+        long[] x = new long[SCALAR_LIMBS];
+        long[] y = new long[SCALAR_LIMBS];
+        long[] t = new long[2 * SCALAR_LIMBS];
+        decodeLimbs(a, 0, x, SCALAR_LIMBS);
+        decodeLimbs(b, 0, y, SCALAR_LIMBS);
+        decodeLimbs(c, 0, t, SCALAR_LIMBS);
+
+        for (int i = 0; i < SCALAR_LIMBS; ++i)
+        {
+            long x_i = x[i];
+            for (int j = 0; j < SCALAR_LIMBS; ++j)
+            {
+                t[i + j] += x_i * y[j];
+            }
+        }
+
+        reduceLimbs(t);
+        encodeLimbs(t, r, rOff);
+    }
+
+    /*
+     * Split x (of 32 or 64 bytes) into count 21-bit limbs, the last limb taking all the
+     * remaining bits.
+     */
+    private static void decodeLimbs(byte[] x, int xOff, long[] z, int count)
+    {
+        int last = count - 1;
+        for (int i = 0; i <= last; ++i)
+        {
+            int bit = 21 * i, off = xOff + (bit >>> 3);
+            long w = (x[off] & 0xFFL) | (x[off + 1] & 0xFFL) << 8 | (x[off + 2] & 0xFFL) << 16
+                | (x[off + 3] & 0xFFL) << 24;
+            w >>>= (bit & 7);
+            z[i] = (i < last) ? (w & 0x1FFFFFL) : w;
+        }
+    }
+
+    /*
+     * Reduce the 24 limbs of t modulo L, leaving the result in the low 12 limbs, each in
+     * [0, 2^21).
+     */
+    private static void reduceLimbs(long[] t)
+    {
+        carryRound(t, 0, 22);
+        carryRound(t, 1, 21);
+
+        fold(t, 18, 23);
+        carryRound(t, 6, 16);
+        carryRound(t, 7, 15);
+
+        fold(t, 12, 17);
+        carryRound(t, 0, 10);
+        carryRound(t, 1, 11);
+
+        fold(t, 12, 12);
+        carryFloor(t, 11);
+
+        fold(t, 12, 12);
+        carryFloor(t, 10);
+    }
+
+    /*
+     * Fold limbs hi down to lo (all at least 12) into the limbs 12 places lower.
+     */
+    private static void fold(long[] t, int lo, int hi)
+    {
+        for (int i = hi; i >= lo; --i)
+        {
+            long t_i = t[i];
+            t[i - 12] += t_i * 666643;
+            t[i - 11] += t_i * 470296;
+            t[i - 10] += t_i * 654183;
+            t[i - 9] -= t_i * 997805;
+            t[i - 8] += t_i * 136657;
+            t[i - 7] -= t_i * 683901;
+            t[i] = 0;
+        }
+    }
+
+    /*
+     * Carry from every second limb, from first to last, rounding each to [-2^20, 2^20).
+     */
+    private static void carryRound(long[] t, int first, int last)
+    {
+        for (int i = first; i <= last; i += 2)
+        {
+            long carry = (t[i] + (1L << 20)) >> 21;
+            t[i + 1] += carry;
+            t[i] -= carry << 21;
+        }
+    }
+
+    /*
+     * Carry from each limb in turn, up to and including last, leaving each in [0, 2^21).
+     */
+    private static void carryFloor(long[] t, int last)
+    {
+        for (int i = 0; i <= last; ++i)
+        {
+            long carry = t[i] >> 21;
+            t[i + 1] += carry;
+            t[i] -= carry << 21;
+        }
+    }
+
+    /*
+     * Pack the low 12 limbs of t, each in [0, 2^21), into 32 bytes.
+     */
+    private static void encodeLimbs(long[] t, byte[] r, int rOff)
+    {
+        long acc = 0;
+        int bits = 0, pos = rOff;
+        for (int i = 0; i < SCALAR_LIMBS; ++i)
+        {
+            acc |= t[i] << bits;
+            bits += 21;
+            while (bits >= 8)
+            {
+                r[pos++] = (byte)acc;
+                acc >>>= 8;
+                bits -= 8;
+            }
+        }
+        r[pos] = (byte)acc;
+    }
+
+    private static BigInteger decodeScalar(byte[] k)
+    {
+        byte[] bigEndian = new byte[k.length];
+        for (int i = 0; i < k.length; ++i)
+        {
+            bigEndian[i] = k[k.length - 1 - i];
+        }
+        return new BigInteger(1, bigEndian);
+    }
+
+    private static void encodeBigInteger(BigInteger x, byte[] r, int rOff)
+    {
+        byte[] bigEndian = x.toByteArray();
+        int len = Math.min(bigEndian.length, 32);
+        for (int i = 0; i < 32; ++i)
+        {
+            r[rOff + i] = i < len ? bigEndian[bigEndian.length - 1 - i] : 0;
+        }
+    }
+
+    private static void fromBigInteger(BigInteger x, int[] z)
+    {
+        byte[] t = new byte[32];
+        encodeBigInteger(x, t, 0);
+        X25519Field.decode(t, 0, z);
+    }
+
+    /*
+     * r = r + p, using the unified formulas of Hisil et al. for a = -1 (add-2008-hwcd-3).
+     */
+    private static void pointAdd(PointExt p, PointExt r)
+    {
+        int[] A = X25519Field.create();
+        int[] B = X25519Field.create();
+        int[] C = X25519Field.create();
+        int[] D = X25519Field.create();
+        int[] E = X25519Field.create();
+        int[] F = X25519Field.create();
+        int[] G = X25519Field.create();
+        int[] H = X25519Field.create();
+
+        X25519Field.sub(r.y, r.x, A);
+        X25519Field.sub(p.y, p.x, B);
+        X25519Field.mul(A, B, A);
+        X25519Field.add(r.y, r.x, B);
+        X25519Field.add(p.y, p.x, C);
+        X25519Field.mul(B, C, B);
+        X25519Field.mul(r.t, p.t, C);
+        X25519Field.mul(C, C_D2, C);
+        X25519Field.mul(r.z, p.z, D);
+        X25519Field.mul(D, 2, D);
+
+        pointFinish(A, B, C, D, E, F, G, H, r);
+    }
+
+    /*
+     * r = r + p, for p in the (y + x, y - x, 2dxy) form of an affine point.
+     */
+    private static void pointAddPrecomp(PointPrecomp p, PointExt r)
+    {
+        int[] A = X25519Field.create();
+        int[] B = X25519Field.create();
+        int[] C = X25519Field.create();
+        int[] D = X25519Field.create();
+        int[] E = X25519Field.create();
+        int[] F = X25519Field.create();
+        int[] G = X25519Field.create();
+        int[] H = X25519Field.create();
+
+        X25519Field.sub(r.y, r.x, A);
+        X25519Field.mul(A, p.ymx_h, A);
+        X25519Field.add(r.y, r.x, B);
+        X25519Field.mul(B, p.ypx_h, B);
+        X25519Field.mul(r.t, p.xyd, C);
+        X25519Field.mul(r.z, 2, D);
+
+        pointFinish(A, B, C, D, E, F, G, H, r);
+    }
+
+    private static void pointFinish(int[] A, int[] B, int[] C, int[] D, int[] E, int[] F, int[] G, int[] H,
+        PointExt r)
+    {
+        X25519Field.sub(B, A, E);
+        X25519Field.sub(D, C, F);
+        X25519Field.add(D, C, G);
+        X25519Field.add(B, A, H);
+        X25519Field.mul(E, F, r.x);
+        X25519Field.mul(G, H, r.y);
+        X25519Field.mul(E, H, r.t);
+        X25519Field.mul(F, G, r.z);
+    }
+
+    /*
+     * r = 2r (dbl-2008-hwcd, with a = -1 and the signs of E, F, G, H all flipped).
+     */
+    private static void pointDouble(PointExt r)
+    {
+        int[] A = X25519Field.create();
+        int[] B = X25519Field.create();
+        int[] C = X25519Field.create();
+        int[] E = X25519Field.create();
+        int[] F = X25519Field.create();
+        int[] G = X25519Field.create();
+        int[] H = X25519Field.create();
+
+        X25519Field.sqr(r.x, A);
+        X25519Field.sqr(r.y, B);
+        X25519Field.sqr(r.z, C);
+        X25519Field.mul(C, 2, C);
+        X25519Field.add(A, B, H);
+        X25519Field.add(r.x, r.y, E);
+        X25519Field.sqr(E, E);
+        X25519Field.sub(H, E, E);
+        X25519Field.sub(A, B, G);
+        X25519Field.add(C, G, F);
+
+        X25519Field.mul(E, F, r.x);
+        X25519Field.mul(G, H, r.y);
+        X25519Field.mul(E, H, r.t);
+        X25519Field.mul(F, G, r.z);
+    }
+
+    private static void pointSetNeutral(PointExt p)
+    {
+        X25519Field.zero(p.x);
+        X25519Field.one(p.y);
+        X25519Field.one(p.z);
+        X25519Field.zero(p.t);
+    }
+
+    /*
+     * Constant-time lookup of digit.256^block.B, for digit in [-8, 8].
+     */
+    private static void pointLookup(int block, int digit, PointPrecomp r)
+    {
+        int sign = digit >>> 31;
+        int abs = (digit ^ -sign) + sign;
+
+        X25519Field.one(r.ypx_h);
+        X25519Field.one(r.ymx_h);
+        X25519Field.zero(r.xyd);
+
+        int off = block * PRECOMP_POINTS * 3 * X25519Field.SIZE;
+        for (int i = 1; i <= PRECOMP_POINTS; ++i)
+        {
+            int cond = ((i ^ abs) - 1) >>> 31;
+            X25519Field.cmov(cond, PRECOMP_BASE, off, r.ypx_h, 0);      off += X25519Field.SIZE;
+            X25519Field.cmov(cond, PRECOMP_BASE, off, r.ymx_h, 0);      off += X25519Field.SIZE;
+            X25519Field.cmov(cond, PRECOMP_BASE, off, r.xyd, 0);        off += X25519Field.SIZE;
+        }
+
+        // Negating swaps y + x with y - x, and negates xy
+        X25519Field.cswap(sign, r.ypx_h, r.ymx_h);
+        int[] negXyd = X25519Field.create();
+        X25519Field.negate(r.xyd, negXyd);
+        X25519Field.cmov(sign, negXyd, 0, r.xyd, 0);
+    }
+
+    private static PointPrecomp toPrecomp(PointExt p)
+    {
+        int[] x = X25519Field.create();
+        int[] y = X25519Field.create();
+        X25519Field.inv(p.z, y);
+        X25519Field.mul(p.x, y, x);
+        X25519Field.mul(p.y, y, y);
+
+        PointPrecomp r = new PointPrecomp();
+        X25519Field.add(y, x, r.ypx_h);
+        X25519Field.sub(y, x, r.ymx_h);
+        X25519Field.carry(r.ypx_h);
+        X25519Field.carry(r.ymx_h);
+        X25519Field.mul(x, y, r.xyd);
+        X25519Field.mul(r.xyd, C_D2, r.xyd);
+        return r;
+    }
+
+    /*
+     * Encode [k]B for a 32 byte little-endian scalar k below 2^255, in constant time. k is
+     * recoded into 64 signed radix 16 digits in [-8, 8]; the odd digits are summed first and
+     * multiplied by 16, then the even ones added, so that only multiples of 256^i.B are needed.
+     */
+    private static void scalarMultBaseEncoded(byte[] k, byte[] r, int rOff)
+    {
+        int[] e = new int[64];
+        for (int i = 0; i < SCALAR_BYTES; ++i)
+        {
+            e[2 * i] = k[i] & 15;
+            e[2 * i + 1] = (k[i] >>> 4) & 15;
+        }
+
+        int carry = 0;
+        for (int i = 0; i < 63; ++i)
+        {
+            e[i] += carry;
+            carry = (e[i] + 8) >> 4;
+            e[i] -= carry << 4;
+        }
+        e[63] += carry;
+
+        PointExt h = new PointExt();
+        pointSetNeutral(h);
+        PointPrecomp t = new PointPrecomp();
+
+        for (int i = 1; i < 64; i += 2)
+        {
+            pointLookup(i >>> 1, e[i], t);
+            pointAddPrecomp(t, h);
+        }
+
+        pointDouble(h);
+        pointDouble(h);
+        pointDouble(h);
+        pointDouble(h);
+
+        for (int i = 0; i < 64; i += 2)
+        {
+            pointLookup(i >>> 1, e[i], t);
+            pointAddPrecomp(t, h);
+        }
+
+        encodePoint(h, r, rOff);
+    }
+
+    /*
+     * [s]B + [k]P, interleaving window NAFs of s (against a fixed table for B) and of k.
+     * Variable-time: only for public values.
+     */
+    private static PointExt scalarMultStraussVar(BigInteger s, BigInteger k, PointExt p)
+    {
+        byte[] ws = WNafUtil.generateWindowNaf(WNAF_WIDTH_BASE, s);
+        byte[] wk = WNafUtil.generateWindowNaf(WNAF_WIDTH, k);
+
+        PointExt[] tp = new PointExt[1 << (WNAF_WIDTH - 2)];
+        PointExt p2 = copy(p);
+        pointDouble(p2);
+        tp[0] = copy(p);
+        for (int i = 1; i < tp.length; ++i)
+        {
+            tp[i] = copy(tp[i - 1]);
+            pointAdd(p2, tp[i]);
+        }
+
+        PointExt r = new PointExt();
+        pointSetNeutral(r);
+
+        PointPrecomp negB = new PointPrecomp();
+        PointExt negP = new PointExt();
+
+        for (int bit = Math.max(ws.length, wk.length) - 1; bit >= 0; --bit)
+        {
+            pointDouble(r);
+
+            int ds = bit < ws.length ? ws[bit] : 0;
+            if (ds != 0)
+            {
+                PointPrecomp b = PRECOMP_BASE_WNAF[Math.abs(ds) >>> 1];
+                if (ds < 0)
+                {
+                    X25519Field.copy(b.ymx_h, 0, negB.ypx_h, 0);
+                    X25519Field.copy(b.ypx_h, 0, negB.ymx_h, 0);
+                    X25519Field.negate(b.xyd, negB.xyd);
+                    b = negB;
+                }
+                pointAddPrecomp(b, r);
+            }
+
+            int dk = bit < wk.length ? wk[bit] : 0;
+            if (dk != 0)
+            {
+                PointExt q = tp[Math.abs(dk) >>> 1];
+                if (dk < 0)
+                {
+                    X25519Field.negate(q.x, negP.x);
+                    X25519Field.copy(q.y, 0, negP.y, 0);
+                    X25519Field.copy(q.z, 0, negP.z, 0);
+                    X25519Field.negate(q.t, negP.t);
+                    q = negP;
+                }
+                pointAdd(q, r);
+            }
+        }
+
+        return r;
+    }
+}
@@ -0,0 +1,243 @@
+package org.spongycastle.math.raw;
+
+/**
+ * Modular arithmetic helpers for odd moduli held in the {@link Nat} representation.
+ * <p>
+ * The Montgomery arithmetic here (with R = 2^(32.len) for a modulus of len words) takes time
+ * that depends only on the lengths of its arguments, not their values, so it is suitable for
+ * secret operands. {@link #invert} is not constant-time.
+ */
+public abstract class Mod
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    /**
+     * Compute 1/d mod 2^32 for odd d, by Newton iteration from an inverse good to 3 bits.
+     */
+    public static int inverse32(int d)
+    {
+        if ((d & 1) == 0)
+        {
+            throw new IllegalArgumentException("'d' must be odd");
+        }
+
+        int x = d;
+        for (int i = 0; i < 4; ++i)
+        {
+            x *= 2 - d * x;
+        }
+        return x;
+    }
+
+    /**
+     * Montgomery reduction: compute z = tt / R mod p, for tt < p.R. This destroys tt.
+     *
+     * @param p an odd modulus, its length determines the working length.
+     * @param pInv -1/p mod 2^32, i.e. -inverse32(p[0]).
+     * @param tt a value of 2.len words.
+     * @param z the array to receive the result, which is fully reduced.
+     */
+    public static void montgomeryReduce(int[] p, int pInv, int[] tt, int[] z)
+    {
+        int len = p.length;
+        long c2 = 0;
+        for (int i = 0; i < len; ++i)
+        {
+            long u = (tt[i] * pInv) & M;
+            long c = 0;
+            for (int j = 0; j < len; ++j)
+            {
+                c += u * (p[j] & M) + (tt[i + j] & M);
+                tt[i + j] = (int)c;
+                c >>>= 32;
+            }
+            c += c2 + (tt[i + len] & M);
+            tt[i + len] = (int)c;
+            c2 = c >>> 32;
+        }
+
+        System.arraycopy(tt, len, z, 0, len);
+
+        // The result is below 2p; subtract p (into the now unused low half of tt) unless that
+        // borrows from a carry-free value
+        int borrow = Nat.sub(len, z, p, tt);
+        Nat.cmov(len, ~((int)c2 + borrow), tt, z);
+    }
+
+    /**
+     * Compute z = x.y / R mod p, for x, y < p. tt is scratch space of 2.len words.
+     */
+    public static void montgomeryMultiply(int[] p, int pInv, int[] x, int[] y, int[] z, int[] tt)
+    {
+        Nat.mul(p.length, x, y, tt);
+        montgomeryReduce(p, pInv, tt, z);
+    }
+
+    /**
+     * Compute z = x^2 / R mod p, for x < p. tt is scratch space of 2.len words.
+     */
+    public static void montgomerySquare(int[] p, int pInv, int[] x, int[] z, int[] tt)
+    {
+        Nat.square(p.length, x, tt);
+        montgomeryReduce(p, pInv, tt, z);
+    }
+
+    /**
+     * Compute R^2 mod p, for converting values to Montgomery form with
+     * {@link #montgomeryMultiply}.
+     */
+    public static int[] montgomeryR2(int[] p)
+    {
+        int len = p.length;
+        int[] z = Nat.create(len), t = Nat.create(len);
+        z[0] = 1;
+
+        for (int i = 0; i < 64 * len; ++i)
+        {
+            int c = Nat.shiftUpBit(len, z, 0, z);
+            int borrow = Nat.sub(len, z, p, t);
+            Nat.cmov(len, ~(c + borrow), t, z);
+        }
+        return z;
+    }
+
+    /**
+     * Compute z = x^e mod p with a fixed 4-bit window, in Montgomery form throughout. Every bit
+     * of e is processed and every table entry is read for each window, so the time taken depends
+     * only on the lengths of p and e.
+     *
+     * @param p an odd modulus greater than 1, its length determines the working length.
+     * @param x a value in [0, p).
+     * @param e the exponent, of any length.
+     * @param z the array to receive the result.
+     */
+    public static void modPow(int[] p, int[] x, int[] e, int[] z)
+    {
+        int len = p.length;
+        int pInv = -inverse32(p[0]);
+        int[] tt = Nat.create(len << 1);
+
+        int[] r2 = montgomeryR2(p);
+
+        int[][] table = new int[16][];
+        table[0] = Nat.create(len);
+        Nat.zero(len << 1, tt);
+        System.arraycopy(r2, 0, tt, 0, len);
+        montgomeryReduce(p, pInv, tt, table[0]);
+        table[1] = Nat.create(len);
+        montgomeryMultiply(p, pInv, x, r2, table[1], tt);
+        for (int i = 2; i < 16; ++i)
+        {
+            table[i] = Nat.create(len);
+            montgomeryMultiply(p, pInv, table[i - 1], table[1], table[i], tt);
+        }
+
+        int[] acc = Nat.copy(len, table[0]);
+        int[] t = Nat.create(len);
+
+        for (int i = (e.length << 3) - 1; i >= 0; --i)
+        {
+            for (int j = 0; j < 4; ++j)
+            {
+                montgomerySquare(p, pInv, acc, acc, tt);
+            }
+
+            int w = (e[i >>> 3] >>> ((i & 7) << 2)) & 15;
+            for (int k = 0; k < 16; ++k)
+            {
+                // -1 exactly when k == w
+                int mask = ((w ^ k) - 1) >> 31;
+                Nat.cmov(len, mask, table[k], t);
+            }
+
+            montgomeryMultiply(p, pInv, acc, t, acc, tt);
+        }
+
+        Nat.zero(len << 1, tt);
+        System.arraycopy(acc, 0, tt, 0, len);
+        montgomeryReduce(p, pInv, tt, z);
+    }
+
+    /**
+     * Compute z = 1/x mod p using the binary extended Euclidean algorithm.
+     *
+     * @param p an odd modulus, its length determines the working length.
+     * @param x a value in [1, p).
+     * @param z the array to receive the inverse.
+     */
+    public static void invert(int[] p, int[] x, int[] z)
+    {
+        int len = p.length;
+        if (Nat.isZero(len, x))
+        {
+            throw new IllegalArgumentException("'x' cannot be 0");
+        }
+        if (Nat.isOne(len, x))
+        {
+            System.arraycopy(x, 0, z, 0, len);
+            return;
+        }
+
+        int[] u = Nat.copy(len, x);
+        int[] a = Nat.create(len);
+        a[0] = 1;
+        int[] v = Nat.copy(len, p);
+        int[] b = Nat.create(len);
+
+        for (;;)
+        {
+            while ((u[0] & 1) == 0)
+            {
+                Nat.shiftDownBit(len, u, 0);
+                halve(p, a);
+            }
+            while ((v[0] & 1) == 0)
+            {
+                Nat.shiftDownBit(len, v, 0);
+                halve(p, b);
+            }
+
+            if (Nat.isOne(len, u))
+            {
+                System.arraycopy(a, 0, z, 0, len);
+                return;
+            }
+            if (Nat.isOne(len, v))
+            {
+                System.arraycopy(b, 0, z, 0, len);
+                return;
+            }
+
+            if (Nat.gte(len, u, v))
+            {
+                Nat.subFrom(len, v, u);
+                subtract(p, a, b);
+            }
+            else
+            {
+                Nat.subFrom(len, u, v);
+                subtract(p, b, a);
+            }
+        }
+    }
+
+    private static void halve(int[] p, int[] x)
+    {
+        int len = p.length;
+        int c = 0;
+        if ((x[0] & 1) != 0)
+        {
+            c = Nat.addTo(len, p, x);
+        }
+        Nat.shiftDownBit(len, x, c);
+    }
+
+    private static void subtract(int[] p, int[] z, int[] y)
+    {
+        int len = p.length;
+        if (Nat.subFrom(len, y, z) != 0)
+        {
+            Nat.addTo(len, p, z);
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package org.spongycastle.math.raw;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic on fixed-length natural numbers held as little-endian arrays of 32 bit words. The
+ * length in words is passed explicitly to each method, so the arrays may be longer than needed.
+ * <p>
+ * The arithmetic (add, sub, mul, square, shifts, and the masked cadd, csub and cmov) takes time
+ * that depends only on the length, not on the values. The comparisons and tests (eq, gte,
+ * isOne, isZero, getBitLength), inc and addWordAt exit early and are not constant-time.
+ */
+public abstract class Nat
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    public static int add(int len, int[] x, int[] y, int[] z)
+    {
+        long c = 0;
+        for (int i = 0; i < len; ++i)
+        {
+            c += (x[i] & M) + (y[i] & M);
+            z[i] = (int)c;
+            c >>>= 32;
+        }
+        return (int)c;
+    }
+
+    public static int addTo(int len, int[] x, int[] z)
+    {
+        long c = 0;
+        for (int i = 0; i < len; ++i)
+        {
+            c += (x[i] & M) + (z[i] & M);
+            z[i] = (int)c;
+            c >>>= 32;
+        }
+        return (int)c;
+    }
+
+    public static int addWordAt(int len, int x, int[] z, int zPos)
+    {
+        long c = (x & M) + (z[zPos] & M);
+        z[zPos] = (int)c;
+        c >>>= 32;
+        return c == 0 ? 0 : inc(len, z, zPos + 1);
+    }
+
+    /**
+     * Computes z = x + (y if mask is -1, or 0 if mask is 0), taking the same time either way.
+     */
+    public static int cadd(int len, int mask, int[] x, int[] y, int[] z)
+    {
+        long m = mask & M;
+        long c = 0;
+        for (int i = 0; i < len; ++i)
+        {
+            c += (x[i] & M) + (y[i] & m);
+            z[i] = (int)c;
+            c >>>= 32;
+        }
+        return (int)c;
+    }
+
+    /**
+     * Sets z = x if mask is -1, leaving z unchanged if mask is 0, taking the same time either way.
+     */
+    public static void cmov(int len, int mask, int[] x, int[] z)
+    {
+        for (int i = 0; i < len; ++i)
+        {
+            int z_i = z[i];
+            z[i] = z_i ^ ((z_i ^ x[i]) & mask);
+        }
+    }
+
+    public static int[] copy(int len, int[] x)
+    {
+        int[] z = new int[len];
+        System.arraycopy(x, 0, z, 0, len);
+        return z;
+    }
+
+    public static void copy(int len, int[] x, int[] z)
+    {
+        System.arraycopy(x, 0, z, 0, len);
+    }
+
+    /**
+     * Computes z = x - (y if mask is -1, or 0 if mask is 0), taking the same time either way.
+     */
+    public static int csub(int len, int mask, int[] x, int[] y, int[] z)
+    {
+        long m = mask & M;
+        long c = 0;
+        for (int i = 0; i < len; ++i)
+        {
+            c += (x[i] & M) - (y[i] & m);
+            z[i] = (int)c;
+            c >>= 32;
+        }
+        return (int)c;
+    }
+
+    public static int[] create(int len)
+    {
+        return new int[len];
+    }
+
+    public static boolean eq(int len, int[] x, int[] y)
+    {
+        for (int i = len - 1; i >= 0; --i)
+        {
+            if (x[i] != y[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int[] fromBigInteger(int bits, BigInteger x)
+    {
+        if (x.signum() < 0 || x.bitLength() > bits)
+        {
+            throw new IllegalArgumentException();
+        }
+
+        int len = (bits + 31) >> 5;
+        int[] z = create(len);
+        int i = 0;
+        while (x.signum() != 0)
+        {
+            z[i++] = x.intValue();
+            x = x.shiftRight(32);
+        }
+        return z;
+    }
+
+    public static int getBit(int[] x, int bit)
+    {
+        if (bit == 0)
+        {
+            return x[0] & 1;
+        }
+        int w = bit >> 5;
+        if (w < 0 || w >= x.length)
+        {
+            return 0;
+        }
+        int b = bit & 31;
+        return (x[w] >>> b) & 1;
+    }
+
+    public static int getBitLength(int len, int[] x)
+    {
+        for (int i = len - 1; i >= 0; --i)
+        {
+            int w = x[i];
+            if (w != 0)
+            {
+                return i * 32 + 32 - Integer.numberOfLeadingZeros(w);
+            }
+        }
+        return 0;
+    }
+
+    public static boolean gte(int len, int[] x, int[] y)
+    {
+        for (int i = len - 1; i >= 0; --i)
+        {
+            int x_i = x[i] ^ Integer.MIN_VALUE;
+            int y_i = y[i] ^ Integer.MIN_VALUE;
+            if (x_i < y_i)
+            {
+                return false;
+            }
+            if (x_i > y_i)
+            {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    public static int inc(int len, int[] z, int zPos)
+    {
+        for (int i = zPos; i < len; ++i)
+        {
+            if (++z[i] != 0)
+            {
+                return 0;
+            }
+        }
+        return 1;
+    }
+
+    public static boolean isOne(int len, int[] x)
+    {
+        if (x[0] != 1)
+        {
+            return false;
+        }
+        for (int i = 1; i < len; ++i)
+        {
+            if (x[i] != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isZero(int len, int[] x)
+    {
+        for (int i = 0; i < len; ++i)
+        {
+            if (x[i] != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the full double-length product zz = x * y.
+     */
+    public static void mul(int len, int[] x, int[] y, int[] zz)
+    {
+        long y_0 = y[0] & M;
+        {
+            long c = 0;
+            for (int j = 0; j < len; ++j)
+            {
+                c += (x[j] & M) * y_0;
+                zz[j] = (int)c;
+                c >>>= 32;
+            }
+            zz[len] = (int)c;
+        }
+
+        for (int i = 1; i < len; ++i)
+        {
+            long y_i = y[i] & M;
+            long c = 0;
+            for (int j = 0; j < len; ++j)
+            {
+                c += (x[j] & M) * y_i + (zz[i + j] & M);
+                zz[i + j] = (int)c;
+                c >>>= 32;
+            }
+            zz[i + len] = (int)c;
+        }
+    }
+
+    /**
+     * Shifts z right by one bit in place, feeding the bit c in at the top, and returns the bit
+     * shifted out at the bottom.
+     */
+    public static int shiftDownBit(int len, int[] z, int c)
+    {
+        int i = len;
+        while (--i >= 0)
+        {
+            int next = z[i];
+            z[i] = (next >>> 1) | (c << 31);
+            c = next;
+        }
+        return c & 1;
+    }
+
+    /**
+     * Shifts x left by one bit into z, feeding the bit c in at the bottom, and returns the bit
+     * shifted out at the top.
+     */
+    public static int shiftUpBit(int len, int[] x, int c, int[] z)
+    {
+        for (int i = 0; i < len; ++i)
+        {
+            int next = x[i];
+            z[i] = (next << 1) | (c >>> 31);
+            c = next;
+        }
+        return c >>> 31;
+    }
+
+    /**
+     * Computes the full double-length square zz = x * x, forming each cross product only once.
+     */
+    public static void square(int len, int[] x, int[] zz)
+    {
+        int extLen = len << 1;
+        for (int i = 0; i < extLen; ++i)
+        {
+            zz[i] = 0;
+        }
+
+        for (int i = 0; i < len - 1; ++i)
+        {
+            long x_i = x[i] & M;
+            long c = 0;
+            for (int j = i + 1; j < len; ++j)
+            {
+                c += x_i * (x[j] & M) + (zz[i + j] & M);
+                zz[i + j] = (int)c;
+                c >>>= 32;
+            }
+            zz[i + len] = (int)c;
+        }
+
+        shiftUpBit(extLen, zz, 0, zz);
+
+        long c = 0;
+        for (int i = 0; i < len; ++i)
+        {
+            long x_i = x[i] & M;
+            c += x_i * x_i + (zz[2 * i] & M);
+            zz[2 * i] = (int)c;
+            c >>>= 32;
+            c += zz[2 * i + 1] & M;
+            zz[2 * i + 1] = (int)c;
+            c >>>= 32;
+        }
+    }
+
+    public static int sub(int len, int[] x, int[] y, int[] z)
+    {
+        long c = 0;
+        for (int i = 0; i < len; ++i)
+        {
+            c += (x[i] & M) - (y[i] & M);
+            z[i] = (int)c;
+            c >>= 32;
+        }
+        return (int)c;
+    }
+
+    public static int subFrom(int len, int[] x, int[] z)
+    {
+        long c = 0;
+        for (int i = 0; i < len; ++i)
+        {
+            c += (z[i] & M) - (x[i] & M);
+            z[i] = (int)c;
+            c >>= 32;
+        }
+        return (int)c;
+    }
+
+    public static BigInteger toBigInteger(int len, int[] x)
+    {
+        byte[] bs = new byte[len << 2];
+        for (int i = 0; i < len; ++i)
+        {
+            int x_i = x[i];
+            if (x_i != 0)
+            {
+                int pos = (len - 1 - i) << 2;
+                bs[pos    ] = (byte)(x_i >>> 24);
+                bs[pos + 1] = (byte)(x_i >>> 16);
+                bs[pos + 2] = (byte)(x_i >>> 8);
+                bs[pos + 3] = (byte)x_i;
+            }
+        }
+        return new BigInteger(1, bs);
+    }
+
+    public static void zero(int len, int[] z)
+    {
+        for (int i = 0; i < len; ++i)
+        {
+            z[i] = 0;
+        }
+    }
+}
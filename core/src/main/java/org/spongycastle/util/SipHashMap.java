@@ -0,0 +1,223 @@
+package org.spongycastle.util;
+
+import java.security.SecureRandom;
+
+import org.spongycastle.crypto.macs.SipHash;
+
+/**
+ * An open addressing (linear probing) hash table with byte array keys, hashed using SipHash-2-4
+ * under a random key.
+ * <p/>
+ * As the hash function key is secret, an attacker who controls the keys being stored cannot
+ * construct collisions in advance, so this table is suitable for caches indexed by untrusted input
+ * such as session IDs or certificate fingerprints.
+ * <p/>
+ * Keys are compared by content, and are copied when first stored. Neither keys nor values may be
+ * null. This class is not synchronized.
+ */
+public class SipHashMap
+{
+    private static final int MIN_CAPACITY = 16;
+
+    private final long k0;
+    private final long k1;
+
+    private byte[][] keys;
+    private Object[] values;
+    private int size;
+
+    /**
+     * Create a map using a hash key drawn from a new SecureRandom.
+     */
+    public SipHashMap()
+    {
+        this(new SecureRandom());
+    }
+
+    /**
+     * Create a map using a hash key drawn from the passed in random source.
+     *
+     * @param random the source of the hash key.
+     */
+    public SipHashMap(SecureRandom random)
+    {
+        this(random.nextLong(), random.nextLong());
+    }
+
+    /**
+     * Create a map using the passed in hash key - this must be kept secret from anyone able to
+     * choose the keys stored in the map.
+     *
+     * @param k0 the first half of the SipHash key.
+     * @param k1 the second half of the SipHash key.
+     */
+    public SipHashMap(long k0, long k1)
+    {
+        this.k0 = k0;
+        this.k1 = k1;
+        this.keys = new byte[MIN_CAPACITY][];
+        this.values = new Object[MIN_CAPACITY];
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public boolean containsKey(byte[] key)
+    {
+        return get(key) != null;
+    }
+
+    /**
+     * Return the value stored against key.
+     *
+     * @param key the key of interest.
+     * @return the value associated with key, null if there is none.
+     */
+    public Object get(byte[] key)
+    {
+        int index = find(key);
+
+        return (index < 0) ? null : values[index];
+    }
+
+    /**
+     * Associate value with key, replacing any existing association.
+     *
+     * @param key the key.
+     * @param value the value to store.
+     * @return the value previously associated with key, null if there was none.
+     */
+    public Object put(byte[] key, Object value)
+    {
+        if (key == null || value == null)
+        {
+            throw new IllegalArgumentException("key and value cannot be null");
+        }
+
+        int index = find(key);
+        if (index >= 0)
+        {
+            Object old = values[index];
+            values[index] = value;
+            return old;
+        }
+
+        if ((size + 1) * 2 > keys.length)
+        {
+            resize(keys.length * 2);
+        }
+
+        insert(Arrays.clone(key), value);
+        ++size;
+
+        return null;
+    }
+
+    /**
+     * Remove the association for key, if there is one.
+     *
+     * @param key the key.
+     * @return the value previously associated with key, null if there was none.
+     */
+    public Object remove(byte[] key)
+    {
+        int index = find(key);
+        if (index < 0)
+        {
+            return null;
+        }
+
+        Object old = values[index];
+        int mask = keys.length - 1;
+
+        // backward shift deletion - close the gap so later probes still find their entries
+        int gap = index;
+        int i = (index + 1) & mask;
+        while (keys[i] != null)
+        {
+            int home = slot(keys[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask))
+            {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[gap] = null;
+        values[gap] = null;
+        --size;
+
+        return old;
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i != keys.length; i++)
+        {
+            keys[i] = null;
+            values[i] = null;
+        }
+        size = 0;
+    }
+
+    private int slot(byte[] key)
+    {
+        return (int)SipHash.hash(k0, k1, key, 0, key.length) & (keys.length - 1);
+    }
+
+    private int find(byte[] key)
+    {
+        if (key == null)
+        {
+            return -1;
+        }
+
+        int mask = keys.length - 1;
+        for (int i = slot(key); keys[i] != null; i = (i + 1) & mask)
+        {
+            if (Arrays.areEqual(keys[i], key))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private void insert(byte[] key, Object value)
+    {
+        int mask = keys.length - 1;
+        int i = slot(key);
+        while (keys[i] != null)
+        {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private void resize(int capacity)
+    {
+        byte[][] oldKeys = keys;
+        Object[] oldValues = values;
+
+        keys = new byte[capacity][];
+        values = new Object[capacity];
+
+        for (int i = 0; i != oldKeys.length; i++)
+        {
+            if (oldKeys[i] != null)
+            {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.spongycastle.crypto.test;
+
+import java.util.BitSet;
+
+import org.spongycastle.crypto.CipherParameters;
+import org.spongycastle.crypto.Mac;
+import org.spongycastle.crypto.digests.SHA256Digest;
+import org.spongycastle.crypto.engines.AESFastEngine;
+import org.spongycastle.crypto.macs.BatchMacVerifier;
+import org.spongycastle.crypto.macs.CMac;
+import org.spongycastle.crypto.macs.HMac;
+import org.spongycastle.crypto.macs.HMacKey;
+import org.spongycastle.crypto.params.KeyParameter;
+import org.spongycastle.util.encoders.Hex;
+import org.spongycastle.util.test.SimpleTest;
+
+public class BatchMacVerifierTest
+    extends SimpleTest
+{
+    private static final byte[] KEY = Hex.decode("2b7e151628aed2a6abf7158809cf4f3c");
+
+    public String getName()
+    {
+        return "BatchMacVerifier";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        batchTest(new HMac(new SHA256Digest()), new KeyParameter(KEY));
+        batchTest(new HMac(new SHA256Digest()), new HMacKey(new SHA256Digest(), KEY));
+        batchTest(new CMac(new AESFastEngine()), new KeyParameter(KEY));
+    }
+
+    private void batchTest(Mac mac, CipherParameters key)
+    {
+        byte[][] messages = new byte[40][];
+        byte[][] tags = new byte[messages.length][];
+
+        mac.init(key);
+        for (int i = 0; i < messages.length; i++)
+        {
+            messages[i] = new byte[i * 7];
+            for (int j = 0; j < messages[i].length; j++)
+            {
+                messages[i][j] = (byte)(i + j);
+            }
+
+            tags[i] = new byte[mac.getMacSize()];
+            mac.update(messages[i], 0, messages[i].length);
+            mac.doFinal(tags[i], 0);
+        }
+
+        // corrupt a few tags
+        tags[3][0] ^= 1;
+        tags[17][tags[17].length - 1] ^= 0x80;
+        tags[31] = new byte[tags[31].length - 1];
+
+        BatchMacVerifier verifier = new BatchMacVerifier(mac);
+        verifier.init(key);
+
+        BitSet results = verifier.verify(messages, tags);
+
+        for (int i = 0; i < messages.length; i++)
+        {
+            boolean expected = (i != 3 && i != 17 && i != 31);
+            if (results.get(i) != expected)
+            {
+                fail(mac.getAlgorithmName() + " batch result " + i + " wrong");
+            }
+        }
+
+        if (!verifier.verify(messages[5], 0, messages[5].length, tags[5], 0, tags[5].length))
+        {
+            fail(mac.getAlgorithmName() + " single verify failed after batch");
+        }
+    }
+
+    public static void main(
+        String[] args)
+    {
+        runTest(new BatchMacVerifierTest());
+    }
+}
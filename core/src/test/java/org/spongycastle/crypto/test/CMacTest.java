@@ -250,7 +250,25 @@ public void performTest()
             fail("Failed - expected " + new String(Hex.encode(output_k256_m64))
                 + " got " + new String(Hex.encode(out)));
         }
-        
+
+        // back to the 128 bit key, single byte updates
+        mac.init(new KeyParameter(keyBytes128));
+
+        for (int i = 0; i < input40.length; i++)
+        {
+            mac.update(input40[i]);
+        }
+
+        out = new byte[16];
+
+        mac.doFinal(out, 0);
+
+        if (!areEqual(out, output_k128_m40))
+        {
+            fail("Failed - expected " + new String(Hex.encode(output_k128_m40))
+                + " got " + new String(Hex.encode(out)));
+        }
+
         testExceptions();
     }
 
@@ -2,10 +2,14 @@
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.spongycastle.crypto.AsymmetricCipherKeyPair;
 import org.spongycastle.crypto.agreement.DHAgreement;
 import org.spongycastle.crypto.agreement.DHBasicAgreement;
+import org.spongycastle.crypto.agreement.DHStandardGroups;
+import org.spongycastle.crypto.digests.SHA256Digest;
 import org.spongycastle.crypto.generators.DHBasicKeyPairGenerator;
 import org.spongycastle.crypto.generators.DHKeyPairGenerator;
 import org.spongycastle.crypto.generators.DHParametersGenerator;
@@ -14,6 +18,7 @@
 import org.spongycastle.crypto.params.DHPrivateKeyParameters;
 import org.spongycastle.crypto.params.DHPublicKeyParameters;
 import org.spongycastle.crypto.params.ParametersWithRandom;
+import org.spongycastle.crypto.prng.DigestRandomGenerator;
 import org.spongycastle.util.test.SimpleTest;
 
 public class DHTest
@@ -295,6 +300,86 @@ private void testGeneration(
             fail("basic with " + size + " bit 2-way test failed");
         }
     }
+
+    private void testParallelGeneration(int size)
+    {
+        ExecutorService executor1 = Executors.newFixedThreadPool(1);
+        ExecutorService executor4 = Executors.newFixedThreadPool(4);
+
+        try
+        {
+            DHParameters dhParams1 = generateParameters(new DHParametersGenerator(executor1), size);
+            DHParameters dhParams4 = generateParameters(new DHParametersGenerator(executor4), size);
+
+            BigInteger p = dhParams4.getP(), q = dhParams4.getQ();
+            if (p.bitLength() != size || !p.equals(q.shiftLeft(1).add(BigInteger.valueOf(1)))
+                || !p.isProbablePrime(100) || !q.isProbablePrime(100))
+            {
+                fail("parallel DHParametersGenerator (" + size + ") did not generate a safe prime");
+            }
+
+            // the result depends on the random source only, not on the number of threads
+            if (!p.equals(dhParams1.getP()))
+            {
+                fail("parallel DHParametersGenerator (" + size + ") not reproducible");
+            }
+        }
+        finally
+        {
+            executor1.shutdown();
+            executor4.shutdown();
+        }
+    }
+
+    private DHParameters generateParameters(DHParametersGenerator pGen, int size)
+    {
+        final DigestRandomGenerator rGen = new DigestRandomGenerator(new SHA256Digest());
+        rGen.addSeedMaterial(size);
+
+        pGen.init(size, 20, new SecureRandom()
+        {
+            public void nextBytes(byte[] bytes)
+            {
+                rGen.nextBytes(bytes);
+            }
+        });
+
+        return pGen.generateParameters();
+    }
+
+    /*
+     * Checks modPowG against BigInteger.modPow over enough calls for the fixed-base table for g to
+     * be built, for exponents bounded by q or by the private value length, and for longer ones.
+     * The private value lengths cover table sizes whose row length is odd as well as even.
+     */
+    private void testModPowG()
+    {
+        DHParameters group = DHStandardGroups.rfc5114_2048_224;
+        DHParameters[] dhParams = new DHParameters[]{
+            new DHParameters(group.getP(), group.getG(), group.getQ()),
+            new DHParameters(p512, g512, null, 384),
+            new DHParameters(p512, g512, null, 200),
+            new DHParameters(p512, g512, null, 100),
+            new DHParameters(p512, g512, null, 17),
+            new DHParameters(p512, g512, null, 161) };
+
+        SecureRandom random = new SecureRandom();
+        for (int i = 0; i < dhParams.length; ++i)
+        {
+            BigInteger p = dhParams[i].getP(), g = dhParams[i].getG();
+            int bits = (dhParams[i].getQ() != null) ? dhParams[i].getQ().bitLength() : dhParams[i].getL();
+
+            for (int j = 0; j < 30; ++j)
+            {
+                BigInteger x = new BigInteger((j % 10 == 9) ? p.bitLength() : bits - (j % 3), random);
+                if (!g.modPow(x, p).equals(dhParams[i].modPowG(x)))
+                {
+                    fail("modPowG incorrect");
+                }
+            }
+        }
+    }
+
     private void testBounds()
     {
          BigInteger p1 = new BigInteger("00C8028E9151C6B51BCDB35C1F6B2527986A72D8546AE7A4BF41DC4289FF9837EE01592D36C324A0F066149B8B940C86C87D194206A39038AE3396F8E12435BB74449B70222D117B8A2BB77CB0D67A5D664DDE7B75E0FEC13CE0CAF258DAF3ADA0773F6FF0F2051D1859929AAA53B07809E496B582A89C3D7DA8B6E38305626621", 16);
@@ -329,11 +414,13 @@ public void performTest()
         testDH(1024, g1024, p1024);
 
         testBounds();
+        testModPowG();
 
         //
         // generation test.
         //
         testGeneration(256);
+        testParallelGeneration(256);
         
         //
         // with random test
@@ -103,6 +103,44 @@ public void performTest()
         dsa2Test2();
         dsa2Test3();
         dsa2Test4();
+
+        testRepeatedUse(params);
+    }
+
+    /*
+     * Signs and verifies enough times with one set of parameters for the fixed-base table for g
+     * to be built and used.
+     */
+    private void testRepeatedUse(DSAParameters params)
+    {
+        DSAKeyPairGenerator dsaKeyGen = new DSAKeyPairGenerator();
+        dsaKeyGen.init(new DSAKeyGenerationParameters(new SecureRandom(), params));
+
+        DSASigner dsa = new DSASigner();
+        for (int i = 0; i < 20; ++i)
+        {
+            AsymmetricCipherKeyPair pair = dsaKeyGen.generateKeyPair();
+            BigInteger x = ((DSAPrivateKeyParameters)pair.getPrivate()).getX();
+            if (!((DSAPublicKeyParameters)pair.getPublic()).getY().equals(params.getG().modPow(x, params.getP())))
+            {
+                fail("public key incorrect on repeated use");
+            }
+
+            byte[] message = BigIntegers.asUnsignedByteArray(BigInteger.valueOf(i + 1));
+
+            dsa.init(true, new ParametersWithRandom(pair.getPrivate(), new SecureRandom()));
+            BigInteger[] sig = dsa.generateSignature(message);
+
+            dsa.init(false, pair.getPublic());
+            if (!dsa.verifySignature(message, sig[0], sig[1]))
+            {
+                fail("verification fails on repeated use");
+            }
+            if (dsa.verifySignature(message, sig[0], sig[1].add(BigInteger.valueOf(1)).mod(params.getQ())))
+            {
+                fail("bad signature verified on repeated use");
+            }
+        }
     }
 
     private void dsa2Test1()
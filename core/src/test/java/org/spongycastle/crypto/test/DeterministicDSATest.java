@@ -7,6 +7,7 @@
 import org.spongycastle.crypto.CipherParameters;
 import org.spongycastle.crypto.DSA;
 import org.spongycastle.crypto.Digest;
+import org.spongycastle.crypto.digests.NonMemoableDigest;
 import org.spongycastle.crypto.digests.SHA1Digest;
 import org.spongycastle.crypto.digests.SHA224Digest;
 import org.spongycastle.crypto.digests.SHA256Digest;
@@ -460,6 +461,32 @@ private void testECHMacDeterministic()
 
     }
 
+    /*
+     * One calculator reused across messages, keys and curves, so the cached key state is hit, missed
+     * and replaced; the NonMemoableDigest run covers the uncached path.
+     */
+    private void testReusedCalculator()
+    {
+        X9ECParameters p192 = NISTNamedCurves.getByName("P-192");
+        ECPrivateKeyParameters key192 = new ECPrivateKeyParameters(new BigInteger("6FAB034934E4C0FC9AE67F5B5659A9D7D1FEFD187EE09FD4", 16),
+            new ECDomainParameters(p192.getCurve(), p192.getG(), p192.getN()));
+        X9ECParameters p224 = NISTNamedCurves.getByName("P-224");
+        ECPrivateKeyParameters key224 = new ECPrivateKeyParameters(new BigInteger("F220266E1105BFE3083E03EC7A3A654651F45E37167E88600BF257C1", 16),
+            new ECDomainParameters(p224.getCurve(), p224.getG(), p224.getN()));
+
+        Digest[] digests = new Digest[]{ new SHA256Digest(), new NonMemoableDigest(new SHA256Digest()) };
+        for (int i = 0; i < digests.length; ++i)
+        {
+            DSA signer = new ECDSASigner(new HMacDSAKCalculator(digests[i]));
+            Digest digest = new SHA256Digest();
+
+            doTestHMACDetECDSA(signer, digest, SAMPLE, key192, new BigInteger("4B0B8CE98A92866A2820E20AA6B75B56382E0F9BFD5ECB55", 16), new BigInteger("CCDB006926EA9565CBADC840829D8C384E06DE1F1E381B85", 16));
+            doTestHMACDetECDSA(signer, digest, TEST, key192, new BigInteger("3A718BD8B4926C3B52EE6BBE67EF79B18CB6EB62B1AD97AE", 16), new BigInteger("5662E6848A4A19B1F1AE2F72ACD4B8BBE50F1EAC65D9124F", 16));
+            doTestHMACDetECDSA(signer, digest, SAMPLE, key224, new BigInteger("61AA3DA010E8E8406C656BC477A7A7189895E7E840CDFE8FF42307BA", 16), new BigInteger("BC814050DAB5D23770879494F9E0A680DC1AF7161991BDE692B10101", 16));
+            doTestHMACDetECDSA(signer, digest, SAMPLE, key192, new BigInteger("4B0B8CE98A92866A2820E20AA6B75B56382E0F9BFD5ECB55", 16), new BigInteger("CCDB006926EA9565CBADC840829D8C384E06DE1F1E381B85", 16));
+        }
+    }
+
     private void doTestHMACDetECDSASample(Digest digest, ECPrivateKeyParameters privKey, BigInteger r, BigInteger s)
     {
         doTestHMACDetECDSA(new ECDSASigner(new HMacDSAKCalculator(digest)), digest, SAMPLE, privKey, r, s);
@@ -501,6 +528,7 @@ public void performTest()
     {
         testHMacDeterministic();
         testECHMacDeterministic();
+        testReusedCalculator();
     }
 
 
@@ -0,0 +1,117 @@
+package org.spongycastle.crypto.test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.spongycastle.asn1.sec.SECNamedCurves;
+import org.spongycastle.asn1.x9.X9ECParameters;
+import org.spongycastle.crypto.AsymmetricCipherKeyPair;
+import org.spongycastle.crypto.generators.ECKeyPairGenerator;
+import org.spongycastle.crypto.params.ECDomainParameters;
+import org.spongycastle.crypto.params.ECKeyGenerationParameters;
+import org.spongycastle.crypto.params.ECPublicKeyParameters;
+import org.spongycastle.crypto.params.ParametersWithRandom;
+import org.spongycastle.crypto.signers.ECDSABatchVerifier;
+import org.spongycastle.crypto.signers.ECDSASigner;
+import org.spongycastle.util.test.SimpleTest;
+
+/**
+ * Checks that ECDSABatchVerifier agrees with ECDSASigner for a mix of good and bad signatures.
+ */
+public class ECDSABatchVerifierTest
+    extends SimpleTest
+{
+    private SecureRandom random = new SecureRandom();
+
+    public String getName()
+    {
+        return "ECDSABatchVerifier";
+    }
+
+    private void testBatch(String curveName)
+    {
+        X9ECParameters x9 = SECNamedCurves.getByName(curveName);
+        ECDomainParameters params = new ECDomainParameters(x9.getCurve(), x9.getG(), x9.getN(), x9.getH());
+
+        ECKeyPairGenerator pGen = new ECKeyPairGenerator();
+        pGen.init(new ECKeyGenerationParameters(params, random));
+        AsymmetricCipherKeyPair[] pairs = pGen.generateKeyPairs(3);
+
+        ECDSASigner signer = new ECDSASigner();
+        ECDSABatchVerifier verifier = new ECDSABatchVerifier(params);
+
+        int count = 20;
+        boolean[] expected = new boolean[count];
+        for (int i = 0; i < count; ++i)
+        {
+            AsymmetricCipherKeyPair pair = pairs[i % pairs.length];
+
+            byte[] message = new byte[32];
+            random.nextBytes(message);
+
+            signer.init(true, new ParametersWithRandom(pair.getPrivate(), random));
+            BigInteger[] sig = signer.generateSignature(message);
+            BigInteger r = sig[0], s = sig[1];
+
+            switch (i % 5)
+            {
+            case 1:
+                message[0] ^= 1;
+                break;
+            case 2:
+                s = s.add(BigInteger.ONE).mod(params.getN());
+                break;
+            case 3:
+                r = params.getN();
+                break;
+            default:
+                break;
+            }
+
+            // Check against keys that were not the ones used for signing too
+            ECPublicKeyParameters pub = (ECPublicKeyParameters)pairs[(i / 4) % pairs.length].getPublic();
+            if (i % 4 != 0)
+            {
+                pub = (ECPublicKeyParameters)pair.getPublic();
+            }
+
+            signer.init(false, pub);
+            expected[i] = signer.verifySignature(message, r, s);
+
+            verifier.addSignature(pub, message, r, s);
+        }
+
+        if (verifier.getSize() != count)
+        {
+            fail("wrong batch size");
+        }
+
+        boolean[] results = verifier.verify();
+
+        for (int i = 0; i < count; ++i)
+        {
+            if (results[i] != expected[i])
+            {
+                fail("batch result " + i + " wrong on " + curveName);
+            }
+        }
+
+        if (verifier.getSize() != 0 || verifier.verify().length != 0)
+        {
+            fail("batch not cleared after verify");
+        }
+    }
+
+    public void performTest()
+    {
+        testBatch("secp256r1");
+        testBatch("secp256k1");
+        testBatch("sect233r1");
+    }
+
+    public static void main(
+        String[]    args)
+    {
+        runTest(new ECDSABatchVerifierTest());
+    }
+}
@@ -22,6 +22,7 @@
 import org.spongycastle.crypto.signers.ECDSASigner;
 import org.spongycastle.math.ec.ECCurve;
 import org.spongycastle.math.ec.ECPoint;
+import org.spongycastle.math.ec.PreCompInfo;
 import org.spongycastle.util.BigIntegers;
 import org.spongycastle.util.encoders.Hex;
 import org.spongycastle.util.test.FixedSecureRandom;
@@ -653,6 +654,35 @@ private void testECDSAKeyGenTest()
         }
     }
 
+    /**
+     * batch key generation test
+     */
+    private void testECKeyPairBatch()
+    {
+        X9ECParameters x9 = SECNamedCurves.getByName("secp256r1");
+        ECDomainParameters params = new ECDomainParameters(x9.getCurve(), x9.getG(), x9.getN(), x9.getH());
+
+        ECKeyPairGenerator pGen = new ECKeyPairGenerator();
+        pGen.init(new ECKeyGenerationParameters(params, new SecureRandom()));
+
+        AsymmetricCipherKeyPair[] pairs = pGen.generateKeyPairs(10);
+        if (pairs.length != 10)
+        {
+            fail("wrong number of key pairs");
+        }
+
+        for (int i = 0; i < pairs.length; ++i)
+        {
+            BigInteger d = ((ECPrivateKeyParameters)pairs[i].getPrivate()).getD();
+            ECPoint Q = ((ECPublicKeyParameters)pairs[i].getPublic()).getQ();
+
+            if (!Q.isNormalized() || !Q.equals(params.getG().multiply(d)))
+            {
+                fail("batch generated key pair inconsistent");
+            }
+        }
+    }
+
     /**
      * Basic Key Agreement Test
      */
@@ -715,6 +745,58 @@ private void testECBasicAgreementTest()
         }
     }
 
+    /**
+     * Agreement with static peer keys, singly and in batches, against the plain agreement
+     */
+    private void testECStaticPeerAgreement(String curveName)
+    {
+        X9ECParameters x9 = SECNamedCurves.getByName(curveName);
+        ECDomainParameters params = new ECDomainParameters(x9.getCurve(), x9.getG(), x9.getN(), x9.getH());
+
+        ECKeyPairGenerator pGen = new ECKeyPairGenerator();
+        pGen.init(new ECKeyGenerationParameters(params, new SecureRandom()));
+
+        AsymmetricCipherKeyPair peer = pGen.generateKeyPair();
+        PreCompInfo basePointInfo = params.getCurve().getBasePointPreCompInfo();
+
+        int count = 5;
+        ECPrivateKeyParameters[] keys = new ECPrivateKeyParameters[count];
+        BigInteger[] expected = new BigInteger[count];
+        for (int i = 0; i < count; ++i)
+        {
+            AsymmetricCipherKeyPair pair = pGen.generateKeyPair();
+            keys[i] = (ECPrivateKeyParameters)pair.getPrivate();
+
+            BasicAgreement e = new ECDHBasicAgreement();
+            e.init(peer.getPrivate());
+            expected[i] = e.calculateAgreement(pair.getPublic());
+        }
+
+        BasicAgreement staticAgreement = new ECDHBasicAgreement(true);
+        for (int i = 0; i < count; ++i)
+        {
+            staticAgreement.init(keys[i]);
+            if (!expected[i].equals(staticAgreement.calculateAgreement(peer.getPublic())))
+            {
+                fail("static peer agreement failed on " + curveName);
+            }
+        }
+
+        BigInteger[] batch = ECDHBasicAgreement.calculateAgreements(keys, (ECPublicKeyParameters)peer.getPublic());
+        for (int i = 0; i < count; ++i)
+        {
+            if (!expected[i].equals(batch[i]))
+            {
+                fail("batch agreement failed on " + curveName);
+            }
+        }
+
+        if (params.getCurve().getBasePointPreCompInfo() != basePointInfo)
+        {
+            fail("peer table displaced base point table on " + curveName);
+        }
+    }
+
      private void testECMQVTestVector1()
      {
          // Test Vector from GEC-2
@@ -877,7 +959,10 @@ public void performTest()
         testECDSA191bitBinary();
         testECDSA239bitBinary();
         testECDSAKeyGenTest();
+        testECKeyPairBatch();
         testECBasicAgreementTest();
+        testECStaticPeerAgreement("secp256r1");
+        testECStaticPeerAgreement("sect233k1");
 
         testECDSAP224sha224();
         testECDSAP224OneByteOver();
@@ -0,0 +1,202 @@
+package org.spongycastle.crypto.test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.spongycastle.crypto.AsymmetricCipherKeyPair;
+import org.spongycastle.crypto.Signer;
+import org.spongycastle.crypto.generators.Ed25519KeyPairGenerator;
+import org.spongycastle.crypto.params.Ed25519KeyGenerationParameters;
+import org.spongycastle.crypto.params.Ed25519PrivateKeyParameters;
+import org.spongycastle.crypto.params.Ed25519PublicKeyParameters;
+import org.spongycastle.crypto.signers.Ed25519Signer;
+import org.spongycastle.crypto.util.PrivateKeyFactory;
+import org.spongycastle.crypto.util.PrivateKeyInfoFactory;
+import org.spongycastle.crypto.util.PublicKeyFactory;
+import org.spongycastle.crypto.util.SubjectPublicKeyInfoFactory;
+import org.spongycastle.util.Arrays;
+import org.spongycastle.util.encoders.Hex;
+import org.spongycastle.util.test.SimpleTest;
+
+/**
+ * Ed25519 tests, with vectors from RFC 8032.
+ */
+public class Ed25519Test
+    extends SimpleTest
+{
+    private static final BigInteger L = BigInteger.ONE.shiftLeft(252).add(
+        new BigInteger("27742317777372353535851937790883648493"));
+
+    private SecureRandom random = new SecureRandom();
+
+    public String getName()
+    {
+        return "Ed25519";
+    }
+
+    private void checkVector(String sk, String pk, String msg, String sig, String text)
+        throws Exception
+    {
+        Ed25519PrivateKeyParameters privateKey = new Ed25519PrivateKeyParameters(Hex.decode(sk), 0);
+        Ed25519PublicKeyParameters publicKey = privateKey.generatePublicKey();
+        if (!areEqual(Hex.decode(pk), publicKey.getEncoded()))
+        {
+            fail(text + ": public key mismatch");
+        }
+
+        byte[] m = Hex.decode(msg);
+
+        Signer signer = new Ed25519Signer();
+        signer.init(true, privateKey);
+        signer.update(m, 0, m.length);
+        byte[] signature = signer.generateSignature();
+        if (!areEqual(Hex.decode(sig), signature))
+        {
+            fail(text + ": signature mismatch");
+        }
+
+        Signer verifier = new Ed25519Signer();
+        verifier.init(false, new Ed25519PublicKeyParameters(Hex.decode(pk), 0));
+        verifier.update(m, 0, m.length);
+        if (!verifier.verifySignature(signature))
+        {
+            fail(text + ": signature did not verify");
+        }
+    }
+
+    // RFC 8032 7.1
+    private void testVectors()
+        throws Exception
+    {
+        checkVector("9d61b19deffd5a60ba844af492ec2cc44449c5697b326919703bac031cae7f60",
+            "d75a980182b10ab7d54bfed3c964073a0ee172f3daa62325af021a68f707511a",
+            "",
+            "e5564300c360ac729086e2cc806e828a84877f1eb8e5d974d873e065224901555fb8821590a33bacc61e39701cf9b46bd25bf5f0595bbe24655141438e7a100b",
+            "TEST 1");
+        checkVector("4ccd089b28ff96da9db6c346ec114e0f5b8a319f35aba624da8cf6ed4fb8a6fb",
+            "3d4017c3e843895a92b70aa74d1b7ebc9c982ccf2ec4968cc0cd55f12af4660c",
+            "72",
+            "92a009a9f0d4cab8720e820b5f642540a2b27b5416503f8fb3762223ebdb69da085ac1e43e15996e458f3613d0f11d8c387b2eaeb4302aeeb00d291612bb0c00",
+            "TEST 2");
+        checkVector("c5aa8df43f9f837bedb7442f31dcb7b166d38535076f094b85ce3a2e0b4458f7",
+            "fc51cd8e6218a1a38da47ed00230f0580816ed13ba3303ac5deb911548908025",
+            "af82",
+            "6291d657deec24024827e69c3abe01a30ce548a284743a445e3680d7db5ac3ac18ff9b538d16f290ae67f760984dc6594a7c15e9716ed28dc027beceea1ec40a",
+            "TEST 3");
+        checkVector("833fe62409237b9d62ec77587520911e9a759cec1d19755b7da901b96dca3d42",
+            "ec172b93ad5e563bf4932c70e1245034c35467ef2efd4d64ebf819683467e2bf",
+            "ddaf35a193617abacc417349ae20413112e6fa4e89a97ea20a9eeee64b55d39a2192992a274fc1a836ba3c23a3feebbd454d4423643ce80e2a9ac94fa54ca49f",
+            "dc2a4459e7369633a52b1bf277839a00201009a3efbf3ecb69bea2186c26b58909351fc9ac90b3ecfdfbc7c66431e0303dca179c138ac17ad9bef1177331a704",
+            "TEST SHA(abc)");
+    }
+
+    private void testRoundTrip()
+        throws Exception
+    {
+        Ed25519KeyPairGenerator kpGen = new Ed25519KeyPairGenerator();
+        kpGen.init(new Ed25519KeyGenerationParameters(random));
+
+        for (int i = 0; i < 10; ++i)
+        {
+            AsymmetricCipherKeyPair kp = kpGen.generateKeyPair();
+
+            byte[] msg = new byte[random.nextInt(256)];
+            random.nextBytes(msg);
+
+            Signer signer = new Ed25519Signer();
+            signer.init(true, kp.getPrivate());
+            signer.update(msg, 0, msg.length);
+            byte[] signature = signer.generateSignature();
+
+            Signer verifier = new Ed25519Signer();
+            verifier.init(false, kp.getPublic());
+            verifier.update(msg, 0, msg.length);
+            if (!verifier.verifySignature(signature))
+            {
+                fail("round trip failed");
+            }
+
+            // A changed message, a changed signature and a non-canonical S must all fail
+            verifier.update((byte)0x01);
+            verifier.update(msg, 0, msg.length);
+            if (verifier.verifySignature(signature))
+            {
+                fail("signature verified for a different message");
+            }
+
+            byte[] badSig = Arrays.clone(signature);
+            badSig[random.nextInt(badSig.length)] ^= 1 << random.nextInt(8);
+            verifier.update(msg, 0, msg.length);
+            if (verifier.verifySignature(badSig))
+            {
+                fail("corrupted signature verified");
+            }
+
+            verifier.update(msg, 0, msg.length);
+            if (verifier.verifySignature(addL(signature)))
+            {
+                fail("signature with S >= L verified");
+            }
+        }
+    }
+
+    private void testKeyFactories()
+        throws Exception
+    {
+        Ed25519KeyPairGenerator kpGen = new Ed25519KeyPairGenerator();
+        kpGen.init(new Ed25519KeyGenerationParameters(random));
+        AsymmetricCipherKeyPair kp = kpGen.generateKeyPair();
+
+        Ed25519PrivateKeyParameters privateKey = (Ed25519PrivateKeyParameters)PrivateKeyFactory.createKey(
+            PrivateKeyInfoFactory.createPrivateKeyInfo(kp.getPrivate()));
+        Ed25519PublicKeyParameters publicKey = (Ed25519PublicKeyParameters)PublicKeyFactory.createKey(
+            SubjectPublicKeyInfoFactory.createSubjectPublicKeyInfo(kp.getPublic()));
+
+        if (!areEqual(((Ed25519PrivateKeyParameters)kp.getPrivate()).getEncoded(), privateKey.getEncoded()))
+        {
+            fail("private key factory round trip failed");
+        }
+        if (!areEqual(((Ed25519PublicKeyParameters)kp.getPublic()).getEncoded(), publicKey.getEncoded()))
+        {
+            fail("public key factory round trip failed");
+        }
+
+        // RFC 8410 10.1
+        byte[] spki = Hex.decode("302a300506032b657003210019bf44096984cdfe8541bac167dc3b96c85086aa30b6b6cb0c5c38ad703166e1");
+        publicKey = (Ed25519PublicKeyParameters)PublicKeyFactory.createKey(spki);
+        if (!areEqual(spki, SubjectPublicKeyInfoFactory.createSubjectPublicKeyInfo(publicKey).getEncoded()))
+        {
+            fail("RFC 8410 public key encoding failed");
+        }
+    }
+
+    private byte[] addL(byte[] signature)
+    {
+        byte[] s = new byte[32];
+        for (int i = 0; i < 32; ++i)
+        {
+            s[i] = signature[63 - i];
+        }
+
+        byte[] sPlusL = new BigInteger(1, s).add(L).toByteArray();
+        byte[] result = Arrays.clone(signature);
+        for (int i = 0; i < 32; ++i)
+        {
+            result[32 + i] = sPlusL[sPlusL.length - 1 - i];
+        }
+        return result;
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        testVectors();
+        testRoundTrip();
+        testKeyFactories();
+    }
+
+    public static void main(String[] args)
+    {
+        runTest(new Ed25519Test());
+    }
+}
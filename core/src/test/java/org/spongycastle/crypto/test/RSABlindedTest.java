@@ -192,6 +192,44 @@ private void testOAEP(RSAKeyParameters pubParameters, RSAKeyParameters privParam
         }
     }
 
+    private void testBlindingUpdates(RSAKeyParameters pubParameters, RSAKeyParameters privParameters)
+    {
+        AsymmetricBlockCipher pubEng = new RSABlindedEngine();
+        AsymmetricBlockCipher privEng = new RSABlindedEngine();
+
+        pubEng.init(true, pubParameters);
+        privEng.init(false, privParameters);
+
+        SecureRandom random = new SecureRandom();
+
+        // enough operations to go through several refreshes of the blinding pair
+        for (int i = 0; i < 100; ++i)
+        {
+            byte[] data = new byte[pubEng.getInputBlockSize()];
+            random.nextBytes(data);
+
+            if (i % 25 == 0)
+            {
+                privEng.init(false, privParameters);
+            }
+
+            try
+            {
+                byte[] enc = pubEng.processBlock(data, 0, data.length);
+                byte[] dec = privEng.processBlock(enc, 0, enc.length);
+
+                if (!areEqual(new BigInteger(1, data).toByteArray(), new BigInteger(1, dec).toByteArray()))
+                {
+                    fail("failed blinding update test");
+                }
+            }
+            catch (Exception e)
+            {
+                fail("failed - exception " + e.toString(), e);
+            }
+        }
+    }
+
     public void performTest()
     {
         RSAKeyParameters    pubParameters = new RSAKeyParameters(false, mod, pubExp);
@@ -416,6 +454,7 @@ public void performTest()
         testMissingDataPKCS1Block(pubParameters, privParameters);
         testTruncatedPKCS1Block(pubParameters, privParameters);
         testWrongPaddingPKCS1Block(pubParameters, privParameters);
+        testBlindingUpdates(pubParameters, privParameters);
 
         try
         {
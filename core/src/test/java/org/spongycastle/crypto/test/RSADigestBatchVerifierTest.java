@@ -0,0 +1,162 @@
+package org.spongycastle.crypto.test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.spongycastle.asn1.nist.NISTObjectIdentifiers;
+import org.spongycastle.asn1.x509.AlgorithmIdentifier;
+import org.spongycastle.asn1.x509.DigestInfo;
+import org.spongycastle.crypto.AsymmetricBlockCipher;
+import org.spongycastle.crypto.AsymmetricCipherKeyPair;
+import org.spongycastle.crypto.digests.SHA256Digest;
+import org.spongycastle.crypto.encodings.PKCS1Encoding;
+import org.spongycastle.crypto.engines.RSAEngine;
+import org.spongycastle.crypto.generators.RSAKeyPairGenerator;
+import org.spongycastle.crypto.params.RSAKeyGenerationParameters;
+import org.spongycastle.crypto.params.RSAKeyParameters;
+import org.spongycastle.crypto.signers.RSADigestBatchVerifier;
+import org.spongycastle.crypto.signers.RSADigestSigner;
+import org.spongycastle.util.Arrays;
+import org.spongycastle.util.test.SimpleTest;
+
+/**
+ * Checks that RSADigestBatchVerifier agrees with RSADigestSigner for a mix of good and bad
+ * signatures, and that screening catches bad signatures in a batch.
+ */
+public class RSADigestBatchVerifierTest
+    extends SimpleTest
+{
+    private SecureRandom random = new SecureRandom();
+
+    public String getName()
+    {
+        return "RSADigestBatchVerifier";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        RSAKeyPairGenerator kpGen = new RSAKeyPairGenerator();
+        kpGen.init(new RSAKeyGenerationParameters(BigInteger.valueOf(0x10001), random, 1024, 25));
+        AsymmetricCipherKeyPair pair = kpGen.generateKeyPair();
+        RSAKeyParameters pub = (RSAKeyParameters)pair.getPublic();
+
+        RSADigestSigner signer = new RSADigestSigner(new SHA256Digest());
+        RSADigestBatchVerifier verifier = new RSADigestBatchVerifier(new SHA256Digest(), pub);
+
+        int count = 12;
+        byte[][] messages = new byte[count][];
+        byte[][] sigs = new byte[count][];
+        for (int i = 0; i < count; ++i)
+        {
+            messages[i] = new byte[20 + i];
+            random.nextBytes(messages[i]);
+
+            signer.init(true, pair.getPrivate());
+            signer.update(messages[i], 0, messages[i].length);
+            sigs[i] = signer.generateSignature();
+        }
+
+        // All good: the screen passes, and so does each signature
+        for (int i = 0; i < count; ++i)
+        {
+            verifier.addSignature(messages[i], sigs[i]);
+        }
+        if (!verifier.screen())
+        {
+            fail("screen failed on good signatures");
+        }
+        if (verifier.getSize() != count)
+        {
+            fail("screen emptied the queue");
+        }
+        checkResults(verifier.verify(), expect(count, -1, -1));
+
+        // One bad signature
+        byte[] bad = Arrays.clone(sigs[3]);
+        bad[bad.length - 1] ^= 1;
+        for (int i = 0; i < count; ++i)
+        {
+            verifier.addSignature(messages[i], i == 3 ? bad : sigs[i]);
+        }
+        if (verifier.screen())
+        {
+            fail("screen passed a bad signature");
+        }
+        checkResults(verifier.verify(), expect(count, 3, -1));
+
+        // Two signatures exchanged: every message is signed, so the screen passes, but verify
+        // rejects both
+        for (int i = 0; i < count; ++i)
+        {
+            verifier.addSignature(messages[i], sigs[i == 5 ? 7 : i == 7 ? 5 : i]);
+        }
+        if (!verifier.screen())
+        {
+            fail("screen failed on exchanged signatures");
+        }
+        checkResults(verifier.verify(), expect(count, 5, 7));
+
+        // Out of range signatures
+        byte[] modulus = pub.getModulus().toByteArray();
+        verifier.addSignature(messages[0], modulus);
+        verifier.addSignature(messages[1], new byte[modulus.length + 1]);
+        verifier.addSignature(messages[2], new byte[1]);
+        if (verifier.screen())
+        {
+            fail("screen passed out of range signatures");
+        }
+        checkResults(verifier.verify(), new boolean[3]);
+
+        // A DigestInfo with the NULL parameters left out is accepted, as by RSADigestSigner
+        byte[] hash = new byte[32];
+        SHA256Digest digest = new SHA256Digest();
+        digest.update(messages[0], 0, messages[0].length);
+        digest.doFinal(hash, 0);
+
+        byte[] digestInfo = new DigestInfo(new AlgorithmIdentifier(NISTObjectIdentifiers.id_sha256), hash).getEncoded();
+        AsymmetricBlockCipher rsa = new PKCS1Encoding(new RSAEngine());
+        rsa.init(true, pair.getPrivate());
+        byte[] noNullSig = rsa.processBlock(digestInfo, 0, digestInfo.length);
+
+        signer.init(false, pub);
+        signer.update(messages[0], 0, messages[0].length);
+        if (!signer.verifySignature(noNullSig))
+        {
+            fail("RSADigestSigner rejected signature without NULL");
+        }
+
+        verifier.addSignature(messages[0], noNullSig);
+        checkResults(verifier.verify(), expect(1, -1, -1));
+
+        verifier.addSignature(messages[0], sigs[0]);
+        verifier.reset();
+        if (verifier.getSize() != 0 || verifier.verify().length != 0)
+        {
+            fail("reset failed");
+        }
+    }
+
+    private static boolean[] expect(int count, int bad1, int bad2)
+    {
+        boolean[] results = new boolean[count];
+        for (int i = 0; i < count; ++i)
+        {
+            results[i] = i != bad1 && i != bad2;
+        }
+        return results;
+    }
+
+    private void checkResults(boolean[] results, boolean[] expected)
+    {
+        if (!Arrays.areEqual(results, expected))
+        {
+            fail("batch results differ from expected");
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        runTest(new RSADigestBatchVerifierTest());
+    }
+}
@@ -2,15 +2,19 @@
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.spongycastle.crypto.AsymmetricBlockCipher;
 import org.spongycastle.crypto.AsymmetricCipherKeyPair;
 import org.spongycastle.crypto.CipherParameters;
 import org.spongycastle.crypto.InvalidCipherTextException;
+import org.spongycastle.crypto.digests.SHA256Digest;
 import org.spongycastle.crypto.encodings.OAEPEncoding;
 import org.spongycastle.crypto.encodings.PKCS1Encoding;
 import org.spongycastle.crypto.engines.RSAEngine;
 import org.spongycastle.crypto.generators.RSAKeyPairGenerator;
+import org.spongycastle.crypto.prng.DigestRandomGenerator;
 import org.spongycastle.crypto.params.RSAKeyGenerationParameters;
 import org.spongycastle.crypto.params.RSAKeyParameters;
 import org.spongycastle.crypto.params.RSAPrivateCrtKeyParameters;
@@ -234,6 +238,69 @@ private void zeroBlockTest(CipherParameters encParameters, CipherParameters decP
         }
     }
 
+    private void testParallelKeyGeneration(int strength)
+    {
+        ExecutorService executor1 = Executors.newFixedThreadPool(1);
+        ExecutorService executor4 = Executors.newFixedThreadPool(4);
+
+        try
+        {
+            AsymmetricCipherKeyPair pair1 = generateKeyPair(new RSAKeyPairGenerator(executor1), strength);
+            AsymmetricCipherKeyPair pair4 = generateKeyPair(new RSAKeyPairGenerator(executor4), strength);
+
+            RSAPrivateCrtKeyParameters privKey = (RSAPrivateCrtKeyParameters)pair4.getPrivate();
+            if (privKey.getModulus().bitLength() != strength || !privKey.getP().isProbablePrime(100)
+                || !privKey.getQ().isProbablePrime(100))
+            {
+                fail("failed parallel key generation (" + strength + ") test");
+            }
+
+            // the result depends on the random source only, not on the number of threads
+            if (!privKey.getModulus().equals(((RSAKeyParameters)pair1.getPublic()).getModulus()))
+            {
+                fail("parallel key generation (" + strength + ") not reproducible");
+            }
+
+            AsymmetricBlockCipher eng = new RSAEngine();
+            byte[] data = new byte[]{ 0x2a };
+
+            eng.init(true, pair4.getPublic());
+            byte[] enc = eng.processBlock(data, 0, data.length);
+            eng.init(false, pair4.getPrivate());
+
+            if (!Arrays.areEqual(data, eng.processBlock(enc, 0, enc.length)))
+            {
+                fail("failed parallel key generation (" + strength + ") test");
+            }
+        }
+        catch (InvalidCipherTextException e)
+        {
+            fail("failed - exception " + e.toString(), e);
+        }
+        finally
+        {
+            executor1.shutdown();
+            executor4.shutdown();
+        }
+    }
+
+    private AsymmetricCipherKeyPair generateKeyPair(RSAKeyPairGenerator pGen, int strength)
+    {
+        final DigestRandomGenerator rGen = new DigestRandomGenerator(new SHA256Digest());
+        rGen.addSeedMaterial(strength);
+
+        SecureRandom random = new SecureRandom()
+        {
+            public void nextBytes(byte[] bytes)
+            {
+                rGen.nextBytes(bytes);
+            }
+        };
+
+        pGen.init(new RSAKeyGenerationParameters(BigInteger.valueOf(0x10001), random, strength, 25));
+        return pGen.generateKeyPair();
+    }
+
     public void performTest()
     {
         RSAKeyParameters    pubParameters = new RSAKeyParameters(false, mod, pubExp);
@@ -470,7 +537,10 @@ public void performTest()
                 fail("P and Q too close in RSA key pair");
             }
         }
-        
+
+        testParallelKeyGeneration(16);
+        testParallelKeyGeneration(1024);
+
         testOAEP(pubParameters, privParameters);
         testStrictPKCS1Length(pubParameters, privParameters);
         testDudPKCS1Block(pubParameters, privParameters);
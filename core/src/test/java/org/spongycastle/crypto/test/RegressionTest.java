@@ -20,6 +20,9 @@
         new DSATest(),
         new ECTest(),
         new DeterministicDSATest(),
+        new ECDSABatchVerifierTest(),
+        new X25519Test(),
+        new Ed25519Test(),
         new GOST3410Test(),
         new ECGOST3410Test(),
         new ECIESTest(),
@@ -51,6 +54,7 @@
         new RSATest(),
         new RSABlindedTest(),
         new RSADigestSignerTest(),
+        new RSADigestBatchVerifierTest(),
         new PSSBlindTest(),
         new ISO9796Test(),
         new ISO9797Alg3MacTest(),
@@ -121,6 +125,7 @@
         new NullTest(),
         new DSTU4145Test(),
         new SipHashTest(),
+        new BatchMacVerifierTest(),
         new Poly1305Test(),
         new OCBTest(),
         new NonMemoableDigestTest(),
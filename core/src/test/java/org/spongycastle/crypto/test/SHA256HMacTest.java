@@ -2,6 +2,7 @@
 
 import org.spongycastle.crypto.digests.SHA256Digest;
 import org.spongycastle.crypto.macs.HMac;
+import org.spongycastle.crypto.macs.HMacKey;
 import org.spongycastle.crypto.params.KeyParameter;
 import org.spongycastle.util.Arrays;
 import org.spongycastle.util.encoders.Hex;
@@ -94,6 +95,48 @@ public TestResult perform()
                     "Reset with vector " + vector + " failed");
         }
 
+        //
+        // test pre-processed keys
+        //
+        for (int i = 0; i < messages.length; i++)
+        {
+            m = messages[i].getBytes();
+            if (messages[i].startsWith("0x"))
+            {
+                m = Hex.decode(messages[i].substring(2));
+            }
+
+            HMacKey key = new HMacKey(new SHA256Digest(), Hex.decode(keys[i]));
+            HMac keyedMac = key.createMac();
+
+            keyedMac.update(m, 0, m.length);
+            keyedMac.doFinal(resBuf, 0);
+
+            if (!Arrays.areEqual(resBuf, Hex.decode(digests[i])))
+            {
+                return new SimpleTestResult(false, getName() + ": HMacKey vector " + i + " failed got -" + new String(Hex.encode(resBuf)));
+            }
+
+            keyedMac.update(m, 0, m.length);
+            keyedMac.doFinal(resBuf, 0);
+
+            if (!Arrays.areEqual(resBuf, Hex.decode(digests[i])))
+            {
+                return new SimpleTestResult(false, getName() + ": HMacKey vector " + i + " failed on reuse");
+            }
+
+            hmac.init(key);
+            hmac.update(m, 0, m.length);
+            hmac.reset();
+            hmac.update(m, 0, m.length);
+            hmac.doFinal(resBuf, 0);
+
+            if (!Arrays.areEqual(resBuf, Hex.decode(digests[i])))
+            {
+                return new SimpleTestResult(false, getName() + ": HMacKey init with vector " + i + " failed");
+            }
+        }
+
         return new SimpleTestResult(true, getName() + ": Okay");
     }
 
@@ -53,6 +53,51 @@ public void performTest()
         {
             fail("Result does not match expected value for doFinal(byte[],int)");
         }
+
+        long k0 = Pack.littleEndianToLong(key, 0);
+        long k1 = Pack.littleEndianToLong(key, 8);
+
+        if (expected != SipHash.hash(k0, k1, input, 0, input.length))
+        {
+            fail("Result does not match expected value for static hash()");
+        }
+
+        // static methods and incremental updates against the Mac interface
+        byte[] data = new byte[64];
+        for (int i = 0; i < data.length; ++i)
+        {
+            data[i] = (byte)(i * 31 + 7);
+        }
+
+        for (int dataLen = 0; dataLen <= data.length - 4; ++dataLen)
+        {
+            mac.update(data, 3, dataLen);
+            long macResult = mac.doFinal();
+
+            if (macResult != SipHash.hash(k0, k1, data, 3, dataLen))
+            {
+                fail("static hash() mismatch for length " + dataLen);
+            }
+
+            mac.update(data[3]);
+            mac.update(data, 4, dataLen);
+            if (mac.doFinal() != SipHash.hash(k0, k1, data, 3, dataLen + 1))
+            {
+                fail("incremental update mismatch for length " + (dataLen + 1));
+            }
+        }
+
+        long longValue = Pack.littleEndianToLong(data, 8);
+        if (SipHash.hash(k0, k1, longValue) != SipHash.hash(k0, k1, data, 8, 8))
+        {
+            fail("static hash(long) mismatch");
+        }
+
+        int intValue = Pack.littleEndianToInt(data, 8);
+        if (SipHash.hash(k0, k1, intValue) != SipHash.hash(k0, k1, data, 8, 4))
+        {
+            fail("static hash(int) mismatch");
+        }
     }
 
     public static void main(String[] args)
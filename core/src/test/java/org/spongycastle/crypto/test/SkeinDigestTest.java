@@ -1,9 +1,13 @@
 package org.spongycastle.crypto.test;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.spongycastle.crypto.Digest;
 import org.spongycastle.crypto.digests.SkeinDigest;
+import org.spongycastle.crypto.engines.ThreefishEngine;
+import org.spongycastle.crypto.params.SkeinParameters;
 import org.spongycastle.util.Arrays;
 import org.spongycastle.util.Memoable;
 import org.spongycastle.util.encoders.Hex;
@@ -204,6 +208,226 @@ public void performTest()
             Case test = TEST_CASES[i];
             runTest(test);
         }
+
+        // The reference tree hash below must agree with the sequential known answers
+        for (int i = 0; i < TEST_CASES.length; i++)
+        {
+            Case test = TEST_CASES[i];
+            byte[] output = referenceHash(test.getBlockSize() / 8, test.getOutputSize() / 8, 0, 0, 0, test.getMessage());
+            if (!areEqual(test.getDigest(), output))
+            {
+                fail("reference hash mismatch", new String(Hex.encode(test.getDigest())), new String(Hex.encode(output)));
+            }
+        }
+
+        treeTest(SkeinDigest.SKEIN_256, 1, 1, 2);
+        treeTest(SkeinDigest.SKEIN_256, 2, 2, 255);
+        treeTest(SkeinDigest.SKEIN_512, 1, 2, 3);
+        treeTest(SkeinDigest.SKEIN_1024, 2, 1, 4);
+    }
+
+    private void treeTest(int blockSize, int leafSize, int fanOut, int maxHeight)
+    {
+        SkeinParameters params = new SkeinParameters.Builder().setTreeParameters(leafSize, fanOut, maxHeight).build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try
+        {
+            int[] lengths = { 0, 1, 32, 64, 257, 1024, 4097, 20000 };
+            for (int l = 0; l < lengths.length; l++)
+            {
+                byte[] message = new byte[lengths[l]];
+                for (int i = 0; i < message.length; i++)
+                {
+                    message[i] = (byte)(i * 7 + l);
+                }
+
+                byte[] expected = referenceHash(blockSize / 8, blockSize / 8, leafSize, fanOut, maxHeight, message);
+
+                SkeinDigest sequential = new SkeinDigest(blockSize, blockSize);
+                sequential.init(params);
+                byte[] output = new byte[sequential.getDigestSize()];
+                sequential.update(message, 0, message.length);
+                sequential.doFinal(output, 0);
+                if (!areEqual(expected, output))
+                {
+                    fail("tree hash mismatch against reference for " + message.length + " bytes",
+                        new String(Hex.encode(expected)), new String(Hex.encode(output)));
+                }
+
+                SkeinDigest plain = new SkeinDigest(blockSize, blockSize);
+                plain.update(message, 0, message.length);
+                plain.doFinal(output, 0);
+                if (areEqual(expected, output))
+                {
+                    fail("tree hash matches sequential hash for " + plain.getAlgorithmName());
+                }
+
+                // Concurrent processing, with input delivered in odd sized pieces
+                SkeinDigest parallel = new SkeinDigest(blockSize, blockSize);
+                parallel.init(params);
+                parallel.setExecutor(executor);
+                for (int off = 0; off < message.length; off += 13)
+                {
+                    parallel.update(message, off, Math.min(13, message.length - off));
+                }
+                Digest copy = new SkeinDigest(parallel);
+                parallel.doFinal(output, 0);
+                if (!areEqual(expected, output))
+                {
+                    fail("tree hash mismatch for " + message.length + " bytes",
+                        new String(Hex.encode(expected)), new String(Hex.encode(output)));
+                }
+
+                copy.doFinal(output, 0);
+                if (!areEqual(expected, output))
+                {
+                    fail("tree hash clone mismatch for " + message.length + " bytes",
+                        new String(Hex.encode(expected)), new String(Hex.encode(output)));
+                }
+
+                // Reset must return to the tree initial state
+                parallel.update(message, 0, message.length);
+                parallel.doFinal(output, 0);
+                if (!areEqual(expected, output))
+                {
+                    fail("tree hash reset mismatch for " + message.length + " bytes",
+                        new String(Hex.encode(expected)), new String(Hex.encode(output)));
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private static final int TYPE_CONFIG = 4;
+    private static final int TYPE_MESSAGE = 48;
+    private static final int TYPE_OUTPUT = 63;
+
+    /**
+     * A direct transcription of the Skein hash (Section 3.5 of the Skein 1.3 specification),
+     * including the tree processing of Section 3.5.6, independent of SkeinEngine. Tree hashing is
+     * off when maxHeight is zero.
+     */
+    private static byte[] referenceHash(int blockBytes, int outputBytes, int leafSize, int fanOut, int maxHeight,
+                                        byte[] message)
+    {
+        byte[] config = new byte[32];
+        config[0] = 'S';
+        config[1] = 'H';
+        config[2] = 'A';
+        config[3] = '3';
+        config[4] = 1;
+        ThreefishEngine.wordToBytes(outputBytes * 8L, config, 8);
+        config[16] = (byte)leafSize;
+        config[17] = (byte)fanOut;
+        config[18] = (byte)maxHeight;
+
+        byte[] g0 = referenceUbi(new byte[blockBytes], config, 0, 0, TYPE_CONFIG);
+
+        byte[] g;
+        if (maxHeight == 0)
+        {
+            g = referenceUbi(g0, message, 0, 0, TYPE_MESSAGE);
+        }
+        else
+        {
+            byte[] m = message;
+            int nodeBytes = blockBytes << leafSize;
+            int level = 0;
+            for (;;)
+            {
+                int nodes = Math.max(1, (m.length + nodeBytes - 1) / nodeBytes);
+                byte[] next = new byte[nodes * blockBytes];
+                for (int i = 0; i < nodes; i++)
+                {
+                    int off = i * nodeBytes;
+                    byte[] node = Arrays.copyOfRange(m, off, Math.min(m.length, off + nodeBytes));
+                    byte[] output = referenceUbi(g0, node, (long)off, level + 1, TYPE_MESSAGE);
+                    System.arraycopy(output, 0, next, i * blockBytes, blockBytes);
+                }
+                ++level;
+
+                if (next.length == blockBytes)
+                {
+                    g = next;
+                    break;
+                }
+                if (level == maxHeight - 1)
+                {
+                    g = referenceUbi(g0, next, 0, maxHeight, TYPE_MESSAGE);
+                    break;
+                }
+
+                m = next;
+                nodeBytes = blockBytes << fanOut;
+            }
+        }
+
+        byte[] result = new byte[outputBytes];
+        for (int i = 0; i * blockBytes < outputBytes; i++)
+        {
+            byte[] counter = new byte[8];
+            ThreefishEngine.wordToBytes(i, counter, 0);
+            byte[] output = referenceUbi(g, counter, 0, 0, TYPE_OUTPUT);
+            System.arraycopy(output, 0, result, i * blockBytes, Math.min(blockBytes, outputBytes - i * blockBytes));
+        }
+        return result;
+    }
+
+    private static byte[] referenceUbi(byte[] g, byte[] message, long position, int level, int type)
+    {
+        int blockBytes = g.length;
+        ThreefishEngine threefish = new ThreefishEngine(blockBytes * 8);
+        long[] h = new long[blockBytes / 8];
+        long[] m = new long[blockBytes / 8];
+        long[] e = new long[blockBytes / 8];
+        for (int i = 0; i < h.length; i++)
+        {
+            h[i] = ThreefishEngine.bytesToWord(g, i * 8);
+        }
+
+        int processed = 0;
+        do
+        {
+            int len = Math.min(blockBytes, message.length - processed);
+            byte[] block = new byte[blockBytes];
+            System.arraycopy(message, processed, block, 0, len);
+            for (int i = 0; i < m.length; i++)
+            {
+                m[i] = ThreefishEngine.bytesToWord(block, i * 8);
+            }
+
+            long[] tweak = new long[2];
+            tweak[0] = position + processed + len;
+            tweak[1] = ((long)level << 48) | ((long)type << 56);
+            if (processed == 0)
+            {
+                tweak[1] |= 1L << 62;
+            }
+            if (processed + len == message.length)
+            {
+                tweak[1] |= 1L << 63;
+            }
+
+            threefish.init(true, h, tweak);
+            threefish.processBlock(m, e);
+            for (int i = 0; i < h.length; i++)
+            {
+                h[i] = e[i] ^ m[i];
+            }
+            processed += len;
+        }
+        while (processed < message.length);
+
+        byte[] out = new byte[blockBytes];
+        for (int i = 0; i < h.length; i++)
+        {
+            ThreefishEngine.wordToBytes(h[i], out, i * 8);
+        }
+        return out;
     }
 
     private void runTest(Case dc)
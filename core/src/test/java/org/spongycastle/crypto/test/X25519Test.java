@@ -0,0 +1,173 @@
+package org.spongycastle.crypto.test;
+
+import java.security.SecureRandom;
+
+import org.spongycastle.crypto.AsymmetricCipherKeyPair;
+import org.spongycastle.crypto.agreement.X25519Agreement;
+import org.spongycastle.crypto.generators.X25519KeyPairGenerator;
+import org.spongycastle.crypto.params.X25519KeyGenerationParameters;
+import org.spongycastle.crypto.params.X25519PrivateKeyParameters;
+import org.spongycastle.crypto.params.X25519PublicKeyParameters;
+import org.spongycastle.math.ec.rfc7748.X25519;
+import org.spongycastle.util.Arrays;
+import org.spongycastle.util.encoders.Hex;
+import org.spongycastle.util.test.SimpleTest;
+
+/**
+ * X25519 tests, with vectors from RFC 7748.
+ */
+public class X25519Test
+    extends SimpleTest
+{
+    private SecureRandom random = new SecureRandom();
+
+    public String getName()
+    {
+        return "X25519";
+    }
+
+    private void checkScalarMult(String k, String u, String expected)
+    {
+        byte[] r = new byte[X25519.POINT_SIZE];
+        X25519.scalarMult(Hex.decode(k), 0, Hex.decode(u), 0, r, 0);
+        if (!areEqual(Hex.decode(expected), r))
+        {
+            fail("X25519 vector failed");
+        }
+    }
+
+    // RFC 7748 5.2
+    private void testVectors()
+    {
+        checkScalarMult("a546e36bf0527c9d3b16154b82465edd62144c0ac1fc5a18506a2244ba449ac4",
+            "e6db6867583030db3594c1a424b15f7c726624ec26b3353b10a903a6d0ab1c4c",
+            "c3da55379de9c6908e94ea4df28d084f32eccf03491c71f754b4075577a28552");
+
+        byte[] k = new byte[X25519.SCALAR_SIZE], u = new byte[X25519.POINT_SIZE], r = new byte[X25519.POINT_SIZE];
+        k[0] = 9;
+        u[0] = 9;
+
+        for (int i = 1; i <= 1000; ++i)
+        {
+            X25519.scalarMult(k, 0, u, 0, r, 0);
+            System.arraycopy(k, 0, u, 0, u.length);
+            System.arraycopy(r, 0, k, 0, k.length);
+
+            if (i == 1)
+            {
+                if (!areEqual(Hex.decode("422c8e7a6227d7bca1350b3e2bb7279f7897b87bb6854b783c60e80311ae3079"), k))
+                {
+                    fail("X25519 iteration 1 failed");
+                }
+            }
+        }
+
+        if (!areEqual(Hex.decode("684cf59ba83309552800ef566f2f4d3c1c3887c49360e3875f2eb94d99532c51"), k))
+        {
+            fail("X25519 iteration 1000 failed");
+        }
+    }
+
+    // RFC 7748 6.1
+    private void testAgreementVector()
+    {
+        X25519PrivateKeyParameters alice = new X25519PrivateKeyParameters(
+            Hex.decode("77076d0a7318a57d3c16c17251b26645df4c2f87ebc0992ab177fba51db92c2a"), 0);
+        X25519PrivateKeyParameters bob = new X25519PrivateKeyParameters(
+            Hex.decode("5dab087e624a8a4b79e17f8b83800ee66f3bb1292618b6fd1c2f8b27ff88e0eb"), 0);
+
+        if (!areEqual(Hex.decode("8520f0098930a754748b7ddcb43ef75a0dbf3a0d26381af4eba4a98eaa9b4e6a"), alice.generatePublicKey().getEncoded()))
+        {
+            fail("Alice public key wrong");
+        }
+        if (!areEqual(Hex.decode("de9edb7d7b7dc1b4d35b61c2ece435373f8343c85b78674dadfc7e146f882b4f"), bob.generatePublicKey().getEncoded()))
+        {
+            fail("Bob public key wrong");
+        }
+
+        X25519Agreement agreement = new X25519Agreement();
+        agreement.init(alice);
+
+        byte[] secret = new byte[agreement.getFieldSize()];
+        agreement.calculateAgreement(bob.generatePublicKey(), secret, 0);
+        if (!areEqual(Hex.decode("4a5d9d5ba4ce2de1728e3bf480350f25e07e21c947d19e3376f09b3c1e161742"), secret))
+        {
+            fail("shared secret wrong");
+        }
+    }
+
+    private void testAgreement()
+    {
+        X25519KeyPairGenerator kpGen = new X25519KeyPairGenerator();
+        kpGen.init(new X25519KeyGenerationParameters(random));
+
+        for (int i = 0; i < 10; ++i)
+        {
+            AsymmetricCipherKeyPair a = kpGen.generateKeyPair();
+            AsymmetricCipherKeyPair b = kpGen.generateKeyPair();
+
+            X25519Agreement agreeA = new X25519Agreement();
+            agreeA.init(a.getPrivate());
+            X25519Agreement agreeB = new X25519Agreement();
+            agreeB.init(b.getPrivate());
+
+            if (!agreeA.calculateAgreement(b.getPublic()).equals(agreeB.calculateAgreement(a.getPublic())))
+            {
+                fail("agreement values differ");
+            }
+        }
+    }
+
+    private void testNonCanonicalAndSmallOrder()
+    {
+        byte[] k = new byte[X25519.SCALAR_SIZE];
+        random.nextBytes(k);
+
+        // p + 9 must be treated as 9, and the top bit of u ignored
+        byte[] nine = new byte[X25519.POINT_SIZE];
+        nine[0] = 9;
+        byte[] pPlus9 = Hex.decode("f6ffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff7f");
+        byte[] nineTopBit = Arrays.clone(nine);
+        nineTopBit[31] |= (byte)0x80;
+
+        byte[] r1 = new byte[X25519.POINT_SIZE], r2 = new byte[X25519.POINT_SIZE], r3 = new byte[X25519.POINT_SIZE];
+        X25519.scalarMult(k, 0, nine, 0, r1, 0);
+        X25519.scalarMult(k, 0, pPlus9, 0, r2, 0);
+        X25519.scalarMult(k, 0, nineTopBit, 0, r3, 0);
+        if (!areEqual(r1, r2))
+        {
+            fail("non-canonical u not reduced");
+        }
+        if (!areEqual(r1, r3))
+        {
+            fail("top bit of u not ignored");
+        }
+
+        // u = 0 has small order, and must not produce a shared secret
+        X25519PrivateKeyParameters priv = new X25519PrivateKeyParameters(random);
+        try
+        {
+            priv.generateSecret(new X25519PublicKeyParameters(new byte[X25519.POINT_SIZE], 0),
+                new byte[X25519.POINT_SIZE], 0);
+            fail("small order point accepted");
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+    }
+
+    public void performTest()
+    {
+        testVectors();
+        testAgreementVector();
+        testAgreement();
+        testNonCanonicalAndSmallOrder();
+    }
+
+    public static void main(
+        String[]    args)
+    {
+        runTest(new X25519Test());
+    }
+}
@@ -10,8 +10,21 @@
 
 import org.spongycastle.asn1.sec.SECNamedCurves;
 import org.spongycastle.asn1.x9.X9ECParameters;
+import org.spongycastle.math.ec.ECAlgorithms;
+import org.spongycastle.math.ec.ECConstants;
 import org.spongycastle.math.ec.ECCurve;
+import org.spongycastle.math.ec.ECFieldElement;
+import org.spongycastle.math.ec.ECMultiplier;
 import org.spongycastle.math.ec.ECPoint;
+import org.spongycastle.math.ec.FixedPointCombMultiplier;
+import org.spongycastle.math.ec.MontgomeryLadderMultiplier;
+import org.spongycastle.math.ec.PreCompInfo;
+import org.spongycastle.math.ec.ReferenceMultiplier;
+import org.spongycastle.math.ec.WNafL2RMultiplier;
+import org.spongycastle.math.ec.ZSignedDigitL2RMultiplier;
+import org.spongycastle.math.ec.endo.GLVEndomorphism;
+import org.spongycastle.util.Arrays;
+import org.spongycastle.util.BigIntegers;
 
 /**
  * Test class for {@link org.spongycastle.math.ec.ECPoint ECPoint}. All
@@ -443,6 +456,486 @@ public void testAddSubtractMultiplyTwiceEncoding()
         }
     }
 
+    /**
+     * Compares the curves with specialised field arithmetic against a generic
+     * <code>ECCurve.Fp</code> built from the same parameters.
+     */
+    public void testCustomCurvesAgainstGeneric()
+    {
+        String[] names = new String[]{ "secp256k1", "secp256r1", "secp384r1", "secp521r1" };
+        for (int i = 0; i < names.length; ++i)
+        {
+            X9ECParameters x9ECParameters = SECNamedCurves.getByName(names[i]);
+            ECCurve.Fp custom = (ECCurve.Fp)x9ECParameters.getCurve();
+            ECCurve generic = new ECCurve.Fp(custom.getQ(), custom.getA().toBigInteger(), custom.getB().toBigInteger());
+
+            assertEquals("Curve mismatch", custom, generic);
+
+            BigInteger n = x9ECParameters.getN();
+            ECPoint g = x9ECParameters.getG();
+            ECPoint gGeneric = generic.importPoint(g);
+
+            for (int j = 0; j < 10; ++j)
+            {
+                BigInteger k = new BigInteger(n.bitLength(), secRand);
+                ECPoint p = g.multiply(k).normalize();
+                ECPoint pGeneric = gGeneric.multiply(k).normalize();
+
+                assertEquals("Multiply mismatch", pGeneric.getAffineXCoord().toBigInteger(), p.getAffineXCoord().toBigInteger());
+                assertEquals("Multiply mismatch", pGeneric.getAffineYCoord().toBigInteger(), p.getAffineYCoord().toBigInteger());
+
+                ECPoint q = p.twice().add(g).normalize();
+                ECPoint qGeneric = pGeneric.twice().add(gGeneric).normalize();
+
+                assertEquals("Add mismatch", qGeneric.getAffineXCoord().toBigInteger(), q.getAffineXCoord().toBigInteger());
+                assertEquals("Add mismatch", qGeneric.getAffineYCoord().toBigInteger(), q.getAffineYCoord().toBigInteger());
+            }
+
+            assertPointsEqual("Multiply by order is not infinity", custom.getInfinity(), g.multiply(n));
+        }
+    }
+
+    /**
+     * Checks the multipliers that compute on mutable points against
+     * <code>ReferenceMultiplier</code>, in each coordinate system of a generic
+     * <code>ECCurve.Fp</code>, including for inputs that are not normalized.
+     */
+    public void testMutableMultipliers()
+    {
+        int[] coords = new int[]{ ECCurve.COORD_AFFINE, ECCurve.COORD_HOMOGENEOUS, ECCurve.COORD_JACOBIAN,
+            ECCurve.COORD_JACOBIAN_MODIFIED };
+        String[] names = new String[]{ "secp192r1", "secp256k1", "secp521r1" };
+        for (int i = 0; i < names.length; ++i)
+        {
+            X9ECParameters x9ECParameters = SECNamedCurves.getByName(names[i]);
+            ECCurve.Fp c = (ECCurve.Fp)x9ECParameters.getCurve();
+            ECCurve generic = new ECCurve.Fp(c.getQ(), c.getA().toBigInteger(), c.getB().toBigInteger());
+
+            BigInteger n = x9ECParameters.getN();
+
+            for (int j = 0; j < coords.length; ++j)
+            {
+                ECMultiplier[] multipliers = new ECMultiplier[]{ new WNafL2RMultiplier(),
+                    new ZSignedDigitL2RMultiplier(), new MontgomeryLadderMultiplier() };
+
+                for (int m = 0; m < multipliers.length; ++m)
+                {
+                    ECCurve curve = generic.configure().setCoordinateSystem(coords[j]).setMultiplier(multipliers[m])
+                        .create();
+                    ECPoint g = curve.importPoint(x9ECParameters.getG());
+                    ECPoint g3 = g.twice().add(g);
+
+                    BigInteger[] ks = new BigInteger[]{ ECConstants.ONE, ECConstants.TWO, n.subtract(ECConstants.ONE),
+                        n, new BigInteger(n.bitLength(), secRand) };
+                    for (int l = 0; l < ks.length; ++l)
+                    {
+                        ECPoint p = (l & 1) == 0 ? g : g3;
+                        ECPoint expected = new ReferenceMultiplier().multiply(p, ks[l]);
+                        ECPoint actual = multipliers[m].multiply(p, ks[l]);
+
+                        assertEquals("Wrong coordinate system", coords[j], actual.getCurve().getCoordinateSystem());
+                        assertPointsEqual("Mutable multiply is incorrect", expected, actual);
+                        assertPointsEqual("Mutable multiply result unusable", expected.twice().add(g),
+                            actual.twice().add(g));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks <code>FixedPointCombMultiplier</code> against the default multiplier for the
+     * generators of the standard curves, and that a re-decoded generator shares its table.
+     */
+    public void testFixedPointComb()
+    {
+        ECMultiplier comb = new FixedPointCombMultiplier();
+
+        Enumeration curveEnum = SECNamedCurves.getNames();
+        while (curveEnum.hasMoreElements())
+        {
+            String name = (String) curveEnum.nextElement();
+            X9ECParameters x9ECParameters = SECNamedCurves.getByName(name);
+
+            BigInteger n = x9ECParameters.getN();
+            ECPoint g = x9ECParameters.getG();
+
+            for (int i = 0; i < 5; ++i)
+            {
+                BigInteger k = new BigInteger(n.bitLength(), secRand);
+                assertPointsEqual("Comb multiply is incorrect", g.multiply(k), comb.multiply(g, k));
+            }
+
+            ECCurve c = g.getCurve();
+            PreCompInfo shared = c.getBasePointPreCompInfo();
+
+            ECPoint g2 = c.decodePoint(g.getEncoded(false));
+            assertPointsEqual("Comb multiply is incorrect", g.multiply(n.subtract(ECConstants.ONE)),
+                comb.multiply(g2, n.subtract(ECConstants.ONE)));
+            assertSame("Comb table not shared", shared, c.getPreCompInfo(g2));
+        }
+    }
+
+    /**
+     * Checks multiplication and <code>ECAlgorithms.sumOfTwoMultiplies</code> on the curves
+     * configured with a GLV endomorphism against a curve without one.
+     */
+    public void testGLVEndomorphism()
+    {
+        String[] names = new String[]{ "secp160k1", "secp192k1", "secp224k1", "secp256k1" };
+        for (int i = 0; i < names.length; ++i)
+        {
+            X9ECParameters x9ECParameters = SECNamedCurves.getByName(names[i]);
+            ECCurve.Fp c = (ECCurve.Fp)x9ECParameters.getCurve();
+            assertTrue("No GLV endomorphism", c.getEndomorphism() instanceof GLVEndomorphism);
+
+            ECCurve plain = new ECCurve.Fp(c.getQ(), c.getA().toBigInteger(), c.getB().toBigInteger());
+
+            BigInteger n = x9ECParameters.getN();
+            ECPoint g = x9ECParameters.getG();
+            ECPoint gPlain = plain.importPoint(g);
+
+            for (int j = 0; j < 10; ++j)
+            {
+                BigInteger a = new BigInteger(n.bitLength(), secRand);
+                BigInteger b = new BigInteger(n.bitLength(), secRand);
+
+                ECPoint q = g.multiply(b);
+                ECPoint qPlain = gPlain.multiply(b);
+                assertPointsEqual("GLV multiply is incorrect", qPlain, plain.importPoint(q));
+
+                ECPoint r = ECAlgorithms.sumOfTwoMultiplies(g, a, q, b);
+                ECPoint rPlain = gPlain.multiply(a).add(qPlain.multiply(b));
+                assertPointsEqual("GLV sumOfTwoMultiplies is incorrect", rPlain, plain.importPoint(r));
+            }
+        }
+    }
+
+    /**
+     * Checks that <code>ECCurve.encodeAll</code> agrees with encoding each point on its own.
+     */
+    public void testEncodeAll()
+    {
+        Enumeration curveEnum = SECNamedCurves.getNames();
+        while (curveEnum.hasMoreElements())
+        {
+            X9ECParameters x9ECParameters = SECNamedCurves.getByName((String)curveEnum.nextElement());
+            ECCurve c = x9ECParameters.getCurve();
+            BigInteger n = x9ECParameters.getN();
+
+            ECPoint[] points = new ECPoint[6];
+            for (int i = 0; i < points.length; ++i)
+            {
+                points[i] = x9ECParameters.getG().multiply(new BigInteger(n.bitLength(), secRand));
+            }
+            points[3] = c.getInfinity();
+            points[4] = null;
+
+            for (int compressed = 0; compressed < 2; ++compressed)
+            {
+                byte[][] encodings = c.encodeAll(points, compressed != 0);
+                for (int i = 0; i < points.length; ++i)
+                {
+                    if (points[i] == null)
+                    {
+                        assertNull(encodings[i]);
+                    }
+                    else
+                    {
+                        assertTrue("encodeAll is incorrect",
+                            Arrays.areEqual(points[i].getEncoded(compressed != 0), encodings[i]));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that a re-decoded point is served from the curve's point cache, keeping the
+     * precomputation done for the earlier instance, and that the cache is off unless configured.
+     */
+    public void testDecodePointCache()
+    {
+        X9ECParameters x9ECParameters = SECNamedCurves.getByName("secp256r1");
+        ECCurve plain = x9ECParameters.getCurve();
+        ECCurve c = plain.configure().setPointCacheSize(16).create();
+        BigInteger n = x9ECParameters.getN();
+
+        ECPoint q = x9ECParameters.getG().multiply(new BigInteger(n.bitLength(), secRand)).normalize();
+        byte[] encoded = q.getEncoded(true);
+
+        ECPoint q1 = c.decodePoint(encoded);
+        q1.multiply(new BigInteger(n.bitLength(), secRand));
+        PreCompInfo preCompInfo = c.getPreCompInfo(q1);
+        assertNotNull("No precomputation stored", preCompInfo);
+
+        ECPoint q2 = c.decodePoint(Arrays.clone(encoded));
+        assertSame("Decoded point not cached", q1, q2);
+        assertSame("Precomputation lost", preCompInfo, c.getPreCompInfo(q2));
+
+        assertNotSame("Point cache not disabled by default", plain.decodePoint(encoded), plain.decodePoint(encoded));
+
+        ECCurve uncached = c.configure().setPointCacheSize(0).create();
+        assertNotSame("Point cache not disabled", uncached.decodePoint(encoded), uncached.decodePoint(encoded));
+    }
+
+    /**
+     * Multiplies a single shared point from several threads at once, with increasing window
+     * widths forcing the precomputation to be rebuilt while it is in use.
+     */
+    public void testConcurrentPrecomputation()
+        throws Exception
+    {
+        X9ECParameters x9ECParameters = SECNamedCurves.getByName("secp256k1");
+        final BigInteger n = x9ECParameters.getN();
+        final ECPoint p = x9ECParameters.getG().multiply(new BigInteger(n.bitLength(), secRand)).normalize();
+
+        final ECCurve plain = new ECCurve.Fp(((ECCurve.Fp)p.getCurve()).getQ(), p.getCurve().getA().toBigInteger(),
+            p.getCurve().getB().toBigInteger());
+        final ECPoint pPlain = plain.importPoint(p);
+
+        final Throwable[] failure = new Throwable[1];
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i)
+        {
+            threads[i] = new Thread()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        for (int j = 0; j < 10; ++j)
+                        {
+                            // Growing scalars widen the wNAF window, so the table for p keeps growing
+                            BigInteger k = new BigInteger(8 + j * (n.bitLength() - 8) / 9, secRand);
+                            ECPoint r = plain.importPoint(p.multiply(k));
+                            if (!r.equals(pPlain.multiply(k)))
+                            {
+                                throw new IllegalStateException("concurrent multiply is incorrect");
+                            }
+                        }
+                    }
+                    catch (Throwable t)
+                    {
+                        synchronized (failure)
+                        {
+                            failure[0] = t;
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        for (int i = 0; i < threads.length; ++i)
+        {
+            threads[i].join();
+        }
+
+        synchronized (failure)
+        {
+            assertNull("Concurrent multiply failed: " + failure[0], failure[0]);
+        }
+    }
+
+    /**
+     * Checks <code>ECAlgorithms.sumOfMultiplies</code> against a plain sum of products, for
+     * sizes on both sides of the switch to Pippenger's method and with negative and zero scalars.
+     */
+    public void testSumOfMultiplies()
+    {
+        String[] names = new String[]{ "secp256r1", "secp256k1", "secp160r1", "secp112r1", "sect163r2", "sect163k1" };
+        int[] counts = new int[]{ 1, 2, 3, 10, 30, 70 };
+        for (int i = 0; i < names.length; ++i)
+        {
+            X9ECParameters x9ECParameters = SECNamedCurves.getByName(names[i]);
+            BigInteger n = x9ECParameters.getN();
+            ECPoint g = x9ECParameters.getG();
+
+            for (int j = 0; j < counts.length; ++j)
+            {
+                int count = counts[j];
+                ECPoint[] ps = new ECPoint[count];
+                BigInteger[] ks = new BigInteger[count];
+                ECPoint expected = g.getCurve().getInfinity();
+
+                for (int k = 0; k < count; ++k)
+                {
+                    ps[k] = (k % 7 == 6) ? ps[0] : g.multiply(new BigInteger(n.bitLength(), secRand));
+                    ks[k] = new BigInteger(n.bitLength(), secRand);
+                    if (k % 3 == 1)
+                    {
+                        ks[k] = ks[k].negate();
+                    }
+                    else if (k % 5 == 4)
+                    {
+                        ks[k] = ECConstants.ZERO;
+                    }
+                    expected = expected.add(ps[k].multiply(ks[k].mod(n)));
+                }
+
+                assertPointsEqual("sumOfMultiplies is incorrect on " + names[i] + " with " + count + " terms",
+                    expected, ECAlgorithms.sumOfMultiplies(ps, ks));
+            }
+
+            // Two terms, both negative
+            ECPoint[] ps = new ECPoint[]{ g, g.twice() };
+            BigInteger[] ks = new BigInteger[]{ ECConstants.ONE.negate(), new BigInteger(n.bitLength(), secRand).negate() };
+            ECPoint expected = g.multiply(ks[0].mod(n)).add(ps[1].multiply(ks[1].mod(n)));
+            assertPointsEqual("sumOfMultiplies is incorrect on " + names[i] + " with two negative terms",
+                expected, ECAlgorithms.sumOfMultiplies(ps, ks));
+        }
+    }
+
+    /**
+     * Checks point decompression on generic curves over primes that are 3 mod 4, 5 mod 8 and
+     * 1 mod 8 (with small and large powers of 2 dividing q - 1), covering each square root method,
+     * through both decodePoint and decodePoints.
+     */
+    public void testDecompression()
+    {
+        BigInteger[] qs = new BigInteger[]{
+            new BigInteger("FFFFFFFF00000001000000000000000000000000FFFFFFFFFFFFFFFFFFFFFFFF", 16),
+            ECConstants.ONE.shiftLeft(255).subtract(BigInteger.valueOf(19)),
+            new BigInteger("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEBAAEDCE6AF48A03BBFD25E8CD0364141", 16),
+            new BigInteger("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF000000000000000000000001", 16) };
+
+        for (int i = 0; i < qs.length; ++i)
+        {
+            BigInteger q = qs[i];
+            ECCurve c = new ECCurve.Fp(q, q.subtract(ECConstants.THREE), new BigInteger(q.bitLength() - 1, secRand));
+            c = c.configure().setPointCacheSize(0).create();
+
+            byte[][] encodings = new byte[40][];
+            ECPoint[] expected = new ECPoint[encodings.length];
+            for (int j = 0; j < encodings.length; ++j)
+            {
+                ECFieldElement x = c.fromBigInteger(new BigInteger(q.bitLength() - 1, secRand));
+                ECFieldElement alpha = x.multiply(x.square().add(c.getA())).add(c.getB());
+                ECFieldElement y = alpha.sqrt();
+
+                byte[] encoded = BigIntegers.asUnsignedByteArray((q.bitLength() + 7) / 8 + 1, x.toBigInteger());
+                if (y == null)
+                {
+                    encoded[0] = 0x02;
+                    try
+                    {
+                        c.decodePoint(encoded);
+                        fail("invalid compressed point accepted");
+                    }
+                    catch (RuntimeException e)
+                    {
+                        // expected
+                    }
+                    continue;
+                }
+
+                if ((j & 1) != 0)
+                {
+                    y = y.negate();
+                }
+                expected[j] = c.createPoint(x.toBigInteger(), y.toBigInteger());
+                encoded[0] = (byte)(y.testBitZero() ? 0x03 : 0x02);
+                encodings[j] = encoded;
+
+                assertPointsEqual("decompression is incorrect", expected[j], c.decodePoint(encoded));
+            }
+
+            ECPoint[] decoded = c.decodePoints(encodings);
+            for (int j = 0; j < encodings.length; ++j)
+            {
+                if (expected[j] == null)
+                {
+                    assertNull("null encoding decoded", decoded[j]);
+                }
+                else
+                {
+                    assertPointsEqual("decodePoints is incorrect", expected[j], decoded[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the in-place repeated squaring behind <code>ECFieldElement.F2m.squarePow</code>
+     * against single squarings, and the square roots computed from it.
+     */
+    public void testF2mSquarePow()
+    {
+        String[] names = new String[]{ "sect233k1", "sect283k1", "sect409k1", "sect571k1" };
+        for (int i = 0; i < names.length; ++i)
+        {
+            ECCurve c = SECNamedCurves.getByName(names[i]).getCurve();
+            int m = c.getFieldSize();
+
+            for (int j = 0; j < 10; ++j)
+            {
+                ECFieldElement x = c.fromBigInteger(new BigInteger(m, secRand));
+
+                ECFieldElement expected = x;
+                for (int pow = 0; pow <= 70; ++pow)
+                {
+                    assertEquals("squarePow is incorrect on " + names[i], expected, x.squarePow(pow));
+                    expected = expected.square();
+                }
+
+                assertEquals("sqrt is incorrect on " + names[i], x, x.sqrt().square());
+            }
+        }
+    }
+
+    /**
+     * Checks that Koblitz curves keep the WTNAF table of a point for later instances of it,
+     * that the base point's table survives the use of many other points, and that
+     * multiplications using the shared tables are correct.
+     */
+    public void testKoblitzSharedPrecomputation()
+    {
+        String[] names = new String[]{ "sect163k1", "sect233k1", "sect283k1" };
+        ECMultiplier ref = new ReferenceMultiplier();
+        for (int i = 0; i < names.length; ++i)
+        {
+            X9ECParameters x9ECParameters = SECNamedCurves.getByName(names[i]);
+            ECCurve c = x9ECParameters.getCurve();
+            ECPoint g = x9ECParameters.getG().normalize();
+            BigInteger n = x9ECParameters.getN();
+
+            ECPoint g1 = c.createPoint(g.getAffineXCoord().toBigInteger(), g.getAffineYCoord().toBigInteger());
+            BigInteger k = new BigInteger(n.bitLength(), secRand);
+            assertPointsEqual("WTNAF multiply is incorrect on " + names[i], ref.multiply(g1, k), g1.multiply(k));
+            PreCompInfo preCompInfo = c.getPreCompInfo(g1);
+            assertNotNull("No precomputation stored", preCompInfo);
+
+            ECPoint g2 = c.createPoint(g.getAffineXCoord().toBigInteger(), g.getAffineYCoord().toBigInteger());
+            assertNotSame(g1, g2);
+            for (int j = 0; j < 5; ++j)
+            {
+                k = new BigInteger(n.bitLength(), secRand);
+                assertPointsEqual("WTNAF multiply is incorrect on " + names[i], ref.multiply(g1, k), g2.multiply(k));
+            }
+            assertSame("Precomputation not shared on " + names[i], preCompInfo, c.getPreCompInfo(g2));
+
+            // The named curve lookup makes G the base point, so it keeps its table however many
+            // other points are used
+            for (int j = 0; j < 12; ++j)
+            {
+                g1.multiply(BigInteger.valueOf(j + 2)).normalize().multiply(k);
+            }
+
+            ECPoint g3 = c.createPoint(g.getAffineXCoord().toBigInteger(), g.getAffineYCoord().toBigInteger());
+            assertPointsEqual("WTNAF multiply is incorrect on " + names[i], ref.multiply(g1, k), g3.multiply(k));
+            assertSame("Base point precomputation lost on " + names[i], preCompInfo, c.getPreCompInfo(g3));
+
+            // Moving the base point elsewhere returns G's table to the shared tables
+            ECCurve.F2m f2m = (ECCurve.F2m)c;
+            f2m.setBasePoint(g1.twice());
+            f2m.setBasePoint(g1);
+            ECPoint g4 = c.createPoint(g.getAffineXCoord().toBigInteger(), g.getAffineYCoord().toBigInteger());
+            g4.multiply(k);
+            assertSame("Base point precomputation dropped on " + names[i], preCompInfo, c.getPreCompInfo(g4));
+        }
+    }
+
     private void assertPointsEqual(String message, ECPoint a, ECPoint b)
     {
         assertEquals(message, a, b);
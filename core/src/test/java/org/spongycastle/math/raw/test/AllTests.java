@@ -0,0 +1,23 @@
+package org.spongycastle.math.raw.test;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+public class AllTests 
+{
+    public static void main (String[] args) 
+        throws Exception
+    {
+        junit.textui.TestRunner.run(suite());
+    }
+    
+    public static Test suite() 
+        throws Exception
+    {   
+        TestSuite suite = new TestSuite("Raw Math tests");
+
+        suite.addTest(ModTest.suite());
+
+        return suite;
+    }
+}
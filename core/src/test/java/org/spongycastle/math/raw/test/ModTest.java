@@ -0,0 +1,132 @@
+package org.spongycastle.math.raw.test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.spongycastle.math.raw.Mod;
+import org.spongycastle.math.raw.Nat;
+
+/**
+ * Checks the {@link Nat} and {@link Mod} arithmetic against BigInteger.
+ */
+public class ModTest extends TestCase
+{
+    private static final int[] SIZES = { 256, 521, 1024, 2048 };
+
+    private SecureRandom random = new SecureRandom();
+
+    public void testMaskedOperations()
+    {
+        for (int s = 0; s < SIZES.length; ++s)
+        {
+            int bits = SIZES[s], len = (bits + 31) >>> 5;
+            BigInteger top = BigInteger.ONE.shiftLeft(len << 5);
+
+            for (int i = 0; i < 10; ++i)
+            {
+                BigInteger X = new BigInteger(bits, random), Y = new BigInteger(bits, random);
+                int[] x = Nat.fromBigInteger(len << 5, X), y = Nat.fromBigInteger(len << 5, Y);
+                int[] z = Nat.create(len);
+
+                int c = Nat.cadd(len, -1, x, y, z);
+                assertEquals(X.add(Y), Nat.toBigInteger(len, z).add(BigInteger.valueOf(c).shiftLeft(len << 5)));
+                assertEquals(0, Nat.cadd(len, 0, x, y, z));
+                assertEquals(X, Nat.toBigInteger(len, z));
+
+                c = Nat.csub(len, -1, x, y, z);
+                assertEquals(X.subtract(Y).mod(top), Nat.toBigInteger(len, z));
+                assertEquals(X.compareTo(Y) < 0 ? -1 : 0, c);
+                assertEquals(0, Nat.csub(len, 0, x, y, z));
+                assertEquals(X, Nat.toBigInteger(len, z));
+
+                Nat.cmov(len, 0, y, z);
+                assertEquals(X, Nat.toBigInteger(len, z));
+                Nat.cmov(len, -1, y, z);
+                assertEquals(Y, Nat.toBigInteger(len, z));
+            }
+        }
+    }
+
+    public void testMontgomeryMultiply()
+    {
+        for (int s = 0; s < SIZES.length; ++s)
+        {
+            int bits = SIZES[s], len = (bits + 31) >>> 5;
+            BigInteger P = randomModulus(bits);
+            BigInteger RInv = BigInteger.ONE.shiftLeft(len << 5).modInverse(P);
+
+            int[] p = Nat.fromBigInteger(len << 5, P);
+            int pInv = -Mod.inverse32(p[0]);
+            assertEquals(-1, p[0] * pInv);
+
+            int[] z = Nat.create(len), tt = Nat.create(len << 1);
+            for (int i = 0; i < 10; ++i)
+            {
+                BigInteger X = randomBelow(P), Y = randomBelow(P);
+                int[] x = Nat.fromBigInteger(len << 5, X), y = Nat.fromBigInteger(len << 5, Y);
+
+                Mod.montgomeryMultiply(p, pInv, x, y, z, tt);
+                assertEquals(X.multiply(Y).multiply(RInv).mod(P), Nat.toBigInteger(len, z));
+
+                Mod.montgomerySquare(p, pInv, x, z, tt);
+                assertEquals(X.multiply(X).multiply(RInv).mod(P), Nat.toBigInteger(len, z));
+            }
+
+            assertEquals(BigInteger.ONE.shiftLeft(len << 6).mod(P), Nat.toBigInteger(len, Mod.montgomeryR2(p)));
+        }
+    }
+
+    public void testModPow()
+    {
+        for (int s = 0; s < SIZES.length; ++s)
+        {
+            int bits = SIZES[s], len = (bits + 31) >>> 5;
+            BigInteger P = randomModulus(bits);
+            int[] p = Nat.fromBigInteger(len << 5, P);
+
+            BigInteger[] exponents = { BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(65537),
+                new BigInteger(bits, random) };
+
+            for (int i = 0; i < exponents.length; ++i)
+            {
+                BigInteger X = randomBelow(P), E = exponents[i];
+                int[] x = Nat.fromBigInteger(len << 5, X);
+                int[] e = Nat.fromBigInteger(Math.max(32, E.bitLength()), E);
+                int[] z = Nat.create(len);
+
+                Mod.modPow(p, x, e, z);
+                assertEquals(X.modPow(E, P), Nat.toBigInteger(len, z));
+            }
+
+            // Zero base
+            int[] z = Nat.create(len);
+            Mod.modPow(p, Nat.create(len), new int[]{ 3 }, z);
+            assertTrue(Nat.isZero(len, z));
+        }
+    }
+
+    private BigInteger randomModulus(int bits)
+    {
+        return new BigInteger(bits, random).setBit(bits - 1).setBit(0);
+    }
+
+    private BigInteger randomBelow(BigInteger n)
+    {
+        BigInteger x;
+        do
+        {
+            x = new BigInteger(n.bitLength(), random);
+        }
+        while (x.compareTo(n) >= 0);
+        return x;
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite(ModTest.class);
+    }
+}
@@ -15,6 +15,7 @@ public static Test suite()
         TestSuite suite = new TestSuite("util tests");
         suite.addTestSuite(IPTest.class);
         suite.addTestSuite(BigIntegersTest.class);
+        suite.addTestSuite(SipHashMapTest.class);
         return suite;
     }
 }
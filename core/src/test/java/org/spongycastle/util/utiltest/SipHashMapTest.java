@@ -0,0 +1,64 @@
+package org.spongycastle.util.utiltest;
+
+import java.util.Hashtable;
+import java.util.Random;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+import org.spongycastle.util.SipHashMap;
+import org.spongycastle.util.encoders.Hex;
+
+public class SipHashMapTest
+    extends TestCase
+{
+    public String getName()
+    {
+        return "SipHashMap";
+    }
+
+    public void testAgainstHashtable()
+    {
+        SipHashMap map = new SipHashMap(0x0706050403020100L, 0x0f0e0d0c0b0a0908L);
+        Hashtable reference = new Hashtable();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++)
+        {
+            byte[] key = new byte[1 + random.nextInt(3)];
+            random.nextBytes(key);
+            String refKey = Hex.toHexString(key);
+
+            switch (random.nextInt(3))
+            {
+            case 0:
+                Integer value = new Integer(i);
+                Assert.assertEquals(reference.put(refKey, value), map.put(key, value));
+                break;
+            case 1:
+                Assert.assertEquals(reference.remove(refKey), map.remove(key));
+                break;
+            default:
+                Assert.assertEquals(reference.get(refKey), map.get(key));
+                break;
+            }
+
+            Assert.assertEquals(reference.size(), map.size());
+        }
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    public void testKeyCopied()
+    {
+        SipHashMap map = new SipHashMap();
+        byte[] key = Hex.decode("0102030405");
+
+        map.put(key, "value");
+        key[0] = 0;
+
+        Assert.assertNull(map.get(key));
+        Assert.assertEquals("value", map.get(Hex.decode("0102030405")));
+        Assert.assertTrue(map.containsKey(Hex.decode("0102030405")));
+    }
+}